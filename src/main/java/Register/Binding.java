@@ -0,0 +1,75 @@
+package Register;
+
+import java.io.Serializable;
+import java.rmi.Remote;
+
+/**
+ * A change of a name in the directory of the {@link Register} object: the name was bound, rebound or unbound.
+ * <p>
+ * Every change gets the next version of the directory, so a client watching it asks for the changes after the last
+ * version it has seen and misses none.
+ */
+public final class Binding implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The name
+	 */
+	private final String name;
+	/**
+	 * The remote object bound to the name, null when it was unbound
+	 */
+	private final Remote ref;
+	/**
+	 * The version of the directory the change was made in
+	 */
+	private final long version;
+
+	/**
+	 * Creates a change
+	 *
+	 * @param name    the name
+	 * @param ref     the remote object bound to it, null when it was unbound
+	 * @param version the version of the directory the change was made in
+	 */
+	Binding(String name, Remote ref, long version) {
+		this.name = name;
+		this.ref = ref;
+		this.version = version;
+	}
+
+	/**
+	 * Getter for the name
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter for the remote object bound to the name
+	 *
+	 * @return the remote object, null when the name was unbound
+	 */
+	public Remote getRef() {
+		return ref;
+	}
+
+	/**
+	 * Getter for the version of the directory the change was made in
+	 *
+	 * @return the version, greater than that of every earlier change
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return name + "@" + version + (ref == null ? " unbound" : "");
+	}
+}
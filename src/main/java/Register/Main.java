@@ -1,5 +1,9 @@
 package Register;
 
+import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
@@ -53,6 +57,22 @@ public class Main {
 			System.exit(1);
 		}
 
+		/* load the simulation configuration */
+
+		SimulationDefaults params = null;
+		try {
+			params = SimulationDefaults.load();
+		} catch (IOException | IllegalArgumentException e) {
+			System.out.println("Could not load the simulation configuration: " + e.getMessage());
+			System.exit(1);
+		}
+
+		/* the register is never shut down, so its statistics are printed when the process is stopped */
+
+		Instrumentation.setEnabled(params.isInstrumented());
+		if (Instrumentation.isEnabled())
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(Instrumentation.report())));
+
 		/* create and install the security manager */
 
 		if (System.getSecurityManager() == null)
@@ -66,7 +86,7 @@ public class Main {
 		Register regEngineStub = null;                                                               // remote reference to it
 
 		try {
-			regEngineStub = (Register) UnicastRemoteObject.exportObject(regEngine, portNumb);
+			regEngineStub = (Register) UnicastRemoteObject.exportObject(Instrumentation.instrument(regEngine, "Register"), portNumb);
 		} catch (RemoteException e) {
 			System.out.println("RegisterRemoteObject stub generation exception: " + e.getMessage());
 			System.exit(1);
@@ -1,13 +1,26 @@
 package Register;
 
+import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+import transport.BinaryTransport;
+
 import java.rmi.*;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class of utility methods to abstract some logic of dealing with remote objects.
- * Can handle finding, registration and unbinding
+ * Can handle finding, registration and unbinding.
+ * <p>
+ * The objects found are cached, and the finding waits in the register object for the objects that are not bound yet,
+ * so the processes can be started in any order
  */
 public class RMIUtils {
 
@@ -15,18 +28,60 @@ public class RMIUtils {
 	 * Name to which the register object will be registered
 	 */
 	public static final String REGISTER_NAME = "REGISTER";
+	/**
+	 * The first wait, in ms, for the register object when it is not bound yet
+	 */
+	private static final long MIN_BACKOFF = 10;
+	/**
+	 * The longest wait, in ms, between two attempts to find the register object
+	 */
+	private static final long MAX_BACKOFF = 500;
 
 	private Registry registry;
 	private Register register;
+	/**
+	 * The object actually exported for each registered object, a proxy when the servers are instrumented
+	 */
+	private final Map<Remote, Remote> exported = new IdentityHashMap<>();
+	/**
+	 * The socket factories the objects are exported with, null for RMI's default sockets
+	 */
+	private SocketFactories sockets;
+	/**
+	 * Whether the objects are exported with the binary transport instead of RMI
+	 */
+	private boolean binaryTransport;
+	/**
+	 * How long, in ms, to wait for the objects that are not bound yet
+	 */
+	private final int connectionTimeout;
+	/**
+	 * The objects already found, by name
+	 */
+	private final Map<String, Remote> found = new ConcurrentHashMap<>();
 
 	/**
-	 * Creates a RMIUtils instance.
+	 * Creates a RMIUtils instance, waiting for the objects as long as the default connection timeout.
 	 * Connects to the remote registry and creates a {@link Register} object
 	 *
 	 * @param rmiRegHostName The host where the RMI registry is running.
 	 * @param rmiRegPortNumb The port where the RMI registry is exposed in it's machine
 	 */
 	public RMIUtils(String rmiRegHostName, int rmiRegPortNumb) {
+		this(rmiRegHostName, rmiRegPortNumb, SimulationDefaults.DEFAULT.getConnectionTimeout());
+	}
+
+	/**
+	 * Creates a RMIUtils instance.
+	 * Connects to the remote registry and creates a {@link Register} object,
+	 * waiting for the registry and the register object if they are not up yet
+	 *
+	 * @param rmiRegHostName    The host where the RMI registry is running.
+	 * @param rmiRegPortNumb    The port where the RMI registry is exposed in it's machine
+	 * @param connectionTimeout How long, in ms, to wait for the registry and for the objects that are not bound yet
+	 */
+	public RMIUtils(String rmiRegHostName, int rmiRegPortNumb, int connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
 		try {
 			registry = LocateRegistry.getRegistry(rmiRegHostName, rmiRegPortNumb);
 		} catch (RemoteException e) {
@@ -35,20 +90,43 @@ public class RMIUtils {
 			System.exit(0);
 		}
 		System.out.println("RMI registry was created!");
-		try {
-			register = (Register) registry.lookup(REGISTER_NAME);
-		} catch (RemoteException e) {
-			System.err.println("RegisterRemoteObject lookup exception: " + e.getMessage());
-			System.exit(0);
-		} catch (NotBoundException e) {
-			System.err.println("RegisterRemoteObject not bound exception: " + e.getMessage());
-			System.exit(0);
+
+		final long deadline = deadline();
+		for (long backoff = MIN_BACKOFF; register == null; backoff = backOff(backoff, deadline, REGISTER_NAME)) {
+			try {
+				register = (Register) registry.lookup(REGISTER_NAME);
+			} catch (ConnectException | NotBoundException e) {
+				// the registry or the register object is not up yet
+			} catch (RemoteException e) {
+				System.err.println("RegisterRemoteObject lookup exception: " + e.getMessage());
+				System.exit(0);
+			}
 		}
 	}
 
+	/**
+	 * Sets the socket factories the objects registered from now on are exported with
+	 *
+	 * @param sockets the socket factories, null for RMI's default sockets
+	 */
+	public synchronized void setSocketFactories(SocketFactories sockets) {
+		this.sockets = sockets;
+	}
+
+	/**
+	 * Sets whether the objects registered from now on are exported with the {@link BinaryTransport} instead of RMI.
+	 * The clients find them in the registry as usual
+	 *
+	 * @param binaryTransport true to export them with the binary transport, in which case the socket factories are not used
+	 */
+	public synchronized void setBinaryTransport(boolean binaryTransport) {
+		this.binaryTransport = binaryTransport;
+	}
+
 	/**
 	 * Exports and registers an object.
-	 * In order to register multiple objects of the same class, please use {@link RMIUtils#register(Remote, int, int)}
+	 * In order to register multiple objects of the same class, please use {@link RMIUtils#register(Remote, int, int)}.
+	 * When the instrumentation is enabled, the calls are counted and timed under the object's class name
 	 *
 	 * @param obj  The object to be exported
 	 * @param port The port to listen to remote requests
@@ -58,7 +136,7 @@ public class RMIUtils {
 		final T stub;                                                               // remote reference to it
 
 		try {
-			stub = (T) UnicastRemoteObject.exportObject(obj, port);
+			stub = (T) exportObject(obj, obj.getClass().getSimpleName(), port);
 		} catch (RemoteException e) {
 			System.err.println("RegisterRemoteObject stub generation exception: " + e.getMessage());
 			e.printStackTrace();
@@ -67,7 +145,7 @@ public class RMIUtils {
 		}
 
 		try {
-			register.bind(obj.getClass().getName(), stub);
+			register.bind(name(obj.getClass()), stub);
 		} catch (RemoteException e) {
 			System.err.println("RegisterRemoteObject stub bind exception: " + e.getMessage());
 			e.printStackTrace();
@@ -83,6 +161,7 @@ public class RMIUtils {
 	 * Exports and registers an object.
 	 * This method can be used to register multiple instances of the same class.
 	 * Just pass different values to cnt in order to register multiple instances.
+	 * When the instrumentation is enabled, the calls are counted and timed under the object's class name followed by cnt
 	 *
 	 * @param obj  The object to be exported
 	 * @param cnt  the identifier of this object's instance in the RMI registry
@@ -93,7 +172,7 @@ public class RMIUtils {
 		final T stub;                                                               // remote reference to it
 
 		try {
-			stub = (T) UnicastRemoteObject.exportObject(obj, port);
+			stub = (T) exportObject(obj, obj.getClass().getSimpleName() + cnt, port);
 		} catch (RemoteException e) {
 			System.out.println("RegisterRemoteObject stub generation exception: " + e.getMessage());
 			System.exit(0);
@@ -101,7 +180,7 @@ public class RMIUtils {
 		}
 
 		try {
-			register.bind(obj.getClass().getName(), stub);
+			register.bind(name(obj.getClass(), cnt), stub);
 		} catch (RemoteException e) {
 			System.err.println("RegisterRemoteObject stub bind exception: " + e.getMessage());
 			e.printStackTrace();
@@ -123,18 +202,7 @@ public class RMIUtils {
 	 * @return The remote object.
 	 */
 	public <T extends Remote> Remote find(Class<T> type) {
-		try {
-			return registry.lookup(type.getName());
-		} catch (RemoteException e) {
-			System.err.println("RegisterRemoteObject object lookup exception: " + e.getMessage());
-			e.printStackTrace();
-			System.exit(0);
-		} catch (NotBoundException e) {
-			System.err.println("RegisterRemoteObject object not bound exception: " + e.getMessage());
-			e.printStackTrace();
-			System.exit(0);
-		}
-		return null;
+		return resolve(name(type))[0];
 	}
 
 	/**
@@ -146,18 +214,84 @@ public class RMIUtils {
 	 * @return The remote object.
 	 */
 	public <T extends Remote> Remote find(Class<T> type, int cnt) {
-		try {
-			return registry.lookup(type.getName() + cnt);
-		} catch (RemoteException e) {
-			System.err.println("RegisterRemoteObject object lookup exception: " + e.getMessage());
-			e.printStackTrace();
-			System.exit(0);
-		} catch (NotBoundException e) {
-			System.err.println("RegisterRemoteObject object not bound exception: " + e.getMessage());
-			e.printStackTrace();
-			System.exit(0);
+		return resolve(name(type, cnt))[0];
+	}
+
+	/**
+	 * Finds several objects in the registry, with one call to the register object for all those not found before.
+	 * The register object replies as soon as the objects that are not bound yet are, or when the connection timeout runs out.
+	 * The objects found are cached, so a later {@link #find(Class)} of any of them does not call the registry
+	 *
+	 * @param names The objects' names, see {@link #name(Class)} and {@link #name(Class, int)}
+	 * @return The remote objects, in the order of their names
+	 */
+	public Remote[] resolve(String... names) {
+		final long deadline = deadline();
+		while (true) {
+			final List<String> missing = new ArrayList<>();
+			for (String name : names)
+				if (!found.containsKey(name))
+					missing.add(name);
+			if (missing.isEmpty())
+				break;
+
+			final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				System.err.println("RegisterRemoteObject object not bound in time: " + missing);
+				System.exit(1);
+			}
+			final Remote[] stubs;
+			try {
+				stubs = register.await(missing.toArray(new String[0]), remaining);
+			} catch (RemoteException e) {
+				System.err.println("RegisterRemoteObject object lookup exception: " + e.getMessage());
+				e.printStackTrace();
+				System.exit(1);
+				return null;
+			}
+			for (int i = 0; i < stubs.length; i++)
+				if (stubs[i] != null)
+					found.put(missing.get(i), stubs[i]);
 		}
-		return null;
+
+		final Remote[] stubs = new Remote[names.length];
+		for (int i = 0; i < names.length; i++)
+			stubs[i] = found.get(names[i]);
+		return stubs;
+	}
+
+	/**
+	 * Watches the objects registered through the register object: returns the changes after a given version,
+	 * waiting for one if there are none yet
+	 *
+	 * @param since   The last version seen, 0 for every object ever registered
+	 * @param timeout How long to wait, in ms, for a change
+	 * @return The last change of each name changed after the version, in the order of their versions, none if the time is up
+	 * @throws RemoteException when the call to the register object fails
+	 */
+	public Binding[] watch(long since, long timeout) throws RemoteException {
+		return register.changes(since, timeout);
+	}
+
+	/**
+	 * The name an object of a given type is registered with
+	 *
+	 * @param type The object's class
+	 * @return The name of its only instance
+	 */
+	public static String name(Class<?> type) {
+		return type.getName();
+	}
+
+	/**
+	 * The name a specific instance of an object of a given type is registered with
+	 *
+	 * @param type The object's class
+	 * @param cnt  the identifier of this object's instance in the RMI registry
+	 * @return The name of the instance
+	 */
+	public static String name(Class<?> type, int cnt) {
+		return type.getName() + cnt;
 	}
 
 	/**
@@ -171,7 +305,7 @@ public class RMIUtils {
 	public <T extends Remote> void unbind(T obj) {
 
 		try {
-			register.unbind(obj.getClass().getName());
+			register.unbind(name(obj.getClass()));
 		} catch (RemoteException e) {
 			System.err.println("RegisterRemoteObject object lookup exception: " + e.getMessage());
 			e.printStackTrace();
@@ -183,7 +317,7 @@ public class RMIUtils {
 		}
 
 		try {
-			UnicastRemoteObject.unexportObject(obj, true);
+			unexportObject(unexport(obj));
 		} catch (NoSuchObjectException e) {
 			System.err.println("RegisterRemoteObject object does not exist exception: " + e.getMessage());
 			e.printStackTrace();
@@ -202,7 +336,7 @@ public class RMIUtils {
 	 */
 	public <T extends Remote> void unbind(T obj, int cnt) {
 		try {
-			register.unbind(obj.getClass().getName() + cnt);
+			register.unbind(name(obj.getClass(), cnt));
 		} catch (RemoteException e) {
 			System.err.println("RegisterRemoteObject object lookup exception: " + e.getMessage());
 			e.printStackTrace();
@@ -214,11 +348,96 @@ public class RMIUtils {
 		}
 
 		try {
-			UnicastRemoteObject.unexportObject(obj, true);
+			unexportObject(unexport(obj));
 		} catch (NoSuchObjectException e) {
 			System.err.println("RegisterRemoteObject object does not exist exception: " + e.getMessage());
 			e.printStackTrace();
 			System.exit(0);
 		}
 	}
+
+	/**
+	 * The time until which to wait for the objects that are not bound yet
+	 *
+	 * @return the deadline, in {@link System#nanoTime()} units
+	 */
+	private long deadline() {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+	}
+
+	/**
+	 * Waits before the next attempt to find an object that is not bound yet, giving up once the deadline has passed
+	 *
+	 * @param backoff  how long to wait, in ms
+	 * @param deadline the time until which to wait, in {@link System#nanoTime()} units
+	 * @param name     the name of the object, for the error message
+	 * @return how long to wait before the attempt after the next one
+	 */
+	private static long backOff(long backoff, long deadline, String name) {
+		final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if (remaining <= 0) {
+			System.err.println("RegisterRemoteObject object not bound in time: " + name);
+			System.exit(1);
+		}
+		try {
+			Thread.sleep(Math.min(backoff, remaining));
+		} catch (InterruptedException e) {
+			System.err.println("RegisterRemoteObject interrupted while waiting for: " + name);
+			Thread.currentThread().interrupt();
+			System.exit(1);
+		}
+		return Math.min(backoff * 2, MAX_BACKOFF);
+	}
+
+	/**
+	 * Exports a registered object, with the binary transport if it is selected, otherwise with the socket factories if they are set
+	 *
+	 * @param obj    the registered object
+	 * @param server the name its calls and transport are reported under
+	 * @param port   the port to listen to remote requests
+	 * @return the stub of the exported object
+	 * @throws RemoteException when the object cannot be exported
+	 */
+	private synchronized Remote exportObject(Remote obj, String server, int port) throws RemoteException {
+		if (binaryTransport)
+			return BinaryTransport.export(export(obj, server), port);
+		if (sockets == null)
+			return UnicastRemoteObject.exportObject(export(obj, server), port);
+		return UnicastRemoteObject.exportObject(export(obj, server), port, sockets.clientFactory(server), sockets.serverFactory(server));
+	}
+
+	/**
+	 * Unexports an object, from the transport it was exported with
+	 *
+	 * @param target the object that was exported
+	 * @throws NoSuchObjectException when it was not exported
+	 */
+	private static void unexportObject(Remote target) throws NoSuchObjectException {
+		if (!BinaryTransport.unexport(target))
+			UnicastRemoteObject.unexportObject(target, true);
+	}
+
+	/**
+	 * The object to export for a registered object
+	 *
+	 * @param obj    the registered object
+	 * @param server the name its calls are reported under
+	 * @return the object to export
+	 */
+	private synchronized Remote export(Remote obj, String server) {
+		final Remote target = Instrumentation.instrument(obj, server);
+		exported.put(obj, target);
+		return target;
+	}
+
+	/**
+	 * The object that was exported for a registered object
+	 *
+	 * @param obj the registered object
+	 * @return the object to unexport
+	 */
+	private synchronized Remote unexport(Remote obj) {
+		final Remote target = exported.remove(obj);
+		return target == null ? obj : target;
+	}
 }
@@ -47,4 +47,32 @@ public interface Register extends Remote {
      */
 
     void rebind(String name, Remote ref) throws RemoteException;
+
+    /**
+     * Returns the remote references bound to several names in this registry, waiting for the names that are not bound yet.
+     * <p>
+     * A client can be started before the objects it needs and get them as soon as they are bound.
+     *
+     * @param names   the names associated with the references to the remote objects
+     * @param timeout how long to wait, in ms, for the names to be bound
+     * @return the references, in the order of their names, null for the names still not registered when the time is up
+     * @throws RemoteException if either the invocation of the remote method, or the communication with the registry
+     *                         service fails
+     */
+
+    Remote[] await(String[] names, long timeout) throws RemoteException;
+
+    /**
+     * Returns the changes of the names bound through this object after a given version, waiting for one if there are none yet.
+     * <p>
+     * A client watches the names by calling it again with the greatest version it got.
+     *
+     * @param since   the last version seen by the client, 0 for every name ever bound
+     * @param timeout how long to wait, in ms, for a change
+     * @return the last change of each name changed after the version, in the order of their versions, none if the time is up
+     * @throws RemoteException if either the invocation of the remote method, or the communication with the registry
+     *                         service fails
+     */
+
+    Binding[] changes(long since, long timeout) throws RemoteException;
 }
@@ -1,16 +1,29 @@
 package Register;
 
+import instrumentation.Instrumentation;
+
 import java.rmi.AlreadyBoundException;
 import java.rmi.NotBoundException;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Generic functionality to register in the local RMI registry service objects located
  * in the same or other processing nodes of a parallel machine.
  * Communication is based on Java RMI.
+ * <p>
+ * Besides binding them in the registry, it keeps a directory of the names bound through it, each with the version
+ * of the directory it last changed in. The clients look the names up in the directory, wait in it for the names
+ * that are not bound yet, and watch it for changes, without calling the registry.
  */
 public class RegisterRemoteObject implements Register {
 	/**
@@ -25,6 +38,36 @@ public class RegisterRemoteObject implements Register {
 
 	private final int rmiRegPortNumb;
 
+	/**
+	 * Reference to the local RMI registering service, created on the first call
+	 */
+
+	private Registry registry;
+
+	/**
+	 * The mutex's lock, held while the registry and the directory are changed together
+	 */
+
+	private final ReentrantLock lock = Instrumentation.newLock(RegisterRemoteObject.class);
+
+	/**
+	 * Signalled whenever the directory changes
+	 */
+
+	private final Condition changed = lock.newCondition();
+
+	/**
+	 * The last change of each name bound through this object, including the names that were unbound
+	 */
+
+	private final Map<String, Binding> directory = new HashMap<>();
+
+	/**
+	 * The version of the directory, incremented on every change
+	 */
+
+	private long version;
+
 	/**
 	 * Instantiation of a registering object.
 	 *
@@ -55,12 +98,15 @@ public class RegisterRemoteObject implements Register {
 
 	@Override
 	public void bind(String name, Remote ref) throws RemoteException, AlreadyBoundException {
-		Registry registry;
-
 		if ((name == null) || (ref == null))
 			throw new NullPointerException("RegisterRemoteObject: null parameter(s) on on bind!");
-		registry = LocateRegistry.getRegistry(rmiRegHostName, rmiRegPortNumb);
-		registry.bind(name, ref);
+		lock.lock();
+		try {
+			registry().bind(name, ref);
+			change(name, ref);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -74,11 +120,14 @@ public class RegisterRemoteObject implements Register {
 
 	@Override
 	public void unbind(String name) throws RemoteException, NotBoundException {
-		Registry registry;
-
 		if ((name == null)) throw new NullPointerException("RegisterRemoteObject: null parameter(s) on unbind!");
-		registry = LocateRegistry.getRegistry(rmiRegHostName, rmiRegPortNumb);
-		registry.unbind(name);
+		lock.lock();
+		try {
+			registry().unbind(name);
+			change(name, null);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -94,11 +143,141 @@ public class RegisterRemoteObject implements Register {
 
 	@Override
 	public void rebind(String name, Remote ref) throws RemoteException {
-		Registry registry;
-
 		if ((name == null) || (ref == null))
 			throw new NullPointerException("RegisterRemoteObject: null parameter(s) on rebind!");
-		registry = LocateRegistry.getRegistry(rmiRegHostName, rmiRegPortNumb);
-		registry.rebind(name, ref);
+		lock.lock();
+		try {
+			registry().rebind(name, ref);
+			change(name, ref);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the remote references bound to several names in this registry, waiting for the names that are not bound yet.
+	 *
+	 * @param names   the names associated with the references to the remote objects
+	 * @param timeout how long to wait, in ms, for the names to be bound
+	 * @return the references, in the order of their names, null for the names still not registered when the time is up
+	 * @throws RemoteException if interrupted while waiting
+	 */
+
+	@Override
+	public Remote[] await(String[] names, long timeout) throws RemoteException {
+		Remote[] refs;
+		long remaining;
+
+		if (names == null) throw new NullPointerException("RegisterRemoteObject: null parameter(s) on await!");
+		remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+		lock.lock();
+		try {
+			refs = refs(names);
+			while (remaining > 0 && isMissing(refs)) {
+				remaining = changed.awaitNanos(remaining);
+				refs = refs(names);
+			}
+			return refs;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RemoteException("RegisterRemoteObject: interrupted on await!", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the changes of the directory after a given version, waiting for one if there are none yet.
+	 * <p>
+	 * A client watches the directory by calling it again with the greatest version it got.
+	 *
+	 * @param since   the last version seen by the client, 0 for every name ever bound
+	 * @param timeout how long to wait, in ms, for a change
+	 * @return the last change of each name changed after the version, in the order of their versions, none if the time is up
+	 * @throws RemoteException if interrupted while waiting
+	 */
+
+	@Override
+	public Binding[] changes(long since, long timeout) throws RemoteException {
+		List<Binding> changes;
+		long remaining;
+
+		remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+		lock.lock();
+		try {
+			while (remaining > 0 && version <= since)
+				remaining = changed.awaitNanos(remaining);
+			changes = new ArrayList<>();
+			for (Binding binding : directory.values())
+				if (binding.getVersion() > since)
+					changes.add(binding);
+			changes.sort((a, b) -> Long.compare(a.getVersion(), b.getVersion()));
+			return changes.toArray(new Binding[0]);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RemoteException("RegisterRemoteObject: interrupted on changes!", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The reference to the local RMI registering service, created on the first call.
+	 *
+	 * @return the registry
+	 * @throws RemoteException if the reference could not be created
+	 */
+
+	private Registry registry() throws RemoteException {
+		if (registry == null)
+			registry = LocateRegistry.getRegistry(rmiRegHostName, rmiRegPortNumb);
+		return registry;
+	}
+
+	/**
+	 * Records a change of a name in the directory and wakes up the clients waiting for it.
+	 * Must be called with the lock held.
+	 *
+	 * @param name the name
+	 * @param ref  the reference bound to it, null if it was unbound
+	 */
+
+	private void change(String name, Remote ref) {
+		directory.put(name, new Binding(name, ref, ++version));
+		changed.signalAll();
+	}
+
+	/**
+	 * The references bound to several names in the directory.
+	 * Must be called with the lock held.
+	 *
+	 * @param names the names
+	 * @return the references, in the order of their names, null for the names that are not bound
+	 */
+
+	private Remote[] refs(String[] names) {
+		Remote[] refs;
+		Binding binding;
+
+		refs = new Remote[names.length];
+		for (int i = 0; i < names.length; i++) {
+			binding = directory.get(names[i]);
+			refs[i] = binding == null ? null : binding.getRef();
+		}
+		return refs;
+	}
+
+	/**
+	 * Whether some of the names looked up are not bound.
+	 *
+	 * @param refs the references bound to the names
+	 * @return true if one of the references is null
+	 */
+
+	private static boolean isMissing(Remote[] refs) {
+		for (Remote ref : refs)
+			if (ref == null)
+				return true;
+		return false;
 	}
 }
@@ -0,0 +1,26 @@
+package Register;
+
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+
+/**
+ * Supplies the socket factories a remote object is exported with, see {@link RMIUtils#setSocketFactories(SocketFactories)}
+ */
+public interface SocketFactories {
+	/**
+	 * The factory of the sockets the clients of a remote object connect with.
+	 * It is sent to the clients along with the object's stub, so it must be serializable
+	 *
+	 * @param server the name of the remote object, as its calls are reported
+	 * @return the client socket factory
+	 */
+	RMIClientSocketFactory clientFactory(String server);
+
+	/**
+	 * The factory of the sockets a remote object accepts connections on
+	 *
+	 * @param server the name of the remote object, as its calls are reported
+	 * @return the server socket factory
+	 */
+	RMIServerSocketFactory serverFactory(String server);
+}
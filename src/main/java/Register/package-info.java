@@ -5,7 +5,7 @@
  * <ol>
  * <li> execute the rmiregistry in one machine </li>
  * <li> execute the Main class in the same machine </li>
- * <li> execute the other Main classes in their respective machines </li>
+ * <li> execute the other Main classes in their respective machines, in any order: each waits in the register object for the objects it needs </li>
  * </ol>
  */
 package Register;
\ No newline at end of file
@@ -1,6 +1,14 @@
 package SimulationDefaults;
 
+import concentrationSite.RoomAssignment;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.rmi.RemoteException;
+import java.util.Properties;
 
 /**
  * Holds the configuration for the simulation
@@ -10,23 +18,20 @@ public class SimulationDefaults {
     /**
      * The default simulation values as specified by the assignment
      */
-    public static final SimulationDefaults DEFAULT = new SimulationDefaults(
-            2,
-            3,
-            3,
-            6,
-            2,
-            6,
-            5,
-            15,
-            30,
-            8,
-            16,
-            false,
-            3,
-            "./log.txt",
-            10000
-    );
+    public static final SimulationDefaults DEFAULT = new Builder().build();
+
+    /**
+     * System property holding the path to the configuration file
+     */
+    public static final String CONFIG_FILE_PROPERTY = "simulation.config";
+    /**
+     * Configuration file read when {@link #CONFIG_FILE_PROPERTY} is not set, if it exists
+     */
+    public static final String DEFAULT_CONFIG_FILE = "./simulation.properties";
+    /**
+     * Prefix of the system properties overriding single values, e.g. -Dsimulation.numberOfRooms=10
+     */
+    public static final String PROPERTY_PREFIX = "simulation.";
 
     /* Thieves/Assault party config*/
     /**
@@ -88,45 +93,291 @@ public class SimulationDefaults {
      */
     private final String logFilePath; /*= "./log.txt"*/
     /**
-     * Timeout for each connection (default: 1000ms)
-     */
-    private final int connectionTimeout; /*= 1000*/
-
-    /**
-     * Creates all the properties for the simulation
-     *
-     * @param numberOfAssaultParties Number of assault parties (default: 2)
-     * @param assaultPartySize       Number of thieves per assault party (default: 3)
-     * @param maxSeparation          Maximum distance between 2 consecutive thieves (default: 3)
-     * @param numberOfThieves        Number of thieves in the party (excluding the Master) (default: 6)
-     * @param minDisplacement        Minimum distance for a thief's agility (default: 2)
-     * @param maxDisplacement        Maximum distance for a thief's agility (default: 6)
-     * @param numberOfRooms          Number of rooms in the museum (default: 5)
-     * @param minDistance            Minimum distance a room can be from the concentration site (default: 15)
-     * @param maxDistance            Maximum distance a room can be from the concentration site (default: 30)
-     * @param minPaintings           Minimum number of paintings a room can have (default: 8)
-     * @param maxPaintings           Maximum number of paintings a room can have (default: 16)
-     * @param breakLogger            Whether to break every log entry across lines (default: false)
-     * @param entitySeparationSpace  Number of spaces between fields of the log (default: 3)
-     * @param logFilePath            Path to where the log file should be written (default: ./log.txt)
-     * @param connectionTimeout      Timeout for each connection (default: 1000ms)
-     */
-    public SimulationDefaults(int numberOfAssaultParties, int assaultPartySize, int maxSeparation, int numberOfThieves, int minDisplacement, int maxDisplacement, int numberOfRooms, int minDistance, int maxDistance, int minPaintings, int maxPaintings, boolean breakLogger, int entitySeparationSpace, String logFilePath, int connectionTimeout) {
-        this.numberOfAssaultParties = numberOfAssaultParties;
-        this.assaultPartySize = assaultPartySize;
-        this.maxSeparation = maxSeparation;
-        this.numberOfThieves = numberOfThieves;
-        this.minDisplacement = minDisplacement;
-        this.maxDisplacement = maxDisplacement;
-        this.numberOfRooms = numberOfRooms;
-        this.minDistance = minDistance;
-        this.maxDistance = maxDistance;
-        this.minPaintings = minPaintings;
-        this.maxPaintings = maxPaintings;
-        this.breakLogger = breakLogger;
-        this.entitySeparationSpace = entitySeparationSpace;
-        this.logFilePath = logFilePath;
-        this.connectionTimeout = connectionTimeout;
+     * Time in ms a process waits for the registry and the remote objects it needs to be up (default: 10000ms)
+     */
+    private final int connectionTimeout; /*= 10000*/
+    /**
+     * Number of log events that can wait to be written by the logger's writer thread.
+     * 0 makes the logger write synchronously (default: 0)
+     */
+    private final int loggerBufferSize; /*= 0*/
+    /**
+     * Maximum number of log events each server ships to the logger in a single call.
+     * 1 ships every event right away (default: 64)
+     */
+    private final int loggerBatchSize; /*= 64*/
+    /**
+     * Maximum time in ms a log event waits in a server before being shipped to the logger (default: 10ms)
+     */
+    private final int loggerFlushInterval; /*= 10*/
+    /**
+     * Whether the logger writes a binary event log instead of the text log (default: false)
+     */
+    private final boolean binaryLogger; /*= false*/
+    /**
+     * Path to where the binary event log should be written (default: ./log.bin)
+     */
+    private final String binaryLogFilePath; /*= "./log.bin"*/
+    /**
+     * Whether the servers record per method call counts, latencies and lock wait and hold times (default: false)
+     */
+    private final boolean instrumented; /*= false*/
+    /**
+     * Whether the master collects every canvas waiting to be delivered each time it wakes up,
+     * instead of one canvas per wake up (default: false)
+     */
+    private final boolean batchCollection; /*= false*/
+    /**
+     * Order in which the rooms are assigned to the assault parties (default: SEQUENTIAL)
+     */
+    private final RoomAssignment roomAssignment; /*= SEQUENTIAL*/
+    /**
+     * Whether the thieves run on virtual threads, when the JVM supports them (default: false)
+     */
+    private final boolean virtualThreads; /*= false*/
+    /**
+     * Whether the servers export their objects with sockets that set TCP_NODELAY and count each object's traffic (default: false)
+     */
+    private final boolean tunedSockets; /*= false*/
+    /**
+     * Size in bytes of the send and receive buffers of the tuned sockets, 0 for the system's default (default: 0)
+     */
+    private final int socketBufferSize; /*= 0*/
+    /**
+     * Smallest frame in bytes the tuned sockets deflate, 0 to not compress (default: 0)
+     */
+    private final int compressionThreshold; /*= 0*/
+    /**
+     * Whether the servers are called with the binary transport instead of RMI (default: false)
+     */
+    private final boolean binaryTransport; /*= false*/
+
+    /**
+     * Creates the configuration holding the values set on a builder
+     *
+     * @param builder The builder
+     */
+    private SimulationDefaults(Builder builder) {
+        this.numberOfAssaultParties = builder.numberOfAssaultParties;
+        this.assaultPartySize = builder.assaultPartySize;
+        this.maxSeparation = builder.maxSeparation;
+        this.numberOfThieves = builder.numberOfThieves;
+        this.minDisplacement = builder.minDisplacement;
+        this.maxDisplacement = builder.maxDisplacement;
+        this.numberOfRooms = builder.numberOfRooms;
+        this.minDistance = builder.minDistance;
+        this.maxDistance = builder.maxDistance;
+        this.minPaintings = builder.minPaintings;
+        this.maxPaintings = builder.maxPaintings;
+        this.breakLogger = builder.breakLogger;
+        this.entitySeparationSpace = builder.entitySeparationSpace;
+        this.logFilePath = builder.logFilePath;
+        this.connectionTimeout = builder.connectionTimeout;
+        this.loggerBufferSize = builder.loggerBufferSize;
+        this.loggerBatchSize = builder.loggerBatchSize;
+        this.loggerFlushInterval = builder.loggerFlushInterval;
+        this.binaryLogger = builder.binaryLogger;
+        this.binaryLogFilePath = builder.binaryLogFilePath;
+        this.instrumented = builder.instrumented;
+        this.batchCollection = builder.batchCollection;
+        this.roomAssignment = builder.roomAssignment;
+        this.virtualThreads = builder.virtualThreads;
+        this.tunedSockets = builder.tunedSockets;
+        this.socketBufferSize = builder.socketBufferSize;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.binaryTransport = builder.binaryTransport;
+    }
+
+    /**
+     * Loads the configuration shared by every process.
+     * Values are read from the configuration file, {@link #CONFIG_FILE_PROPERTY} or else {@link #DEFAULT_CONFIG_FILE},
+     * then from the system properties starting with {@link #PROPERTY_PREFIX}.
+     * Values that are not set anywhere keep their {@link #DEFAULT}.
+     *
+     * @return The configuration
+     * @throws IOException              when the configuration file cannot be read, or was explicitly given and does not exist
+     * @throws IllegalArgumentException when a value is not valid
+     */
+    public static SimulationDefaults load() throws IOException {
+        final Properties properties = new Properties();
+        final String configFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        final File file = new File(configFile == null ? DEFAULT_CONFIG_FILE : configFile);
+        if (file.isFile()) {
+            try (Reader reader = new FileReader(file)) {
+                properties.load(reader);
+            }
+        } else if (configFile != null) {
+            throw new FileNotFoundException(configFile);
+        }
+
+        for (String name : DEFAULT.toProperties().stringPropertyNames()) {
+            final String value = System.getProperty(PROPERTY_PREFIX + name);
+            if (value != null)
+                properties.setProperty(name, value);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Prints values of the configuration, loaded as by every process, one per line.
+     * Lets the launch scripts follow the configuration, e.g. to start one server per assault party
+     *
+     * @param args The names of the values to print
+     */
+    public static void main(String[] args) {
+        final Properties properties;
+        try {
+            properties = load().toProperties();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("SimulationDefaults- Could not load the simulation configuration: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        for (String name : args) {
+            final String value = properties.getProperty(name);
+            if (value == null) {
+                System.err.println("SimulationDefaults- Unknown value: " + name);
+                System.exit(1);
+            }
+            System.out.println(value);
+        }
+    }
+
+    /**
+     * Creates a configuration from a set of properties named after its fields.
+     * Missing properties keep their {@link #DEFAULT}
+     *
+     * @param properties The properties
+     * @return The configuration
+     * @throws IllegalArgumentException when a value is not valid
+     */
+    public static SimulationDefaults fromProperties(Properties properties) {
+        return new Builder()
+                .numberOfAssaultParties(intProperty(properties, "numberOfAssaultParties", DEFAULT.numberOfAssaultParties))
+                .assaultPartySize(intProperty(properties, "assaultPartySize", DEFAULT.assaultPartySize))
+                .maxSeparation(intProperty(properties, "maxSeparation", DEFAULT.maxSeparation))
+                .numberOfThieves(intProperty(properties, "numberOfThieves", DEFAULT.numberOfThieves))
+                .minDisplacement(intProperty(properties, "minDisplacement", DEFAULT.minDisplacement))
+                .maxDisplacement(intProperty(properties, "maxDisplacement", DEFAULT.maxDisplacement))
+                .numberOfRooms(intProperty(properties, "numberOfRooms", DEFAULT.numberOfRooms))
+                .minDistance(intProperty(properties, "minDistance", DEFAULT.minDistance))
+                .maxDistance(intProperty(properties, "maxDistance", DEFAULT.maxDistance))
+                .minPaintings(intProperty(properties, "minPaintings", DEFAULT.minPaintings))
+                .maxPaintings(intProperty(properties, "maxPaintings", DEFAULT.maxPaintings))
+                .breakLogger(booleanProperty(properties, "breakLogger", DEFAULT.breakLogger))
+                .entitySeparationSpace(intProperty(properties, "entitySeparationSpace", DEFAULT.entitySeparationSpace))
+                .logFilePath(properties.getProperty("logFilePath", DEFAULT.logFilePath))
+                .connectionTimeout(intProperty(properties, "connectionTimeout", DEFAULT.connectionTimeout))
+                .loggerBufferSize(intProperty(properties, "loggerBufferSize", DEFAULT.loggerBufferSize))
+                .loggerBatchSize(intProperty(properties, "loggerBatchSize", DEFAULT.loggerBatchSize))
+                .loggerFlushInterval(intProperty(properties, "loggerFlushInterval", DEFAULT.loggerFlushInterval))
+                .binaryLogger(booleanProperty(properties, "binaryLogger", DEFAULT.binaryLogger))
+                .binaryLogFilePath(properties.getProperty("binaryLogFilePath", DEFAULT.binaryLogFilePath))
+                .instrumented(booleanProperty(properties, "instrumented", DEFAULT.instrumented))
+                .batchCollection(booleanProperty(properties, "batchCollection", DEFAULT.batchCollection))
+                .roomAssignment(roomAssignmentProperty(properties, "roomAssignment", DEFAULT.roomAssignment))
+                .virtualThreads(booleanProperty(properties, "virtualThreads", DEFAULT.virtualThreads))
+                .tunedSockets(booleanProperty(properties, "tunedSockets", DEFAULT.tunedSockets))
+                .socketBufferSize(intProperty(properties, "socketBufferSize", DEFAULT.socketBufferSize))
+                .compressionThreshold(intProperty(properties, "compressionThreshold", DEFAULT.compressionThreshold))
+                .binaryTransport(booleanProperty(properties, "binaryTransport", DEFAULT.binaryTransport))
+                .build();
+    }
+
+    /**
+     * Converts this configuration into properties, as read by {@link #fromProperties(Properties)}
+     *
+     * @return The properties
+     */
+    public Properties toProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty("numberOfAssaultParties", String.valueOf(numberOfAssaultParties));
+        properties.setProperty("assaultPartySize", String.valueOf(assaultPartySize));
+        properties.setProperty("maxSeparation", String.valueOf(maxSeparation));
+        properties.setProperty("numberOfThieves", String.valueOf(numberOfThieves));
+        properties.setProperty("minDisplacement", String.valueOf(minDisplacement));
+        properties.setProperty("maxDisplacement", String.valueOf(maxDisplacement));
+        properties.setProperty("numberOfRooms", String.valueOf(numberOfRooms));
+        properties.setProperty("minDistance", String.valueOf(minDistance));
+        properties.setProperty("maxDistance", String.valueOf(maxDistance));
+        properties.setProperty("minPaintings", String.valueOf(minPaintings));
+        properties.setProperty("maxPaintings", String.valueOf(maxPaintings));
+        properties.setProperty("breakLogger", String.valueOf(breakLogger));
+        properties.setProperty("entitySeparationSpace", String.valueOf(entitySeparationSpace));
+        properties.setProperty("logFilePath", logFilePath);
+        properties.setProperty("connectionTimeout", String.valueOf(connectionTimeout));
+        properties.setProperty("loggerBufferSize", String.valueOf(loggerBufferSize));
+        properties.setProperty("loggerBatchSize", String.valueOf(loggerBatchSize));
+        properties.setProperty("loggerFlushInterval", String.valueOf(loggerFlushInterval));
+        properties.setProperty("binaryLogger", String.valueOf(binaryLogger));
+        properties.setProperty("binaryLogFilePath", binaryLogFilePath);
+        properties.setProperty("instrumented", String.valueOf(instrumented));
+        properties.setProperty("batchCollection", String.valueOf(batchCollection));
+        properties.setProperty("roomAssignment", roomAssignment.name());
+        properties.setProperty("virtualThreads", String.valueOf(virtualThreads));
+        properties.setProperty("tunedSockets", String.valueOf(tunedSockets));
+        properties.setProperty("socketBufferSize", String.valueOf(socketBufferSize));
+        properties.setProperty("compressionThreshold", String.valueOf(compressionThreshold));
+        properties.setProperty("binaryTransport", String.valueOf(binaryTransport));
+        return properties;
+    }
+
+    /**
+     * Reads an integer property
+     *
+     * @param properties   The properties
+     * @param name         The name of the property
+     * @param defaultValue The value if the property is not set
+     * @return The value of the property
+     * @throws IllegalArgumentException when the value is not an integer
+     */
+    private static int intProperty(Properties properties, String name, int defaultValue) {
+        final String value = properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Reads a boolean property
+     *
+     * @param properties   The properties
+     * @param name         The name of the property
+     * @param defaultValue The value if the property is not set
+     * @return The value of the property
+     * @throws IllegalArgumentException when the value is neither true nor false
+     */
+    private static boolean booleanProperty(Properties properties, String name, boolean defaultValue) {
+        final String value = properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        if (!"true".equalsIgnoreCase(value.trim()) && !"false".equalsIgnoreCase(value.trim()))
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Reads a room assignment policy property
+     *
+     * @param properties   The properties
+     * @param name         The name of the property
+     * @param defaultValue The value if the property is not set
+     * @return The value of the property
+     * @throws IllegalArgumentException when the value is not the name of a policy
+     */
+    private static RoomAssignment roomAssignmentProperty(Properties properties, String name, RoomAssignment defaultValue) {
+        final String value = properties.getProperty(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return RoomAssignment.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
     }
 
     /**
@@ -138,6 +389,52 @@ public class SimulationDefaults {
         return numberOfAssaultParties;
     }
 
+    /**
+     * Number of thieves in each assault party.
+     * Thieves fill the parties in order, so every party has {@link #getAssaultPartySize()} elements
+     * except the ones after the last thief, which are left short or empty.
+     *
+     * @return The number of thieves in each assault party, the index is the assault party identifier
+     */
+    public int[] getPartySizes() {
+        final int[] partySizes = new int[numberOfAssaultParties];
+        int left = numberOfThieves;
+        for (int i = 0; i < partySizes.length; i++) {
+            partySizes[i] = Math.min(left, assaultPartySize);
+            left -= partySizes[i];
+        }
+        return partySizes;
+    }
+
+    /**
+     * Whether the thieves exactly fill every assault party, as the concentration site forms parties of {@link #getAssaultPartySize()} thieves
+     *
+     * @return Whether there are as many thieves as places in the assault parties
+     */
+    public boolean isTopologyComplete() {
+        return numberOfThieves == numberOfAssaultParties * assaultPartySize;
+    }
+
+    /**
+     * Gets the assault party a thief belongs to
+     *
+     * @param thief The thief's identifier
+     * @return The assault party identifier
+     */
+    public int getAssaultPartyOf(int thief) {
+        return thief / assaultPartySize;
+    }
+
+    /**
+     * Gets a thief's identifier within its assault party
+     *
+     * @param thief The thief's identifier
+     * @return The identifier in the assault party
+     */
+    public int getIdInAssaultParty(int thief) {
+        return thief % assaultPartySize;
+    }
+
     /**
      * Getter for the number of thieves
      *
@@ -256,12 +553,605 @@ public class SimulationDefaults {
     }
 
     /**
-     * Getter for the time in ms that a communication can take
+     * Getter for the time in ms a process waits for the registry and the remote objects it needs to be up
      *
-     * @return the time in ms that a communication can take
+     * @return the time in ms a process waits for the remote objects it needs
      */
     public int getConnectionTimeout() {
         return connectionTimeout;
     }
 
+    /**
+     * Getter for the number of log events that can wait to be written
+     *
+     * @return the number of log events that can wait to be written, 0 if the logger writes synchronously
+     */
+    public int getLoggerBufferSize() {
+        return loggerBufferSize;
+    }
+
+    /**
+     * Getter for the maximum number of log events shipped to the logger in a single call
+     *
+     * @return the maximum number of log events shipped to the logger in a single call
+     */
+    public int getLoggerBatchSize() {
+        return loggerBatchSize;
+    }
+
+    /**
+     * Getter for the maximum time a log event waits before being shipped to the logger
+     *
+     * @return the maximum time in ms a log event waits before being shipped to the logger
+     */
+    public int getLoggerFlushInterval() {
+        return loggerFlushInterval;
+    }
+
+    /**
+     * Getter for whether the logger writes a binary event log instead of the text log
+     *
+     * @return whether the logger writes a binary event log instead of the text log
+     */
+    public boolean isBinaryLogger() {
+        return binaryLogger;
+    }
+
+    /**
+     * Getter for the path to the binary event log
+     *
+     * @return the path to the binary event log
+     */
+    public String getBinaryLogFilePath() {
+        return binaryLogFilePath;
+    }
+
+    /**
+     * Getter for whether the servers record per method call statistics
+     *
+     * @return whether the servers record per method call statistics and print them when they shut down
+     */
+    public boolean isInstrumented() {
+        return instrumented;
+    }
+
+    /**
+     * Getter for whether the master collects every waiting canvas each time it wakes up
+     *
+     * @return whether the master collects every waiting canvas each time it wakes up, instead of one
+     */
+    public boolean isBatchCollection() {
+        return batchCollection;
+    }
+
+    /**
+     * Getter for the order in which the rooms are assigned to the assault parties
+     *
+     * @return the room assignment policy
+     */
+    public RoomAssignment getRoomAssignment() {
+        return roomAssignment;
+    }
+
+    /**
+     * Getter for whether the thieves run on virtual threads
+     *
+     * @return whether the thieves run on virtual threads, when the JVM supports them
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Getter for whether the servers export their objects with tuned sockets
+     *
+     * @return whether the servers export their objects with sockets that set TCP_NODELAY and count each object's traffic
+     */
+    public boolean isTunedSockets() {
+        return tunedSockets;
+    }
+
+    /**
+     * Getter for the size of the send and receive buffers of the tuned sockets
+     *
+     * @return the size of the buffers in bytes, 0 for the system's default
+     */
+    public int getSocketBufferSize() {
+        return socketBufferSize;
+    }
+
+    /**
+     * Getter for the smallest frame the tuned sockets deflate
+     *
+     * @return the smallest frame in bytes that is deflated, 0 to not compress
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Getter for whether the servers are called with the binary transport
+     *
+     * @return whether the servers are called with the binary transport instead of RMI
+     */
+    public boolean isBinaryTransport() {
+        return binaryTransport;
+    }
+
+    /**
+     * Creates a builder holding the values of this configuration, to derive a configuration differing in a few values
+     *
+     * @return The builder
+     */
+    public Builder toBuilder() {
+        final Builder builder = new Builder();
+        builder.numberOfAssaultParties = numberOfAssaultParties;
+        builder.assaultPartySize = assaultPartySize;
+        builder.maxSeparation = maxSeparation;
+        builder.numberOfThieves = numberOfThieves;
+        builder.minDisplacement = minDisplacement;
+        builder.maxDisplacement = maxDisplacement;
+        builder.numberOfRooms = numberOfRooms;
+        builder.minDistance = minDistance;
+        builder.maxDistance = maxDistance;
+        builder.minPaintings = minPaintings;
+        builder.maxPaintings = maxPaintings;
+        builder.breakLogger = breakLogger;
+        builder.entitySeparationSpace = entitySeparationSpace;
+        builder.logFilePath = logFilePath;
+        builder.connectionTimeout = connectionTimeout;
+        builder.loggerBufferSize = loggerBufferSize;
+        builder.loggerBatchSize = loggerBatchSize;
+        builder.loggerFlushInterval = loggerFlushInterval;
+        builder.binaryLogger = binaryLogger;
+        builder.binaryLogFilePath = binaryLogFilePath;
+        builder.instrumented = instrumented;
+        builder.batchCollection = batchCollection;
+        builder.roomAssignment = roomAssignment;
+        builder.virtualThreads = virtualThreads;
+        builder.tunedSockets = tunedSockets;
+        builder.socketBufferSize = socketBufferSize;
+        builder.compressionThreshold = compressionThreshold;
+        builder.binaryTransport = binaryTransport;
+        return builder;
+    }
+
+    /**
+     * Builds a configuration one named value at a time.
+     * Values that are not set keep their {@link #DEFAULT}
+     */
+    public static final class Builder {
+        /**
+         * Number of assault parties (default: 2)
+         */
+        private int numberOfAssaultParties = 2;
+        /**
+         * Number of thieves per assault party (default: 3)
+         */
+        private int assaultPartySize = 3;
+        /**
+         * Maximum distance between 2 consecutive thieves (default: 3)
+         */
+        private int maxSeparation = 3;
+        /**
+         * Number of thieves in the party (excluding the Master) (default: 6)
+         */
+        private int numberOfThieves = 6;
+        /**
+         * Minimum distance for a thief's agility (default: 2)
+         */
+        private int minDisplacement = 2;
+        /**
+         * Maximum distance for a thief's agility (default: 6)
+         */
+        private int maxDisplacement = 6;
+        /**
+         * Number of rooms in the museum (default: 5)
+         */
+        private int numberOfRooms = 5;
+        /**
+         * Minimum distance a room can be from the concentration site (default: 15)
+         */
+        private int minDistance = 15;
+        /**
+         * Maximum distance a room can be from the concentration site (default: 30)
+         */
+        private int maxDistance = 30;
+        /**
+         * Minimum number of paintings a room can have (default: 8)
+         */
+        private int minPaintings = 8;
+        /**
+         * Maximum number of paintings a room can have (default: 16)
+         */
+        private int maxPaintings = 16;
+        /**
+         * Whether to break every log entry across lines (default: false)
+         */
+        private boolean breakLogger = false;
+        /**
+         * Number of spaces between fields of the log (default: 3)
+         */
+        private int entitySeparationSpace = 3;
+        /**
+         * path to where the log file should be written (default: ./log.txt)
+         */
+        private String logFilePath = "./log.txt";
+        /**
+         * Time in ms a process waits for the registry and the remote objects it needs to be up (default: 10000ms)
+         */
+        private int connectionTimeout = 10000;
+        /**
+         * Number of log events that can wait to be written by the logger's writer thread.
+         * 0 makes the logger write synchronously (default: 0)
+         */
+        private int loggerBufferSize = 0;
+        /**
+         * Maximum number of log events each server ships to the logger in a single call.
+         * 1 ships every event right away (default: 64)
+         */
+        private int loggerBatchSize = 64;
+        /**
+         * Maximum time in ms a log event waits in a server before being shipped to the logger (default: 10ms)
+         */
+        private int loggerFlushInterval = 10;
+        /**
+         * Whether the logger writes a binary event log instead of the text log (default: false)
+         */
+        private boolean binaryLogger = false;
+        /**
+         * Path to where the binary event log should be written (default: ./log.bin)
+         */
+        private String binaryLogFilePath = "./log.bin";
+        /**
+         * Whether the servers record per method call counts, latencies and lock wait and hold times (default: false)
+         */
+        private boolean instrumented = false;
+        /**
+         * Whether the master collects every canvas waiting to be delivered each time it wakes up,
+         * instead of one canvas per wake up (default: false)
+         */
+        private boolean batchCollection = false;
+        /**
+         * Order in which the rooms are assigned to the assault parties (default: SEQUENTIAL)
+         */
+        private RoomAssignment roomAssignment = RoomAssignment.SEQUENTIAL;
+        /**
+         * Whether the thieves run on virtual threads, when the JVM supports them (default: false)
+         */
+        private boolean virtualThreads = false;
+        /**
+         * Whether the servers export their objects with sockets that set TCP_NODELAY and count each object's traffic (default: false)
+         */
+        private boolean tunedSockets = false;
+        /**
+         * Size in bytes of the send and receive buffers of the tuned sockets, 0 for the system's default (default: 0)
+         */
+        private int socketBufferSize = 0;
+        /**
+         * Smallest frame in bytes the tuned sockets deflate, 0 to not compress (default: 0)
+         */
+        private int compressionThreshold = 0;
+        /**
+         * Whether the servers are called with the binary transport instead of RMI (default: false)
+         */
+        private boolean binaryTransport = false;
+
+        /**
+         * Sets the number of assault parties
+         *
+         * @param numberOfAssaultParties The number of assault parties
+         * @return This builder
+         */
+        public Builder numberOfAssaultParties(int numberOfAssaultParties) {
+            this.numberOfAssaultParties = numberOfAssaultParties;
+            return this;
+        }
+
+        /**
+         * Sets the number of thieves per assault party
+         *
+         * @param assaultPartySize The number of thieves per assault party
+         * @return This builder
+         */
+        public Builder assaultPartySize(int assaultPartySize) {
+            this.assaultPartySize = assaultPartySize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum distance between 2 consecutive thieves
+         *
+         * @param maxSeparation The maximum distance between 2 consecutive thieves
+         * @return This builder
+         */
+        public Builder maxSeparation(int maxSeparation) {
+            this.maxSeparation = maxSeparation;
+            return this;
+        }
+
+        /**
+         * Sets the number of thieves in the party (excluding the Master)
+         *
+         * @param numberOfThieves The number of thieves in the party (excluding the Master)
+         * @return This builder
+         */
+        public Builder numberOfThieves(int numberOfThieves) {
+            this.numberOfThieves = numberOfThieves;
+            return this;
+        }
+
+        /**
+         * Sets the minimum distance for a thief's agility
+         *
+         * @param minDisplacement The minimum distance for a thief's agility
+         * @return This builder
+         */
+        public Builder minDisplacement(int minDisplacement) {
+            this.minDisplacement = minDisplacement;
+            return this;
+        }
+
+        /**
+         * Sets the maximum distance for a thief's agility
+         *
+         * @param maxDisplacement The maximum distance for a thief's agility
+         * @return This builder
+         */
+        public Builder maxDisplacement(int maxDisplacement) {
+            this.maxDisplacement = maxDisplacement;
+            return this;
+        }
+
+        /**
+         * Sets the number of rooms in the museum
+         *
+         * @param numberOfRooms The number of rooms in the museum
+         * @return This builder
+         */
+        public Builder numberOfRooms(int numberOfRooms) {
+            this.numberOfRooms = numberOfRooms;
+            return this;
+        }
+
+        /**
+         * Sets the minimum distance a room can be from the concentration site
+         *
+         * @param minDistance The minimum distance a room can be from the concentration site
+         * @return This builder
+         */
+        public Builder minDistance(int minDistance) {
+            this.minDistance = minDistance;
+            return this;
+        }
+
+        /**
+         * Sets the maximum distance a room can be from the concentration site
+         *
+         * @param maxDistance The maximum distance a room can be from the concentration site
+         * @return This builder
+         */
+        public Builder maxDistance(int maxDistance) {
+            this.maxDistance = maxDistance;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of paintings a room can have
+         *
+         * @param minPaintings The minimum number of paintings a room can have
+         * @return This builder
+         */
+        public Builder minPaintings(int minPaintings) {
+            this.minPaintings = minPaintings;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of paintings a room can have
+         *
+         * @param maxPaintings The maximum number of paintings a room can have
+         * @return This builder
+         */
+        public Builder maxPaintings(int maxPaintings) {
+            this.maxPaintings = maxPaintings;
+            return this;
+        }
+
+        /**
+         * Sets whether to break every log entry across lines
+         *
+         * @param breakLogger Whether to break every log entry across lines
+         * @return This builder
+         */
+        public Builder breakLogger(boolean breakLogger) {
+            this.breakLogger = breakLogger;
+            return this;
+        }
+
+        /**
+         * Sets the number of spaces between fields of the log
+         *
+         * @param entitySeparationSpace The number of spaces between fields of the log
+         * @return This builder
+         */
+        public Builder entitySeparationSpace(int entitySeparationSpace) {
+            this.entitySeparationSpace = entitySeparationSpace;
+            return this;
+        }
+
+        /**
+         * Sets the path to where the log file should be written
+         *
+         * @param logFilePath The path to where the log file should be written
+         * @return This builder
+         */
+        public Builder logFilePath(String logFilePath) {
+            this.logFilePath = logFilePath;
+            return this;
+        }
+
+        /**
+         * Sets the time in ms a process waits for the registry and the remote objects it needs to be up
+         *
+         * @param connectionTimeout The time in ms a process waits for the registry and the remote objects it needs to be up
+         * @return This builder
+         */
+        public Builder connectionTimeout(int connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the number of log events that can wait to be written by the logger's writer thread
+         *
+         * @param loggerBufferSize The number of log events that can wait to be written by the logger's writer thread
+         * @return This builder
+         */
+        public Builder loggerBufferSize(int loggerBufferSize) {
+            this.loggerBufferSize = loggerBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of log events each server ships to the logger in a single call
+         *
+         * @param loggerBatchSize The maximum number of log events each server ships to the logger in a single call
+         * @return This builder
+         */
+        public Builder loggerBatchSize(int loggerBatchSize) {
+            this.loggerBatchSize = loggerBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time in ms a log event waits in a server before being shipped to the logger
+         *
+         * @param loggerFlushInterval The maximum time in ms a log event waits in a server before being shipped to the logger
+         * @return This builder
+         */
+        public Builder loggerFlushInterval(int loggerFlushInterval) {
+            this.loggerFlushInterval = loggerFlushInterval;
+            return this;
+        }
+
+        /**
+         * Sets whether the logger writes a binary event log instead of the text log
+         *
+         * @param binaryLogger Whether the logger writes a binary event log instead of the text log
+         * @return This builder
+         */
+        public Builder binaryLogger(boolean binaryLogger) {
+            this.binaryLogger = binaryLogger;
+            return this;
+        }
+
+        /**
+         * Sets the path to where the binary event log should be written
+         *
+         * @param binaryLogFilePath The path to where the binary event log should be written
+         * @return This builder
+         */
+        public Builder binaryLogFilePath(String binaryLogFilePath) {
+            this.binaryLogFilePath = binaryLogFilePath;
+            return this;
+        }
+
+        /**
+         * Sets whether the servers record per method call counts, latencies and lock wait and hold times
+         *
+         * @param instrumented Whether the servers record per method call counts, latencies and lock wait and hold times
+         * @return This builder
+         */
+        public Builder instrumented(boolean instrumented) {
+            this.instrumented = instrumented;
+            return this;
+        }
+
+        /**
+         * Sets whether the master collects every canvas waiting to be delivered each time it wakes up
+         *
+         * @param batchCollection Whether the master collects every canvas waiting to be delivered each time it wakes up
+         * @return This builder
+         */
+        public Builder batchCollection(boolean batchCollection) {
+            this.batchCollection = batchCollection;
+            return this;
+        }
+
+        /**
+         * Sets the order in which the rooms are assigned to the assault parties
+         *
+         * @param roomAssignment The order in which the rooms are assigned to the assault parties
+         * @return This builder
+         */
+        public Builder roomAssignment(RoomAssignment roomAssignment) {
+            this.roomAssignment = roomAssignment;
+            return this;
+        }
+
+        /**
+         * Sets whether the thieves run on virtual threads, when the JVM supports them
+         *
+         * @param virtualThreads Whether the thieves run on virtual threads, when the JVM supports them
+         * @return This builder
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets whether the servers export their objects with sockets that set TCP_NODELAY and count each object's traffic
+         *
+         * @param tunedSockets Whether the servers export their objects with sockets that set TCP_NODELAY and count each object's traffic
+         * @return This builder
+         */
+        public Builder tunedSockets(boolean tunedSockets) {
+            this.tunedSockets = tunedSockets;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes of the send and receive buffers of the tuned sockets, 0 for the system's default
+         *
+         * @param socketBufferSize The size in bytes of the send and receive buffers of the tuned sockets, 0 for the system's default
+         * @return This builder
+         */
+        public Builder socketBufferSize(int socketBufferSize) {
+            this.socketBufferSize = socketBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the smallest frame in bytes the tuned sockets deflate, 0 to not compress
+         *
+         * @param compressionThreshold The smallest frame in bytes the tuned sockets deflate, 0 to not compress
+         * @return This builder
+         */
+        public Builder compressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets whether the servers are called with the binary transport instead of RMI
+         *
+         * @param binaryTransport Whether the servers are called with the binary transport instead of RMI
+         * @return This builder
+         */
+        public Builder binaryTransport(boolean binaryTransport) {
+            this.binaryTransport = binaryTransport;
+            return this;
+        }
+
+        /**
+         * Creates the configuration holding the values set so far
+         *
+         * @return The configuration
+         */
+        public SimulationDefaults build() {
+            return new SimulationDefaults(this);
+        }
+    }
 }
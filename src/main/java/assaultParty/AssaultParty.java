@@ -1,8 +1,15 @@
 package assaultParty;
 
+import instrumentation.Instrumentation;
 import logger.IConcurrentLogger;
+import logger.ILogSink;
+import threads.Completions;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -11,7 +18,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * Assault parties are groups of thieves that go to an assigned room,
  * rob paintings and take them back to the collection site
  */
-public class AssaultParty implements IAssaultParty {
+public class AssaultParty implements IAssaultParty, IAssaultPartyAsync {
 	/**
 	 * The assault party's unique identifier
 	 */
@@ -19,16 +26,33 @@ public class AssaultParty implements IAssaultParty {
 	/**
 	 * The mutex lock
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock lock = Instrumentation.newLock(AssaultParty.class);
 	/**
 	 * Thieves must wait for the master thief's order at the concentration site to depart
-	 * and the order of the last thief to enter the room to turn back
 	 */
 	private final Condition holdCond = lock.newCondition();
+	/**
+	 * The thieves waiting for the order of the last thief to enter the room to turn back, completed when it is given
+	 */
+	private final List<CompletableFuture<Void>> reversing = new ArrayList<>();
+	/**
+	 * Signaled when the last thief of the party reaches the collection site.
+	 * The thieves that arrived before wait on it for the rest of the party
+	 */
+	private final Condition partyAtSite = lock.newCondition();
+	/**
+	 * Signaled when it is a thief's turn to move.
+	 * The index of the array is the id of the thief in the party
+	 */
+	private final Condition[] turnCond;
 	/**
 	 * The distance each thief is from the destination
 	 */
 	private final int[] distances;
+	/**
+	 * The distances of the thieves, ordered, to apply the movement rules without scanning the party
+	 */
+	private final PositionIndex positions;
 	/**
 	 * The amount of thieves in the assault party
 	 */
@@ -41,6 +65,10 @@ public class AssaultParty implements IAssaultParty {
 	 * The logger to write to standard output and log file
 	 */
 	private final IConcurrentLogger logger;
+	/**
+	 * Where the events logged by this monitor wait to be shipped to the logger
+	 */
+	private final ILogSink sink;
 	/**
 	 * The identifier of the room to be robbed
 	 */
@@ -61,20 +89,40 @@ public class AssaultParty implements IAssaultParty {
 	 * Number of thieves ready to walk
 	 */
 	private int thiefCounter;
+	/**
+	 * The id in the party of the thief whose turn it is to move, -1 when no thief is crawling
+	 */
+	private int turn = -1;
+	/**
+	 * Number of moves since the party started crawling in the current direction
+	 */
+	private long moves;
+	/**
+	 * The number of moves when each thief last could not move in its turn.
+	 * A thief's turn is skipped until some other thief moves, since until then it still could not move
+	 */
+	private final long[] blockedAt;
 
 	/**
 	 * @param id            The party's unique identifier
 	 * @param partySize     The size of the party
 	 * @param maxSeparation The maximum distance 2 consecutive thieves can be from each other
 	 * @param logger        The logger
+	 * @param sink          Where the logged events wait to be shipped, flushed before returning to a client
 	 * @throws RemoteException when the call to this remote method fails
 	 */
-	public AssaultParty(int id, int partySize, int maxSeparation, IConcurrentLogger logger) throws RemoteException {
+	public AssaultParty(int id, int partySize, int maxSeparation, IConcurrentLogger logger, ILogSink sink) throws RemoteException {
 		this.logger = logger;
+		this.sink = sink;
 		this.id = id;
 		this.maxSeparation = maxSeparation;
 		this.roomID = -1;
 		this.distances = new int[partySize];
+		this.positions = new PositionIndex(partySize);
+		this.blockedAt = new long[partySize];
+		this.turnCond = new Condition[partySize];
+		for (int i = 0; i < partySize; i++)
+			this.turnCond[i] = lock.newCondition();
 		this.partySize = partySize;
 		this.hasMasterAllowedDeparture = true;
 		this.hasLastThiefReversedDirection = true;
@@ -88,136 +136,232 @@ public class AssaultParty implements IAssaultParty {
 	public boolean crawlIn(int agility, int idInAssaultParty, int thief) throws RemoteException {
 		try {
 			lock.lock();
-
-			if (hasMasterAllowedDeparture) {
-				thiefCounter++;
-				logger.crawlIn(thief);
-				if (thiefCounter < partySize) {
-					while (hasMasterAllowedDeparture) {
-						holdCond.await();
-					}
-				} else {
-					hasMasterAllowedDeparture = false;
-					hasLastThiefReversedDirection = true;
-					thiefCounter = 0;
-					holdCond.signalAll();
-				}
-			}
-
-			if (distances[idInAssaultParty] == roomDistance) { //if all thieves arrived change thieves state
+			awaitDeparture(thief);
+			if (distances[idInAssaultParty] == roomDistance)
 				return false;
-			} else {
-				int situation;
-				int index_inf = -1;
-				int index_sup = -1;
-
-				if (distances[idInAssaultParty] != 0) {
-					int maxAt = 0;
-					for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the most distance travelled
-						if (distances[i] > distances[maxAt]) maxAt = i;
-					}
+			boolean moved = false;
+			while (!moved)
+				moved = takeTurn(agility, idInAssaultParty, true);
+			return true;
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		} catch (RemoteException e) {
+			throw new RuntimeException(e);
+		} finally {
+			lock.unlock();
+			sink.flush();
+		}
+		return true;
+	}
 
-					int minAt = 0;
-					for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the least distance travelled
-						if (distances[i] < distances[minAt]) minAt = i;
-					}
+	/**
+	 * One step of a thief, without waiting for its turn.
+	 * Package-private so {@link PositionIndexCheck} can compare the movement rules with those before the positions were indexed
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @param inwards          whether the party is crawling to the room
+	 * @return true if the destination has not yet been reached
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	boolean step(int agility, int idInAssaultParty, boolean inwards) throws RemoteException {
+		lock.lock();
+		try {
+			return inwards ? stepIn(agility, idInAssaultParty) : stepOut(agility, idInAssaultParty);
+		} finally {
+			lock.unlock();
+		}
+	}
 
-					if (minAt == idInAssaultParty) { // if current thief is the one with the least distance travelled situation = 0
-						situation = 0;
-					} else if (maxAt == idInAssaultParty) { // if current thief is the one with the most distance travelled situation = 2
-
-						situation = 2;
-						int temp = Integer.MIN_VALUE;
-						for (int i = 0; i < partySize; i++) {
-							if ((temp < distances[i]) && (distances[i] < distances[idInAssaultParty])) { // find thief behind
-								index_inf = i;
-								temp = distances[i];
-							}
-						}
-					} else { // if thief is between two thieves = 1
-						situation = 1;
-						int temp = Integer.MIN_VALUE;
-						int temp2 = Integer.MAX_VALUE;
-
-						for (int i = 0; i < partySize; i++) {
-							if ((temp < distances[i]) && (distances[i] < distances[idInAssaultParty])) { // find thief behind
-								index_inf = i;
-								temp = distances[i];
-							}
-							if ((distances[i] > distances[idInAssaultParty]) && (temp2 > distances[i])) { // find thief in front
-								index_sup = i;
-								temp2 = distances[i];
-							}
-						}
-					}
-				} else {
+	/**
+	 * One step of the crawl inwards movement, once the party has departed.
+	 * Must be called while holding the lock
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @return true if the room has not yet been reached
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	private boolean stepIn(int agility, int idInAssaultParty) throws RemoteException {
+		final int position = distances[idInAssaultParty];
+		if (position == roomDistance) { //if all thieves arrived change thieves state
+			return false;
+		} else {
+			int situation;
+			int below = Integer.MIN_VALUE; // position of the thief right below, closer to the site
+			int above = Integer.MAX_VALUE; // position of the thief right above, closer to the room
+
+			if (position != 0) {
+				if (positions.first() == position) { // if current thief is the one with the least distance travelled situation = 0
+					situation = 0;
+				} else if (positions.last() == position) { // if current thief is the one with the most distance travelled situation = 2
 					situation = 2;
-					int temp = Integer.MAX_VALUE;
-					for (int i = 0; i < partySize; i++) {
-						if (distances[i] < temp) {
-							index_inf = i;
-							temp = distances[i];
-						}
-					}
+					below = positions.below(position);
+				} else { // if thief is between two thieves = 1
+					situation = 1;
+					below = positions.below(position);
+					above = positions.above(position);
 				}
+			} else {
+				situation = 2;
+				below = positions.first();
+			}
 
-				if (distances[idInAssaultParty] < roomDistance) {
-					for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
-						boolean movementFlag = true;
-						int futureDistance = distances[idInAssaultParty] + possibleMovement;
-						if (futureDistance <= roomDistance) { // futureDistance needs to be equal or lower than destination distance
-							switch (situation) {
-								case 0: // when the thief with less distance travelled is trying to walk
-									for (int distance : distances)
-										if ((distance == futureDistance) && (futureDistance != roomDistance)) {// check for overlapping
-											movementFlag = false;
-											break;
-										}
-									break;
-								case 1: // when the thief is between two other thieves
-									for (int distance : distances)
-										if ((distance == futureDistance) && (futureDistance != roomDistance)) { // check for overlapping
-											movementFlag = false;
-											break;
-										}
-									if (movementFlag) {
-										if (distances[index_sup] < futureDistance) { // if thief overtakes
-											if (distances[index_sup] - distances[index_inf] > maxSeparation) //check if maximum maxSeparation was fullfilled
-												movementFlag = false;
-										} else if (futureDistance - distances[index_inf] > maxSeparation) //check if maximum maxSeparation was fullfilled with no overtake
-											movementFlag = false;
-									}
-									break;
-								case 2:// when the thief with most distance travelled is trying to walk
-									for (int distance : distances)
-										if (distance == futureDistance) { // check for overlapping
-											movementFlag = false;
-											break;
-										}
-									if (futureDistance - distances[index_inf] > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+			if (position < roomDistance) {
+				for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
+					boolean movementFlag = true;
+					int futureDistance = position + possibleMovement;
+					if (futureDistance <= roomDistance) { // futureDistance needs to be equal or lower than destination distance
+						switch (situation) {
+							case 0: // when the thief with less distance travelled is trying to walk
+								if ((futureDistance != roomDistance) && positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								break;
+							case 1: // when the thief is between two other thieves
+								if ((futureDistance != roomDistance) && positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								else if (above < futureDistance) { // if thief overtakes
+									if (above - below > maxSeparation) //check if maximum maxSeparation was fullfilled
 										movementFlag = false;
-									break;
-							}
-						} else {
-							movementFlag = false;
+								} else if (futureDistance - below > maxSeparation) //check if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
+							case 2:// when the thief with most distance travelled is trying to walk
+								if (positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								else if (futureDistance - below > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
 						}
-						if (movementFlag) {
+					} else {
+						movementFlag = false;
+					}
+					if (movementFlag) {
 
-							distances[idInAssaultParty] = futureDistance;
-							logger.setDistance(id, idInAssaultParty, futureDistance);
-							break;
-						}
+						distances[idInAssaultParty] = futureDistance;
+						positions.move(position, futureDistance);
+						logger.setDistance(id, idInAssaultParty, futureDistance);
+						break;
 					}
 				}
 			}
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		} catch (RemoteException e) {
+		}
+		return true;
+	}
+
+	/**
+	 * Waits for the whole party to be ready to crawl inwards, the first time a thief crawls in a trip.
+	 * The last thief to be ready starts the turns.
+	 * Must be called while holding the lock
+	 *
+	 * @param thief thief's unique identifier
+	 * @throws InterruptedException when interrupted while waiting for the party to depart
+	 * @throws RemoteException      when the call to the logger fails
+	 */
+	private void awaitDeparture(int thief) throws InterruptedException, RemoteException {
+		if (hasMasterAllowedDeparture) {
+			thiefCounter++;
+			logger.crawlIn(thief);
+			if (thiefCounter < partySize) {
+				while (hasMasterAllowedDeparture) {
+					holdCond.await();
+				}
+			} else {
+				hasMasterAllowedDeparture = false;
+				hasLastThiefReversedDirection = true;
+				thiefCounter = 0;
+				startTurns();
+				holdCond.signalAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits for the thief's turn and tries to move.
+	 * Then hands the turn to the next thief still crawling that may be able to move.
+	 * Must be called while holding the lock, by a thief that has not reached its destination
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @param inwards          whether the party is crawling to the room
+	 * @return true if the thief moved
+	 * @throws InterruptedException when interrupted while waiting for its turn
+	 * @throws RemoteException      when the call to the logger fails
+	 */
+	private boolean takeTurn(int agility, int idInAssaultParty, boolean inwards) throws InterruptedException, RemoteException {
+		while (turn != idInAssaultParty)
+			turnCond[idInAssaultParty].await();
+
+		final int position = distances[idInAssaultParty];
+		if (inwards)
+			stepIn(agility, idInAssaultParty);
+		else
+			stepOut(agility, idInAssaultParty);
+		final boolean moved = distances[idInAssaultParty] != position;
+		if (moved)
+			moves++;
+		else
+			blockedAt[idInAssaultParty] = moves;
+
+		passTurn(idInAssaultParty, inwards ? roomDistance : 0);
+		return moved;
+	}
+
+	/**
+	 * Gives the first turn of a crawl to the first thief of the party.
+	 * Must be called while holding the lock
+	 */
+	private void startTurns() {
+		moves = 0;
+		Arrays.fill(blockedAt, -1);
+		turn = 0;
+		turnCond[0].signal();
+	}
+
+	/**
+	 * Hands the turn to the next thief, in round robin, that has not reached the destination.
+	 * Thieves that could not move in their last turn are skipped while no other thief has moved since,
+	 * unless none of the thieves left can move.
+	 * Must be called while holding the lock
+	 *
+	 * @param idInAssaultParty the thief whose turn ended
+	 * @param destination      the distance the party is crawling to
+	 */
+	private void passTurn(int idInAssaultParty, int destination) {
+		int next = -1;
+		int blocked = -1;
+		for (int i = 1; i <= partySize; i++) {
+			final int candidate = (idInAssaultParty + i) % partySize;
+			if (distances[candidate] == destination)
+				continue;
+			if (blockedAt[candidate] != moves) {
+				next = candidate;
+				break;
+			}
+			if (blocked == -1)
+				blocked = candidate;
+		}
+		turn = next != -1 ? next : blocked;
+		if (turn != -1 && turn != idInAssaultParty)
+			turnCond[turn].signal();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlToRoom(int agility, int idInAssaultParty, int thief) throws RemoteException {
+		try {
+			lock.lock();
+			awaitDeparture(thief);
+			while (distances[idInAssaultParty] != roomDistance)
+				takeTurn(agility, idInAssaultParty, true);
+		} catch (InterruptedException | RemoteException e) {
 			throw new RuntimeException(e);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
-		return true;
 	}
 
 	/**
@@ -225,27 +369,42 @@ public class AssaultParty implements IAssaultParty {
 	 */
 	@Override
 	public void reverseDirection(int thief) throws RemoteException {
+		reverseDirectionAsync(thief).join();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> reverseDirectionAsync(int thief) throws RemoteException {
+		final CompletableFuture<Void> reversed = new CompletableFuture<>();
+		final Completions released = new Completions();
 		try {
 			lock.lock();
 			logger.crawlOut(thief);
 			if (hasLastThiefReversedDirection) {
 				thiefCounter++;
 				if (thiefCounter < partySize) {
-					while (hasLastThiefReversedDirection) {
-						holdCond.await();
-					}
-				} else {
-					hasLastThiefReversedDirection = false;
-					hasMasterAllowedDeparture = true;
-					thiefCounter = 0;
-					holdCond.signalAll();
+					reversing.add(reversed);
+					return reversed;
 				}
+				hasLastThiefReversedDirection = false;
+				hasMasterAllowedDeparture = true;
+				thiefCounter = 0;
+				startTurns();
+				for (CompletableFuture<Void> other : reversing)
+					released.add(other, null);
+				reversing.clear();
 			}
-		} catch (InterruptedException | RemoteException e) {
+			released.add(reversed, null);
+		} catch (RemoteException e) {
 			throw new RuntimeException(e);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
+		released.complete();
+		return reversed;
 	}
 
 	/**
@@ -255,123 +414,116 @@ public class AssaultParty implements IAssaultParty {
 	public boolean crawlOut(int agility, int idInAssaultParty) throws RemoteException {
 		try {
 			lock.lock();
-
-			int thiefTracking = 0;
-			for (int distance : distances) {// count how many arrived
-				if (distance == 0)
-					thiefTracking++;
+			if (distances[idInAssaultParty] != 0) {
+				boolean moved = false;
+				while (!moved)
+					moved = takeTurn(agility, idInAssaultParty, false);
+				return true;
 			}
+			while (positions.countAt(0) != partySize) // wait for the rest of the party instead of being called again
+				partyAtSite.await();
+			return false;
+		} catch (InterruptedException | RemoteException e) {
+			throw new RuntimeException(e);
+		} finally {
+			lock.unlock();
+			sink.flush();
+		}
+	}
 
-			if (thiefTracking == partySize) { //if all thieves arrived change thieves state
-				return false;
-			} else {
-				int situation;
-				int index_inf = -1;
-				int index_sup = -1;
-
-				if (distances[idInAssaultParty] != roomDistance) {
-					int maxAt = 0;
-					for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the most distance (last)
-						if (distances[i] > distances[maxAt]) maxAt = i;
-					}
-
-					int minAt = 0;
-					for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the least distance (first)
-						if (distances[i] < distances[minAt]) minAt = i;
-					}
-
-					if (maxAt == idInAssaultParty) { // if current thief is the one with the most distance situation = 0
-						situation = 0;
-					} else if (minAt == idInAssaultParty) { // if current thief is the one with the least distance situation = 2
-
-						situation = 2;
-						int temp = Integer.MAX_VALUE;
-						for (int i = 0; i < partySize; i++) {
-							if ((distances[i] > distances[idInAssaultParty]) && (temp > distances[i])) {
-								index_sup = i;
-								temp = distances[i];
-							}
-						}
-					} else { // if thief is between two thieves = 1
-						situation = 1;
-						int temp = Integer.MIN_VALUE;
-						int temp2 = Integer.MAX_VALUE;
-
-						for (int i = 0; i < partySize; i++) {
-							if ((distances[i] < distances[idInAssaultParty]) && (distances[i] > temp)) {
-								index_inf = i;
-								temp = distances[i];
-							}
-							if ((distances[i] > distances[idInAssaultParty]) && (temp2 > distances[i])) {
-								index_sup = i;
-								temp2 = distances[i];
-							}
-						}
-					}
-				} else {
+	/**
+	 * One step of the crawl outwards movement.
+	 * Must be called while holding the lock
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @return true if not every thief has reached the collection site
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	private boolean stepOut(int agility, int idInAssaultParty) throws RemoteException {
+		if (positions.countAt(0) == partySize) { //if all thieves arrived change thieves state
+			return false;
+		} else {
+			final int position = distances[idInAssaultParty];
+			int situation;
+			int below = Integer.MIN_VALUE; // position of the thief right below, closer to the site
+			int above = Integer.MAX_VALUE; // position of the thief right above, closer to the room
+
+			if (position != roomDistance) {
+				if (positions.last() == position) { // if current thief is the one with the most distance situation = 0
+					situation = 0;
+				} else if (positions.first() == position) { // if current thief is the one with the least distance situation = 2
 					situation = 2;
-					int temp = Integer.MIN_VALUE;
-					for (int i = 0; i < partySize; i++) {
-						if (distances[i] > temp) {
-							index_sup = i;
-							temp = distances[i];
-						}
-					}
+					above = positions.above(position);
+				} else { // if thief is between two thieves = 1
+					situation = 1;
+					below = positions.below(position);
+					above = positions.above(position);
 				}
+			} else {
+				situation = 2;
+				above = positions.last();
+			}
 
-				if (0 < distances[idInAssaultParty]) {
-					for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
-						boolean movementFlag = true;
-						int futureDistance = distances[idInAssaultParty] - possibleMovement;
-						if (futureDistance >= 0) { // futureDistance needs to be equal or lower than destination distance
-							switch (situation) {
-								case 0: // when the thief with less distance travelled is trying to walk
-									for (int distance : distances)
-										if ((distance == futureDistance) && (futureDistance != 0)) { // check for overlapping
-											movementFlag = false;
-											break;
-										}
-									break;
-								case 1: // when the thief is between two other thieves
-									for (int distance : distances)
-										if ((distance == futureDistance) && (futureDistance != 0)) { // check for overlapping
-											movementFlag = false;
-											break;
-										}
-									if (movementFlag) {
-										if (distances[index_inf] > futureDistance) { // if thief overtakes
-											if (distances[index_sup] - distances[index_inf] > maxSeparation) //checks if maximum maxSeparation was fullfilled
-												movementFlag = false;
-										} else if (distances[index_sup] - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
-											movementFlag = false;
-									}
-									break;
-								case 2:// when the thief with most distance travelled is trying to walk
-									for (int distance : distances)
-										if (distance == futureDistance) {// check for overlapping
-											movementFlag = false;
-											break;
-										}
-									if (distances[index_sup] - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+			if (0 < position) {
+				for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
+					boolean movementFlag = true;
+					int futureDistance = position - possibleMovement;
+					if (futureDistance >= 0) { // futureDistance needs to be equal or lower than destination distance
+						switch (situation) {
+							case 0: // when the thief with less distance travelled is trying to walk
+								if ((futureDistance != 0) && positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								break;
+							case 1: // when the thief is between two other thieves
+								if ((futureDistance != 0) && positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								else if (below > futureDistance) { // if thief overtakes
+									if (above - below > maxSeparation) //checks if maximum maxSeparation was fullfilled
 										movementFlag = false;
-									break;
-							}
-						} else {
-							movementFlag = false;
-						}
-						if (movementFlag) {
-							distances[idInAssaultParty] = futureDistance;
-							logger.setDistance(id, idInAssaultParty, futureDistance);
-							break;
+								} else if (above - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
+							case 2:// when the thief with most distance travelled is trying to walk
+								if (positions.isOccupied(futureDistance)) // check for overlapping
+									movementFlag = false;
+								else if (above - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
 						}
+					} else {
+						movementFlag = false;
+					}
+					if (movementFlag) {
+						distances[idInAssaultParty] = futureDistance;
+						positions.move(position, futureDistance);
+						if (positions.countAt(0) == partySize)
+							partyAtSite.signalAll();
+						logger.setDistance(id, idInAssaultParty, futureDistance);
+						break;
 					}
 				}
 			}
-			return true;
-		} catch (RemoteException e) {
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlToSite(int agility, int idInAssaultParty) throws RemoteException {
+		try {
+			lock.lock();
+			while (distances[idInAssaultParty] != 0)
+				takeTurn(agility, idInAssaultParty, false);
+			while (positions.countAt(0) != partySize)
+				partyAtSite.await();
+		} catch (InterruptedException | RemoteException e) {
 			throw new RuntimeException(e);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
 	}
 
@@ -398,12 +550,14 @@ public class AssaultParty implements IAssaultParty {
 			if (roomID != -1) {
 				this.roomID = roomID;
 				this.roomDistance = roomDistance;
+				this.positions.reset(distances, roomDistance);
 				logger.setRoom(id, roomID);
 			}
 		} catch (RemoteException e) {
 			throw new RuntimeException(e);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
 	}
 
@@ -440,6 +594,7 @@ public class AssaultParty implements IAssaultParty {
 	public void atControl(int thief) throws RemoteException {
 		try {
 			logger.atControl(thief);
+			sink.flush();
 		} catch (RemoteException e) {
 			throw new RuntimeException(e);
 		}
@@ -16,15 +16,31 @@ public interface IAssaultParty extends Remote, CloseableServer {
 	 * While crawling, certain rules must be followed:
 	 * - 2 thieves cannot be on the same position
 	 * - 2 consecutive thieves cannot be more than maxDistance apart from each other
+	 * <p>
+	 * The elements of the party move in turns. The call waits for the thief's turn, and for its next turns
+	 * while the rules do not allow it to move, so it only returns after the thief has moved.
 	 *
 	 * @param agility          the maximum distance this thief can walk
 	 * @param idInAssaultParty the unique identifier of the thief in the party
 	 * @param thief            thief's unique identifier
-	 * @return true if the room has not yet been reached
+	 * @return true if the thief moved, false if it had already reached the room
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	boolean crawlIn(int agility, int idInAssaultParty, int thief) throws RemoteException;
 
+	/**
+	 * Thief crawls inwards until he reaches the room.
+	 * <p>
+	 * Equivalent to calling {@link #crawlIn(int, int, int)} until it returns false,
+	 * but the whole movement runs in the server, taking the thief's turns until it arrives.
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @param thief            thief's unique identifier
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	void crawlToRoom(int agility, int idInAssaultParty, int thief) throws RemoteException;
+
 	/**
 	 * When the last thief to arrive has robbed (or has seen no more paintings to rob),
 	 * the party must reverse direction and go to the collection site
@@ -40,14 +56,30 @@ public interface IAssaultParty extends Remote, CloseableServer {
 	 * While crawling, certain rules must be followed:
 	 * - 2 thieves cannot be on the same position
 	 * - 2 consecutive thieves cannot be more than maxDistance apart from each other
+	 * <p>
+	 * The elements of the party move in turns. The call waits for the thief's turn, and for its next turns
+	 * while the rules do not allow it to move, so it only returns after the thief has moved.
+	 * A thief that has already reached the collection site waits for the rest of the party.
 	 *
 	 * @param agility          the maximum distance this thief can walk
 	 * @param idInAssaultParty the unique identifier of the thief in the party
-	 * @return true if the room has not yet been reached
+	 * @return true if the thief moved, false once every element of the party has reached the collection site
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	boolean crawlOut(int agility, int idInAssaultParty) throws RemoteException;
 
+	/**
+	 * Thief crawls outwards until every element of the party has reached the collection site.
+	 * <p>
+	 * Equivalent to calling {@link #crawlOut(int, int)} until it returns false,
+	 * but the whole movement runs in the server, taking the thief's turns until it arrives.
+	 *
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the unique identifier of the thief in the party
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	void crawlToSite(int agility, int idInAssaultParty) throws RemoteException;
+
 	/**
 	 * Gets the assault party size
 	 *
@@ -0,0 +1,22 @@
+package assaultParty;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the rendezvous of an assault party at the room.
+ * <p>
+ * Does what {@link IAssaultParty#reverseDirection(int)} does, but returns right away, with a future the monitor
+ * completes once the whole party is ready to crawl out, so no thread is held meanwhile.
+ * The future may be completed while the monitor's lock is held, so the actions depending on it must not block.
+ */
+public interface IAssaultPartyAsync {
+	/**
+	 * Non-blocking {@link IAssaultParty#reverseDirection(int)}
+	 *
+	 * @param thief the thief ID
+	 * @return completed when the last thief of the party has reversed direction
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	CompletableFuture<Void> reverseDirectionAsync(int thief) throws RemoteException;
+}
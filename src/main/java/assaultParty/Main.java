@@ -1,10 +1,15 @@
 package assaultParty;
 
 import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+import logger.BatchingLogger;
 import logger.ConcurrentLogger;
 import logger.IConcurrentLogger;
 import Register.RMIUtils;
+import transport.TransportStats;
+import transport.TunedSockets;
 
+import java.io.IOException;
 import java.rmi.AlreadyBoundException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
@@ -60,6 +65,15 @@ public class Main {
 				return;
 			}
 
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("AssaultParty- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+			Instrumentation.setEnabled(params.isInstrumented());
+
 			/* create and install the security manager */
 
 			if (System.getSecurityManager() == null)
@@ -67,14 +81,22 @@ public class Main {
 			System.out.println("Security manager was installed!");
 
 			/* RMI registry service */
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
-			final IConcurrentLogger logger = (IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class);
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			if (params.isTunedSockets())
+				rmiUtils.setSocketFactories(new TunedSockets(params.getSocketBufferSize(), params.getCompressionThreshold()));
+			rmiUtils.setBinaryTransport(params.isBinaryTransport());
+			final BatchingLogger logger = new BatchingLogger(
+					(IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class),
+					params.getLoggerBatchSize(),
+					params.getLoggerFlushInterval()
+			);
 
 
 			final AssaultParty assaultParty = new AssaultParty(
 					assaultId,
-					SimulationDefaults.DEFAULT.getAssaultPartySize(),
-					SimulationDefaults.DEFAULT.getMaxSeparation(),
+					params.getAssaultPartySize(),
+					params.getMaxSeparation(),
+					logger,
 					logger
 			);
 
@@ -83,6 +105,10 @@ public class Main {
 			System.out.println("AP waiting...");
 			assaultParty.waitUntilCompletion();
 			rmiUtils.unbind(assaultParty, assaultId);
+			if (Instrumentation.isEnabled())
+				System.out.print(Instrumentation.report());
+			if (params.isTunedSockets())
+				System.out.print(TransportStats.report());
 			System.out.println("AP COMPLETED");
 
 		} catch (RemoteException e) {
@@ -0,0 +1,152 @@
+package assaultParty;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the thieves of a party, kept ordered so the movement rules do not have to scan the party.
+ * <p>
+ * The positions are kept in a sorted array, for the first and last thief and the thieves right below and above a position,
+ * and in an occupancy count of every position between the collection site and the room, to tell whether a position is taken.
+ * <p>
+ * This class is NOT thread safe, it is only accessed while holding the party's lock.
+ */
+class PositionIndex {
+	/**
+	 * The position of every thief, in ascending order
+	 */
+	private final int[] sorted;
+	/**
+	 * The number of thieves at each position
+	 */
+	private int[] occupancy;
+
+	/**
+	 * Creates the index of a party at the collection site
+	 *
+	 * @param partySize the number of thieves of the party
+	 */
+	PositionIndex(int partySize) {
+		this.sorted = new int[partySize];
+		this.occupancy = new int[1];
+		this.occupancy[0] = partySize;
+	}
+
+	/**
+	 * Rebuilds the index from the position of each thief, for a room at a new distance
+	 *
+	 * @param distances    the position of each thief
+	 * @param roomDistance the distance to the room
+	 */
+	void reset(int[] distances, int roomDistance) {
+		System.arraycopy(distances, 0, sorted, 0, sorted.length);
+		Arrays.sort(sorted);
+		final int size = Math.max(roomDistance, sorted[sorted.length - 1]) + 1;
+		if (occupancy.length < size)
+			occupancy = new int[size];
+		else
+			Arrays.fill(occupancy, 0);
+		for (int distance : distances)
+			occupancy[distance]++;
+	}
+
+	/**
+	 * Moves a thief
+	 *
+	 * @param from the position it was at
+	 * @param to   the position it moved to
+	 */
+	void move(int from, int to) {
+		occupancy[from]--;
+		occupancy[to]++;
+
+		int i = Arrays.binarySearch(sorted, from);
+		if (to > from) {
+			while (i + 1 < sorted.length && sorted[i + 1] < to) {
+				sorted[i] = sorted[i + 1];
+				i++;
+			}
+		} else {
+			while (i > 0 && sorted[i - 1] > to) {
+				sorted[i] = sorted[i - 1];
+				i--;
+			}
+		}
+		sorted[i] = to;
+	}
+
+	/**
+	 * Whether a position is taken
+	 *
+	 * @param position the position
+	 * @return true if at least one thief is there
+	 */
+	boolean isOccupied(int position) {
+		return position < occupancy.length && occupancy[position] > 0;
+	}
+
+	/**
+	 * The number of thieves at a position
+	 *
+	 * @param position the position
+	 * @return the number of thieves there
+	 */
+	int countAt(int position) {
+		return position < occupancy.length ? occupancy[position] : 0;
+	}
+
+	/**
+	 * The position of the thief closest to the collection site
+	 *
+	 * @return the lowest position
+	 */
+	int first() {
+		return sorted[0];
+	}
+
+	/**
+	 * The position of the thief furthest from the collection site
+	 *
+	 * @return the highest position
+	 */
+	int last() {
+		return sorted[sorted.length - 1];
+	}
+
+	/**
+	 * The position of the thief right below a position, closer to the collection site
+	 *
+	 * @param position the position
+	 * @return the highest position below it, Integer.MIN_VALUE if there is none
+	 */
+	int below(int position) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) { // first index not below the position
+			final int mid = (low + high) >>> 1;
+			if (sorted[mid] < position)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low == 0 ? Integer.MIN_VALUE : sorted[low - 1];
+	}
+
+	/**
+	 * The position of the thief right above a position, closer to the room
+	 *
+	 * @param position the position
+	 * @return the lowest position above it, Integer.MAX_VALUE if there is none
+	 */
+	int above(int position) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) { // first index above the position
+			final int mid = (low + high) >>> 1;
+			if (sorted[mid] <= position)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low == sorted.length ? Integer.MAX_VALUE : sorted[low];
+	}
+}
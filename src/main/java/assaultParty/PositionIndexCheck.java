@@ -0,0 +1,357 @@
+package assaultParty;
+
+import logger.IConcurrentLogger;
+
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks that the movement rules of {@link AssaultParty}, applied with the {@link PositionIndex}, move the thieves exactly as
+ * the rules did before the positions were indexed, which scanned the whole party.
+ * <p>
+ * Random parties, with random sizes, separations and room distances, crawl to the room and back with random thieves
+ * stepping with random agilities. Every step is applied both by the party and by the former rules, kept here as they were,
+ * and the positions of every thief must be the same after each one. The random order of the steps, rather than the turns
+ * of the party, reaches states the turns rarely do, such as thieves tied at the site or in the room.
+ * It lives in this package since the steps of the party, without the turns, are not part of its remote interface.
+ * <p>
+ * It stops at the first mismatch, with the seed, party and step that reproduce it, and exits with a non-zero status.
+ * The number of parties can be changed with the check.parties system property.
+ * <p>
+ * Usage: assaultParty.PositionIndexCheck [seed]
+ */
+public class PositionIndexCheck {
+	/**
+	 * Number of random parties
+	 */
+	private static final int PARTIES = Integer.getInteger("check.parties", 20_000);
+	/**
+	 * Steps after which a crawl is stopped, in case the rules let the party get stuck
+	 */
+	private static final int MAX_STEPS = 10_000;
+
+	/**
+	 * Runs the check
+	 *
+	 * @param args the seed of the random parties, optional
+	 * @throws RemoteException never, the logger is local
+	 */
+	public static void main(String[] args) throws RemoteException {
+		final long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+		System.out.println("Seed " + seed);
+		final Random random = new Random(seed);
+
+		long steps = 0;
+		for (int party = 0; party < PARTIES; party++) {
+			final int partySize = 1 + random.nextInt(6);
+			final int maxSeparation = 1 + random.nextInt(6);
+			final int roomDistance = 1 + random.nextInt(40);
+			final int maxAgility = 1 + random.nextInt(8);
+			final String description = String.format("party %d: size %d, separation %d, room at %d, agility up to %d",
+					party, partySize, maxSeparation, roomDistance, maxAgility);
+
+			final int[] observed = new int[partySize];
+			final AssaultParty assaultParty = new AssaultParty(0, partySize, maxSeparation, recordingLogger(observed), () -> {});
+			assaultParty.setRoom(0, roomDistance);
+			final int[] expected = new int[partySize];
+
+			for (boolean inwards : new boolean[]{true, false}) {
+				final int destination = inwards ? roomDistance : 0;
+				for (int step = 0; step < MAX_STEPS && !allAt(expected, destination); step++, steps++) {
+					final int thief = random.nextInt(partySize);
+					final int agility = 1 + random.nextInt(maxAgility);
+					final int[] before = expected.clone();
+					final boolean expectedResult = inwards
+							? referenceStepIn(expected, roomDistance, maxSeparation, partySize, agility, thief)
+							: referenceStepOut(expected, roomDistance, maxSeparation, partySize, agility, thief);
+					final boolean observedResult = assaultParty.step(agility, thief, inwards);
+					if (expectedResult != observedResult || !Arrays.equals(expected, observed)) {
+						System.out.printf("FAILED: %s, seed %d%n", description, seed);
+						System.out.printf("thief %d stepping %s with agility %d from %s: expected %s %b, got %s %b%n",
+								thief, inwards ? "in" : "out", agility, Arrays.toString(before),
+								Arrays.toString(expected), expectedResult, Arrays.toString(observed), observedResult);
+						System.exit(1);
+					}
+				}
+			}
+		}
+		System.out.printf("%d parties, %d steps: OK%n", PARTIES, steps);
+	}
+
+	/**
+	 * Whether every thief is at a position
+	 *
+	 * @param distances the position of each thief
+	 * @param position  the position
+	 * @return true if they all are
+	 */
+	private static boolean allAt(int[] distances, int position) {
+		for (int distance : distances)
+			if (distance != position)
+				return false;
+		return true;
+	}
+
+	/**
+	 * A logger that only records the position of each thief of the party
+	 *
+	 * @param distances where the positions are recorded
+	 * @return the logger
+	 */
+	private static IConcurrentLogger recordingLogger(int[] distances) {
+		return (IConcurrentLogger) Proxy.newProxyInstance(IConcurrentLogger.class.getClassLoader(), new Class<?>[]{IConcurrentLogger.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("setDistance"))
+						distances[(Integer) args[1]] = (Integer) args[2];
+					return method.getReturnType() == int.class ? 0 : null;
+				});
+	}
+
+	/**
+	 * The inwards step of the baseline, before the positions were indexed, copied as it was
+	 *
+	 * @param distances        the position of each thief, updated with the move
+	 * @param roomDistance     the distance to the room
+	 * @param maxSeparation    the maximum distance 2 consecutive thieves can be from each other
+	 * @param partySize        the number of thieves of the party
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the thief that steps
+	 * @return false if the thief was already in the room
+	 */
+	private static boolean referenceStepIn(int[] distances, int roomDistance, int maxSeparation, int partySize, int agility, int idInAssaultParty) {
+		if (distances[idInAssaultParty] == roomDistance) { //if all thieves arrived change thieves state
+			return false;
+		} else {
+			int situation;
+			int index_inf = -1;
+			int index_sup = -1;
+
+			if (distances[idInAssaultParty] != 0) {
+				int maxAt = 0;
+				for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the most distance travelled
+					if (distances[i] > distances[maxAt]) maxAt = i;
+				}
+
+				int minAt = 0;
+				for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the least distance travelled
+					if (distances[i] < distances[minAt]) minAt = i;
+				}
+
+				if (minAt == idInAssaultParty) { // if current thief is the one with the least distance travelled situation = 0
+					situation = 0;
+				} else if (maxAt == idInAssaultParty) { // if current thief is the one with the most distance travelled situation = 2
+
+					situation = 2;
+					int temp = Integer.MIN_VALUE;
+					for (int i = 0; i < partySize; i++) {
+						if ((temp < distances[i]) && (distances[i] < distances[idInAssaultParty])) { // find thief behind
+							index_inf = i;
+							temp = distances[i];
+						}
+					}
+				} else { // if thief is between two thieves = 1
+					situation = 1;
+					int temp = Integer.MIN_VALUE;
+					int temp2 = Integer.MAX_VALUE;
+
+					for (int i = 0; i < partySize; i++) {
+						if ((temp < distances[i]) && (distances[i] < distances[idInAssaultParty])) { // find thief behind
+							index_inf = i;
+							temp = distances[i];
+						}
+						if ((distances[i] > distances[idInAssaultParty]) && (temp2 > distances[i])) { // find thief in front
+							index_sup = i;
+							temp2 = distances[i];
+						}
+					}
+				}
+			} else {
+				situation = 2;
+				int temp = Integer.MAX_VALUE;
+				for (int i = 0; i < partySize; i++) {
+					if (distances[i] < temp) {
+						index_inf = i;
+						temp = distances[i];
+					}
+				}
+			}
+
+			if (distances[idInAssaultParty] < roomDistance) {
+				for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
+					boolean movementFlag = true;
+					int futureDistance = distances[idInAssaultParty] + possibleMovement;
+					if (futureDistance <= roomDistance) { // futureDistance needs to be equal or lower than destination distance
+						switch (situation) {
+							case 0: // when the thief with less distance travelled is trying to walk
+								for (int distance : distances)
+									if ((distance == futureDistance) && (futureDistance != roomDistance)) {// check for overlapping
+										movementFlag = false;
+										break;
+									}
+								break;
+							case 1: // when the thief is between two other thieves
+								for (int distance : distances)
+									if ((distance == futureDistance) && (futureDistance != roomDistance)) { // check for overlapping
+										movementFlag = false;
+										break;
+									}
+								if (movementFlag) {
+									if (distances[index_sup] < futureDistance) { // if thief overtakes
+										if (distances[index_sup] - distances[index_inf] > maxSeparation) //check if maximum maxSeparation was fullfilled
+											movementFlag = false;
+									} else if (futureDistance - distances[index_inf] > maxSeparation) //check if maximum maxSeparation was fullfilled with no overtake
+										movementFlag = false;
+								}
+								break;
+							case 2:// when the thief with most distance travelled is trying to walk
+								for (int distance : distances)
+									if (distance == futureDistance) { // check for overlapping
+										movementFlag = false;
+										break;
+									}
+								if (futureDistance - distances[index_inf] > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
+						}
+					} else {
+						movementFlag = false;
+					}
+					if (movementFlag) {
+
+						distances[idInAssaultParty] = futureDistance;
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The outwards step of the baseline, before the positions were indexed, copied as it was
+	 *
+	 * @param distances        the position of each thief, updated with the move
+	 * @param roomDistance     the distance to the room
+	 * @param maxSeparation    the maximum distance 2 consecutive thieves can be from each other
+	 * @param partySize        the number of thieves of the party
+	 * @param agility          the maximum distance this thief can walk
+	 * @param idInAssaultParty the thief that steps
+	 * @return false if the whole party was already at the collection site
+	 */
+	private static boolean referenceStepOut(int[] distances, int roomDistance, int maxSeparation, int partySize, int agility, int idInAssaultParty) {
+
+		int thiefTracking = 0;
+		for (int distance : distances) {// count how many arrived
+			if (distance == 0)
+				thiefTracking++;
+		}
+
+		if (thiefTracking == partySize) { //if all thieves arrived change thieves state
+			return false;
+		} else {
+			int situation;
+			int index_inf = -1;
+			int index_sup = -1;
+
+			if (distances[idInAssaultParty] != roomDistance) {
+				int maxAt = 0;
+				for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the most distance (last)
+					if (distances[i] > distances[maxAt]) maxAt = i;
+				}
+
+				int minAt = 0;
+				for (int i = 1; i < distances.length; i++) { // finds the index of the thief with the least distance (first)
+					if (distances[i] < distances[minAt]) minAt = i;
+				}
+
+				if (maxAt == idInAssaultParty) { // if current thief is the one with the most distance situation = 0
+					situation = 0;
+				} else if (minAt == idInAssaultParty) { // if current thief is the one with the least distance situation = 2
+
+					situation = 2;
+					int temp = Integer.MAX_VALUE;
+					for (int i = 0; i < partySize; i++) {
+						if ((distances[i] > distances[idInAssaultParty]) && (temp > distances[i])) {
+							index_sup = i;
+							temp = distances[i];
+						}
+					}
+				} else { // if thief is between two thieves = 1
+					situation = 1;
+					int temp = Integer.MIN_VALUE;
+					int temp2 = Integer.MAX_VALUE;
+
+					for (int i = 0; i < partySize; i++) {
+						if ((distances[i] < distances[idInAssaultParty]) && (distances[i] > temp)) {
+							index_inf = i;
+							temp = distances[i];
+						}
+						if ((distances[i] > distances[idInAssaultParty]) && (temp2 > distances[i])) {
+							index_sup = i;
+							temp2 = distances[i];
+						}
+					}
+				}
+			} else {
+				situation = 2;
+				int temp = Integer.MIN_VALUE;
+				for (int i = 0; i < partySize; i++) {
+					if (distances[i] > temp) {
+						index_sup = i;
+						temp = distances[i];
+					}
+				}
+			}
+
+			if (0 < distances[idInAssaultParty]) {
+				for (int possibleMovement = agility; possibleMovement > 0; possibleMovement--) {
+					boolean movementFlag = true;
+					int futureDistance = distances[idInAssaultParty] - possibleMovement;
+					if (futureDistance >= 0) { // futureDistance needs to be equal or lower than destination distance
+						switch (situation) {
+							case 0: // when the thief with less distance travelled is trying to walk
+								for (int distance : distances)
+									if ((distance == futureDistance) && (futureDistance != 0)) { // check for overlapping
+										movementFlag = false;
+										break;
+									}
+								break;
+							case 1: // when the thief is between two other thieves
+								for (int distance : distances)
+									if ((distance == futureDistance) && (futureDistance != 0)) { // check for overlapping
+										movementFlag = false;
+										break;
+									}
+								if (movementFlag) {
+									if (distances[index_inf] > futureDistance) { // if thief overtakes
+										if (distances[index_sup] - distances[index_inf] > maxSeparation) //checks if maximum maxSeparation was fullfilled
+											movementFlag = false;
+									} else if (distances[index_sup] - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+										movementFlag = false;
+								}
+								break;
+							case 2:// when the thief with most distance travelled is trying to walk
+								for (int distance : distances)
+									if (distance == futureDistance) {// check for overlapping
+										movementFlag = false;
+										break;
+									}
+								if (distances[index_sup] - futureDistance > maxSeparation) //checks if maximum maxSeparation was fullfilled with no overtake
+									movementFlag = false;
+								break;
+						}
+					} else {
+						movementFlag = false;
+					}
+					if (movementFlag) {
+						distances[idInAssaultParty] = futureDistance;
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,124 @@
+package benchmark;
+
+/**
+ * A minimal benchmark harness, for code that has to be measured without a benchmarking framework.
+ * <p>
+ * Each workload runs a few warm up rounds, so the measured rounds run compiled code, and then the measured rounds.
+ * The time of every measured round is divided by the number of operations it performed.
+ * <p>
+ * The number of rounds can be changed with the bench.warmUp and bench.rounds system properties.
+ */
+final class Bench {
+	/**
+	 * Number of warm up rounds
+	 */
+	private static final int WARM_UP_ROUNDS = Integer.getInteger("bench.warmUp", 3);
+	/**
+	 * Number of measured rounds
+	 */
+	private static final int MEASURED_ROUNDS = Integer.getInteger("bench.rounds", 5);
+
+	/**
+	 * Prevents the JIT from discarding the measured work
+	 */
+	static long sink;
+
+	/**
+	 * A measured piece of work
+	 */
+	interface Workload {
+		/**
+		 * Performs the given number of operations
+		 *
+		 * @param ops the number of operations
+		 * @throws Exception when the workload fails, which aborts the benchmark
+		 */
+		void run(int ops) throws Exception;
+	}
+
+	/**
+	 * The work of one of the threads of a workload
+	 */
+	interface Task {
+		/**
+		 * Performs the work
+		 *
+		 * @throws Exception when the work fails, which aborts the benchmark
+		 */
+		void run() throws Exception;
+	}
+
+	private Bench() {
+	}
+
+	/**
+	 * Whether a benchmark was selected in the command line
+	 *
+	 * @param args the command line, the names of the benchmarks to run or nothing to run them all
+	 * @param name the name of the benchmark
+	 * @return true if it should run
+	 */
+	static boolean selected(String[] args, String name) {
+		if (args.length == 0)
+			return true;
+		for (String arg : args)
+			if (name.startsWith(arg))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Runs a workload and prints the time per operation and the throughput of the measured rounds
+	 *
+	 * @param name     the name of the workload
+	 * @param ops      the number of operations of each round
+	 * @param workload the workload
+	 * @throws Exception when the workload fails
+	 */
+	static void measure(String name, int ops, Workload workload) throws Exception {
+		for (int round = 0; round < WARM_UP_ROUNDS; round++)
+			workload.run(ops);
+
+		double best = Double.MAX_VALUE;
+		double sum = 0;
+		for (int round = 0; round < MEASURED_ROUNDS; round++) {
+			final long start = System.nanoTime();
+			workload.run(ops);
+			final double nsPerOp = (double) (System.nanoTime() - start) / ops;
+			best = Math.min(best, nsPerOp);
+			sum += nsPerOp;
+		}
+		final double mean = sum / MEASURED_ROUNDS;
+		System.out.printf("%-48s %12.1f ns/op (best %10.1f) %14.0f ops/s%n", name, mean, best, 1e9 / mean);
+	}
+
+	/**
+	 * Starts a thread for each task and waits for all of them to end
+	 *
+	 * @param tasks the tasks
+	 * @throws Exception when a task fails
+	 */
+	static void runAll(Task... tasks) throws Exception {
+		final Thread[] threads = new Thread[tasks.length];
+		final Exception[] failure = new Exception[1];
+		for (int i = 0; i < tasks.length; i++) {
+			final Task task = tasks[i];
+			threads[i] = new Thread(() -> {
+				try {
+					task.run();
+				} catch (Exception e) {
+					synchronized (failure) {
+						failure[0] = e;
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads)
+			t.join();
+		synchronized (failure) {
+			if (failure[0] != null)
+				throw failure[0];
+		}
+	}
+}
@@ -0,0 +1,515 @@
+package benchmark;
+
+import transport.BinaryTransport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.ServerException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that calls make the round trip through the {@link BinaryTransport} unchanged.
+ * <p>
+ * An object with a method for every type the transport encodes is exported, and called both through its proxy and
+ * through a raw channel, with requests encoded here from the documented frame layout:
+ * <ul>
+ * <li> every type, including null, empty and random arrays, and arrays whose frames are larger than the server's first buffer </li>
+ * <li> requests sent a byte at a time, in chunks, and several in a single write </li>
+ * <li> replies written out of order, as the calls parked in non-blocking counterparts complete </li>
+ * <li> exceptions thrown by the object </li>
+ * <li> closing the server while a call is parked, whose reply must still be written if it completes within the grace period </li>
+ * </ul>
+ * It stops at the first mismatch, with an AssertionError, and exits with a non-zero status.
+ * <p>
+ * Usage: benchmark.BinaryTransportCheck [seed]
+ */
+public class BinaryTransportCheck {
+	/**
+	 * Bytes of a request before its arguments: the call's identifier and the method's number
+	 */
+	private static final int REQUEST_HEADER = 8 + 2;
+	/**
+	 * Status of a reply carrying a return value
+	 */
+	private static final byte OK = 0;
+	/**
+	 * Number of random calls of each method through the proxy
+	 */
+	private static final int RANDOM_CALLS = 200;
+
+	/**
+	 * The methods called, one for each type the transport encodes
+	 */
+	public interface Echo extends Remote {
+		/**
+		 * @param a an int
+		 * @param b another int
+		 * @return their sum
+		 * @throws RemoteException when the call fails
+		 */
+		int add(int a, int b) throws RemoteException;
+
+		/**
+		 * @param value a long
+		 * @return its negation
+		 * @throws RemoteException when the call fails
+		 */
+		long negate(long value) throws RemoteException;
+
+		/**
+		 * @param value a boolean
+		 * @return its negation
+		 * @throws RemoteException when the call fails
+		 */
+		boolean not(boolean value) throws RemoteException;
+
+		/**
+		 * @param values an array of ints, may be null
+		 * @return a copy in reverse order, null for null
+		 * @throws RemoteException when the call fails
+		 */
+		int[] reverse(int[] values) throws RemoteException;
+
+		/**
+		 * @param values an array of booleans, may be null
+		 * @return a copy with every value negated, null for null
+		 * @throws RemoteException when the call fails
+		 */
+		boolean[] invert(boolean[] values) throws RemoteException;
+
+		/**
+		 * Throws an IllegalStateException carrying the code
+		 *
+		 * @param code the code
+		 * @throws RemoteException when the call fails
+		 */
+		void fail(int code) throws RemoteException;
+
+		/**
+		 * Waits until the call is released
+		 *
+		 * @param id the call's identifier
+		 * @return ten times the identifier
+		 * @throws RemoteException when the call fails
+		 */
+		int hold(int id) throws RemoteException;
+	}
+
+	/**
+	 * The non-blocking counterpart of {@link Echo#hold(int)}
+	 */
+	public interface EchoAsync {
+		/**
+		 * @param id the call's identifier
+		 * @return completed, with ten times the identifier, when the call is released
+		 * @throws RemoteException when the call fails
+		 */
+		CompletableFuture<Integer> holdAsync(int id) throws RemoteException;
+	}
+
+	/**
+	 * The object exported
+	 */
+	public static final class EchoServer implements Echo, EchoAsync {
+		/**
+		 * The future of each held call
+		 */
+		private final Map<Integer, CompletableFuture<Integer>> held = new ConcurrentHashMap<>();
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int add(int a, int b) {
+			return a + b;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long negate(long value) {
+			return -value;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean not(boolean value) {
+			return !value;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int[] reverse(int[] values) {
+			if (values == null)
+				return null;
+			final int[] reversed = new int[values.length];
+			for (int i = 0; i < values.length; i++)
+				reversed[i] = values[values.length - 1 - i];
+			return reversed;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean[] invert(boolean[] values) {
+			if (values == null)
+				return null;
+			final boolean[] inverted = new boolean[values.length];
+			for (int i = 0; i < values.length; i++)
+				inverted[i] = !values[i];
+			return inverted;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void fail(int code) {
+			throw new IllegalStateException("code " + code);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hold(int id) {
+			return holdAsync(id).join();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CompletableFuture<Integer> holdAsync(int id) {
+			return held.computeIfAbsent(id, k -> new CompletableFuture<>());
+		}
+
+		/**
+		 * Releases a held call, or the next call with the identifier
+		 *
+		 * @param id the call's identifier
+		 */
+		void release(int id) {
+			holdAsync(id).complete(id * 10);
+		}
+
+		/**
+		 * Whether a call with the identifier was received
+		 *
+		 * @param id the call's identifier
+		 * @return true once it was received
+		 */
+		boolean isHeld(int id) {
+			return held.containsKey(id);
+		}
+	}
+
+	/**
+	 * Runs the checks
+	 *
+	 * @param args the seed of the random values, optional
+	 * @throws Exception when a call fails unexpectedly
+	 */
+	public static void main(String[] args) throws Exception {
+		final long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+		System.out.println("Seed " + seed);
+		final Random random = new Random(seed);
+
+		final EchoServer server = new EchoServer();
+		final int port = freePort();
+		final Echo echo = (Echo) BinaryTransport.export(server, port);
+		try {
+			checkProxy(echo, random);
+			System.out.println("Proxy round trips: OK");
+			checkPipelining(BinaryTransport.async(echo, EchoAsync.class), server);
+			System.out.println("Out of order replies through the proxy: OK");
+			checkFraming(server, port, random);
+			System.out.println("Partial, large and batched frames: OK");
+			checkCloseGrace(echo, server);
+			System.out.println("Reply of a parked call on close: OK");
+		} catch (AssertionError e) {
+			System.out.println("FAILED: " + e.getMessage());
+			BinaryTransport.unexport(server);
+			System.exit(1);
+		}
+		BinaryTransport.unexport(server);
+		System.exit(0);
+	}
+
+	/**
+	 * Calls every method through the proxy with edge and random values
+	 *
+	 * @param echo   the proxy
+	 * @param random the source of the values
+	 * @throws RemoteException when a call fails unexpectedly
+	 */
+	private static void checkProxy(Echo echo, Random random) throws RemoteException {
+		check(echo.add(Integer.MAX_VALUE, 1) == Integer.MIN_VALUE, "add overflow");
+		check(echo.negate(Long.MIN_VALUE + 1) == Long.MAX_VALUE, "negate");
+		check(echo.not(true) == false && echo.not(false), "not");
+		check(echo.reverse(null) == null, "reverse null");
+		check(echo.invert(null) == null, "invert null");
+		check(echo.reverse(new int[0]).length == 0, "reverse empty");
+		check(echo.invert(new boolean[0]).length == 0, "invert empty");
+
+		for (int call = 0; call < RANDOM_CALLS; call++) {
+			final int a = random.nextInt();
+			final int b = random.nextInt();
+			check(echo.add(a, b) == a + b, "add " + a + " " + b);
+			final long value = random.nextLong();
+			check(echo.negate(value) == -value, "negate " + value);
+
+			final int[] ints = new int[random.nextInt(call % 20 == 0 ? 20_000 : 50)];
+			for (int i = 0; i < ints.length; i++)
+				ints[i] = random.nextInt();
+			final int[] reversed = echo.reverse(ints);
+			check(reversed.length == ints.length, "reverse length " + ints.length);
+			for (int i = 0; i < ints.length; i++)
+				check(reversed[i] == ints[ints.length - 1 - i], "reverse of " + ints.length + " at " + i);
+
+			final boolean[] booleans = new boolean[random.nextInt(call % 20 == 0 ? 20_000 : 50)];
+			for (int i = 0; i < booleans.length; i++)
+				booleans[i] = random.nextBoolean();
+			final boolean[] inverted = echo.invert(booleans);
+			check(inverted.length == booleans.length, "invert length " + booleans.length);
+			for (int i = 0; i < booleans.length; i++)
+				check(inverted[i] != booleans[i], "invert of " + booleans.length + " at " + i);
+		}
+
+		try {
+			echo.fail(42);
+			throw new AssertionError("fail did not throw");
+		} catch (ServerException e) {
+			check(e.getMessage().contains("IllegalStateException") && e.getMessage().contains("code 42"), "fail message " + e.getMessage());
+		}
+		check(echo.add(1, 2) == 3, "call after a failure");
+	}
+
+	/**
+	 * Sends held calls through the view of the non-blocking counterparts and releases them in reverse order
+	 *
+	 * @param async  the view
+	 * @param server the object exported
+	 * @throws Exception when a call fails unexpectedly
+	 */
+	private static void checkPipelining(EchoAsync async, EchoServer server) throws Exception {
+		final CompletableFuture<Integer> first = async.holdAsync(1);
+		final CompletableFuture<Integer> second = async.holdAsync(2);
+		check(((Echo) async).add(3, 4) == 7, "call while others are held");
+		check(!first.isDone() && !second.isDone(), "held calls answered before their release");
+
+		server.release(2);
+		check(second.get(5, TimeUnit.SECONDS) == 20, "second held call");
+		check(!first.isDone(), "first held call answered with the second");
+		server.release(1);
+		check(first.get(5, TimeUnit.SECONDS) == 10, "first held call");
+	}
+
+	/**
+	 * Sends requests encoded here through a raw channel, split and batched in every way, and reads the replies
+	 *
+	 * @param server the object exported
+	 * @param port   the port it is served on
+	 * @param random the source of the values
+	 * @throws Exception when the channel fails
+	 */
+	private static void checkFraming(EchoServer server, int port, Random random) throws Exception {
+		final Map<String, Integer> numbers = numbers(Echo.class);
+		try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+			/* a request a byte at a time */
+			final ByteBuffer add = request(1, numbers.get("add[int, int]"), 8).putInt(20).putInt(22);
+			add.flip();
+			while (add.hasRemaining()) {
+				channel.write(flipped(ByteBuffer.allocate(1).put(add.get())));
+				Thread.sleep(1);
+			}
+			ByteBuffer reply = reply(channel, 1);
+			check(reply.getInt() == 42, "add sent a byte at a time");
+
+			/* a request much larger than the server's first buffer, in chunks */
+			final int[] ints = new int[3000];
+			for (int i = 0; i < ints.length; i++)
+				ints[i] = random.nextInt();
+			final ByteBuffer reverse = request(2, numbers.get("reverse[class [I]"), 4 + 4 * ints.length).putInt(ints.length);
+			for (int v : ints)
+				reverse.putInt(v);
+			reverse.flip();
+			while (reverse.hasRemaining()) {
+				final ByteBuffer chunk = reverse.slice();
+				chunk.limit(Math.min(chunk.remaining(), 1000));
+				reverse.position(reverse.position() + chunk.remaining());
+				channel.write(chunk);
+				Thread.sleep(1);
+			}
+			reply = reply(channel, 2);
+			check(reply.getInt() == ints.length, "reverse length in chunks");
+			for (int i = 0; i < ints.length; i++)
+				check(reply.getInt() == ints[ints.length - 1 - i], "reverse in chunks at " + i);
+
+			/* several requests in one write, the first held so the others are answered before it */
+			final ByteBuffer batch = ByteBuffer.allocate(3 * 64);
+			batch.put(flipped(request(3, numbers.get("hold[int]"), 4).putInt(3)));
+			batch.put(flipped(request(4, numbers.get("not[boolean]"), 1).put((byte) 1)));
+			batch.put(flipped(request(5, numbers.get("negate[long]"), 8).putLong(5)));
+			batch.flip();
+			channel.write(batch);
+			final Map<Long, ByteBuffer> replies = new HashMap<>();
+			for (int i = 0; i < 2; i++) {
+				reply = reply(channel, -1);
+				replies.put(reply.getLong(0), reply);
+			}
+			check(replies.containsKey(4L) && replies.containsKey(5L), "replies before the held call " + replies.keySet());
+			check(replies.get(4L).get() == 0, "not in a batch");
+			check(replies.get(5L).getLong() == -5, "negate in a batch");
+			while (!server.isHeld(3))
+				Thread.sleep(1);
+			server.release(3);
+			check(reply(channel, 3).getInt() == 30, "held call in a batch");
+		}
+	}
+
+	/**
+	 * Closes the server while a call is parked, and releases it during the grace period
+	 *
+	 * @param echo   the proxy
+	 * @param server the object exported
+	 * @throws Exception when a call fails unexpectedly
+	 */
+	private static void checkCloseGrace(Echo echo, EchoServer server) throws Exception {
+		final EchoAsync async = BinaryTransport.async(echo, EchoAsync.class);
+		final CompletableFuture<Integer> held = async.holdAsync(9);
+		while (!server.isHeld(9))
+			Thread.sleep(1);
+
+		final Thread closer = new Thread(() -> BinaryTransport.unexport(server));
+		closer.start();
+		Thread.sleep(100);
+		server.release(9);
+		try {
+			check(held.get(5, TimeUnit.SECONDS) == 90, "parked call on close");
+		} catch (java.util.concurrent.ExecutionException e) {
+			throw new AssertionError("parked call dropped on close: " + e.getCause());
+		}
+		closer.join();
+	}
+
+	/**
+	 * Numbers the methods of an interface, as the transport does: in the order of their signatures
+	 *
+	 * @param type the interface
+	 * @return the number of each signature
+	 */
+	private static Map<String, Integer> numbers(Class<?> type) {
+		final TreeMap<String, Method> bySignature = new TreeMap<>();
+		for (Method method : type.getMethods())
+			bySignature.put(method.getName() + Arrays.toString(method.getParameterTypes()), method);
+		final Map<String, Integer> numbers = new HashMap<>();
+		for (String signature : bySignature.keySet())
+			numbers.put(signature, numbers.size());
+		return numbers;
+	}
+
+	/**
+	 * Creates a request, with its length and header written
+	 *
+	 * @param id     the call's identifier
+	 * @param number the method's number
+	 * @param size   the size of the arguments
+	 * @return the request, positioned at its arguments
+	 */
+	private static ByteBuffer request(long id, int number, int size) {
+		final ByteBuffer request = ByteBuffer.allocate(4 + REQUEST_HEADER + size);
+		request.putInt(REQUEST_HEADER + size);
+		request.putLong(id);
+		request.putShort((short) number);
+		return request;
+	}
+
+	/**
+	 * Reads a reply
+	 *
+	 * @param channel the channel
+	 * @param id      the identifier of the call it must answer, -1 for any
+	 * @return the reply positioned at its value, with the call's identifier at its start
+	 * @throws IOException when the channel fails
+	 */
+	private static ByteBuffer reply(SocketChannel channel, long id) throws IOException {
+		final ByteBuffer length = readFully(channel, 4);
+		final ByteBuffer reply = readFully(channel, length.getInt());
+		final long replyId = reply.getLong();
+		check(id < 0 || replyId == id, "reply to call " + replyId + " instead of " + id);
+		check(reply.get() == OK, "call " + replyId + " failed");
+		return reply;
+	}
+
+	/**
+	 * Reads a number of bytes
+	 *
+	 * @param channel the channel
+	 * @param n       the number of bytes
+	 * @return the bytes, ready to be read
+	 * @throws IOException when the channel fails or ends first
+	 */
+	private static ByteBuffer readFully(SocketChannel channel, int n) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(n);
+		while (buffer.hasRemaining())
+			if (channel.read(buffer) < 0)
+				throw new EOFException("Connection closed by the server");
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Flips a buffer, to read what was written to it
+	 *
+	 * @param buffer the buffer
+	 * @return the buffer
+	 */
+	private static ByteBuffer flipped(ByteBuffer buffer) {
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * A port nothing listens on
+	 *
+	 * @return the port
+	 * @throws IOException when no port can be found
+	 */
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	/**
+	 * Fails the check unless a condition holds
+	 *
+	 * @param condition the condition
+	 * @param what      what is checked
+	 */
+	private static void check(boolean condition, String what) {
+		if (!condition)
+			throw new AssertionError(what);
+	}
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+/**
+ * A logger that discards every event but the thieves' moves, to add up the distance crawled by each assault party
+ */
+class DistanceLogger extends NullLogger {
+	/**
+	 * The last position of each thief.
+	 * The first index is the assault party, the second the thief's identifier in it
+	 */
+	private final int[][] positions;
+	/**
+	 * The distance crawled by each assault party.
+	 * Each party's entry is only written while holding that party's lock, and read once the heist is over
+	 */
+	private final long[] crawled;
+
+	/**
+	 * Creates the logger, with every thief at the concentration site
+	 *
+	 * @param numberOfAssaultParties the number of assault parties
+	 * @param assaultPartySize       the number of thieves of each assault party
+	 */
+	DistanceLogger(int numberOfAssaultParties, int assaultPartySize) {
+		this.positions = new int[numberOfAssaultParties][assaultPartySize];
+		this.crawled = new long[numberOfAssaultParties];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDistance(int partyId, int thiefIdInAssaultParty, int distance) {
+		crawled[partyId] += Math.abs(distance - positions[partyId][thiefIdInAssaultParty]);
+		positions[partyId][thiefIdInAssaultParty] = distance;
+	}
+
+	/**
+	 * The distance crawled by every thief
+	 *
+	 * @return the sum of the distance crawled by each assault party
+	 */
+	long getTotalDistance() {
+		long total = 0;
+		for (long distance : crawled)
+			total += distance;
+		return total;
+	}
+
+	/**
+	 * The distance crawled by the assault party that crawled the most, which bounds how long the heist takes
+	 *
+	 * @return the largest distance crawled by an assault party
+	 */
+	long getLongestPartyDistance() {
+		long longest = 0;
+		for (long distance : crawled)
+			longest = Math.max(longest, distance);
+		return longest;
+	}
+}
@@ -0,0 +1,147 @@
+package benchmark;
+
+import logger.BatchingLogger;
+import logger.ConcurrentLogger;
+import logger.IConcurrentLogger;
+import logger.LoggerStatus;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Measures the logger: the throughput of concurrent producers and the cost of rendering an entry.
+ * <p>
+ * <ul>
+ *     <li>logger.sync: the producers apply and write every event while holding the logger's lock</li>
+ *     <li>logger.async: the producers hand their events to the writer thread through the ring buffer</li>
+ *     <li>logger.batched: the producers go through a {@link BatchingLogger}, as the servers do</li>
+ *     <li>status.getMessage: rendering an entry after a single cell changed</li>
+ *     <li>status.appendEntry: rendering an entry and appending it to the pending output, as the logger does</li>
+ * </ul>
+ * The log is written to a temporary file, and standard output is discarded while the producers run.
+ * <p>
+ * Usage: benchmark.LoggerBenchmark [names of the benchmarks to run]
+ */
+public class LoggerBenchmark {
+	/**
+	 * Number of thieves of the simulation being logged, one producer each
+	 */
+	private static final int N_THIEVES = 6;
+	/**
+	 * Number of thieves in each assault party
+	 */
+	private static final int[] PARTY_SIZES = {3, 3};
+	/**
+	 * Number of rooms of the museum
+	 */
+	private static final int N_ROOMS = 5;
+	/**
+	 * Number of spaces between values
+	 */
+	private static final int N_EMPTY_CHARS = 3;
+	/**
+	 * Number of events the asynchronous logger can hold
+	 */
+	private static final int BUFFER_SIZE = 4096;
+	/**
+	 * Number of events of each batch of the batched producers
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * Discards everything written to it
+	 */
+	private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	});
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args the names of the benchmarks to run, or nothing to run them all
+	 * @throws Exception when a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		final File log = File.createTempFile("heist-bench", ".log");
+		log.deleteOnExit();
+
+		if (Bench.selected(args, "logger.sync"))
+			Bench.measure("logger.sync producers=" + N_THIEVES, 60_000, events -> produce(log, 0, 0, events));
+		if (Bench.selected(args, "logger.async"))
+			Bench.measure("logger.async producers=" + N_THIEVES, 60_000, events -> produce(log, BUFFER_SIZE, 0, events));
+		if (Bench.selected(args, "logger.batched"))
+			Bench.measure("logger.batched producers=" + N_THIEVES, 60_000, events -> produce(log, BUFFER_SIZE, BATCH_SIZE, events));
+
+		final LoggerStatus status = LoggerStatus.initial(N_THIEVES, PARTY_SIZES, N_ROOMS);
+		if (Bench.selected(args, "status.getMessage"))
+			Bench.measure("status.getMessage", 1_000_000, entries -> {
+				for (int i = 0; i < entries; i++) {
+					status.getAssaultParties()[i & 1].setDistance(i % 3, i % 30 + 1);
+					Bench.sink += status.getMessage(N_EMPTY_CHARS, false).length();
+				}
+			});
+		if (Bench.selected(args, "status.appendEntry")) {
+			final StringBuilder sb = new StringBuilder();
+			Bench.measure("status.appendEntry", 1_000_000, entries -> {
+				for (int i = 0; i < entries; i++) {
+					status.getAssaultParties()[i & 1].setDistance(i % 3, i % 30 + 1);
+					sb.setLength(0);
+					sb.append(status.getMessage(N_EMPTY_CHARS, false));
+					Bench.sink += sb.length();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Each thief logs its movements concurrently, as if crawling.
+	 * One operation is an event logged
+	 *
+	 * @param log        the log file
+	 * @param bufferSize the number of events the logger can hold, 0 for the synchronous logger
+	 * @param batchSize  the number of events of each batch, 0 to call the logger directly
+	 * @param events     the number of events, rounded down to a multiple of the number of thieves
+	 * @throws Exception when the logger fails
+	 */
+	private static void produce(File log, int bufferSize, int batchSize, int events) throws Exception {
+		final PrintStream out = System.out;
+		System.setOut(DISCARD);
+		try {
+			final IConcurrentLogger logger = new ConcurrentLogger(false, N_EMPTY_CHARS, log.getPath(),
+					LoggerStatus.initial(N_THIEVES, PARTY_SIZES, N_ROOMS), N_THIEVES, bufferSize);
+			logger.setupRooms(new int[N_ROOMS], new int[N_ROOMS]);
+			for (int i = 0; i < N_THIEVES; i++)
+				logger.setAgility(i, 2);
+			logger.header();
+
+			final int perThief = events / N_THIEVES;
+			final int partySize = PARTY_SIZES[0];
+			final Bench.Task[] thieves = new Bench.Task[N_THIEVES];
+			for (int i = 0; i < N_THIEVES; i++) {
+				final int id = i;
+				thieves[i] = () -> {
+					final BatchingLogger batching = batchSize > 0 ? new BatchingLogger(logger, batchSize, 0) : null;
+					final IConcurrentLogger producer = batching != null ? batching : logger;
+					for (int event = 0; event < perThief; event++)
+						producer.setDistance(id / partySize, id % partySize, event % 30 + 1);
+					if (batching != null)
+						batching.flush();
+				};
+			}
+			Bench.runAll(thieves);
+
+			logger.sumUpResults(0);
+			logger.shutdown();
+			logger.waitUntilCompletion();
+		} finally {
+			System.setOut(out);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package benchmark;
+
+import assaultParty.AssaultParty;
+import collectionSite.CollectionSite;
+import concentrationSite.ConcentrationSite;
+import concentrationSite.RoomAssignment;
+
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Measures the monitors on their own, with the thieves and the master thief played by local threads
+ * and every event discarded by a {@link NullLogger}.
+ * <p>
+ * <ul>
+ *     <li>assaultParty: a whole party crawling to the room and back, either one step per call (crawlIn/crawlOut)
+ *     or one call per trip (crawlToRoom/crawlToSite), for several party sizes and agilities</li>
+ *     <li>collectionSite: the handACanvas/collectACanvas handoff between the thieves of a party and the master thief,
+ *     one canvas per master wake up or every waiting canvas at once (batch collection)</li>
+ *     <li>concentrationSite: the prepareExcursion/sendAssaultParty rendezvous</li>
+ * </ul>
+ * The simulation makes sure a thief never calls a monitor again before the rest of its party is done with it,
+ * since it has to go through the other monitors first.
+ * The benchmarks that skip the other monitors enforce it with a barrier at the end of each round, which is part of the measured time.
+ * <p>
+ * Usage: benchmark.MonitorBenchmark [names of the benchmarks to run]
+ */
+public class MonitorBenchmark {
+	/**
+	 * Distance to the room the parties crawl to
+	 */
+	private static final int ROOM_DISTANCE = 30;
+	/**
+	 * Maximum distance between consecutive thieves of a party
+	 */
+	private static final int MAX_SEPARATION = 3;
+	/**
+	 * The sizes of the parties measured
+	 */
+	private static final int[] PARTY_SIZES = {2, 3, 5};
+	/**
+	 * The logger, and sink, given to every monitor
+	 */
+	private static final NullLogger LOGGER = new NullLogger();
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args the names of the benchmarks to run, or nothing to run them all
+	 * @throws Exception when a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		for (int partySize : PARTY_SIZES) {
+			final int[] slow = agilities(partySize, 2, 2);
+			final int[] fast = agilities(partySize, 6, 6);
+			final int[] mixed = agilities(partySize, 2, 6);
+			if (Bench.selected(args, "assaultParty.step")) {
+				Bench.measure("assaultParty.step size=" + partySize + " agility=2", 500, trips -> crawlSteps(slow, trips));
+				Bench.measure("assaultParty.step size=" + partySize + " agility=6", 500, trips -> crawlSteps(fast, trips));
+				Bench.measure("assaultParty.step size=" + partySize + " agility=2..6", 500, trips -> crawlSteps(mixed, trips));
+			}
+			if (Bench.selected(args, "assaultParty.trip")) {
+				Bench.measure("assaultParty.trip size=" + partySize + " agility=2", 500, trips -> crawlTrips(slow, trips));
+				Bench.measure("assaultParty.trip size=" + partySize + " agility=6", 500, trips -> crawlTrips(fast, trips));
+				Bench.measure("assaultParty.trip size=" + partySize + " agility=2..6", 500, trips -> crawlTrips(mixed, trips));
+			}
+			if (Bench.selected(args, "collectionSite")) {
+				Bench.measure("collectionSite.handoff size=" + partySize, 20_000, canvases -> handOff(partySize, canvases, false));
+				Bench.measure("collectionSite.batch size=" + partySize, 20_000, canvases -> handOff(partySize, canvases, true));
+			}
+			if (Bench.selected(args, "concentrationSite"))
+				Bench.measure("concentrationSite.rendezvous size=" + partySize, 20_000, parties -> sendParties(partySize, parties));
+		}
+	}
+
+	/**
+	 * The agilities of a party, spread evenly between a minimum and a maximum
+	 *
+	 * @param partySize the number of thieves of the party
+	 * @param min       the agility of the first thief
+	 * @param max       the agility of the last thief
+	 * @return the agility of each thief
+	 */
+	private static int[] agilities(int partySize, int min, int max) {
+		final int[] agilities = new int[partySize];
+		for (int i = 0; i < partySize; i++)
+			agilities[i] = partySize == 1 ? min : min + (max - min) * i / (partySize - 1);
+		return agilities;
+	}
+
+	/**
+	 * A party crawls to the room and back the given number of times, with a remote call per step.
+	 * A thief yields after each step, as a remote client would give way to the others during the round trip of its call,
+	 * otherwise a thief that cannot move keeps the lock to itself.
+	 * One operation is a round trip of the whole party
+	 *
+	 * @param agilities the agility of each thief of the party
+	 * @param trips     the number of round trips
+	 * @throws Exception when a thief fails
+	 */
+	private static void crawlSteps(int[] agilities, int trips) throws Exception {
+		final AssaultParty party = new AssaultParty(0, agilities.length, MAX_SEPARATION, LOGGER, LOGGER);
+		party.setRoom(0, ROOM_DISTANCE);
+		final Bench.Task[] thieves = new Bench.Task[agilities.length];
+		for (int i = 0; i < thieves.length; i++) {
+			final int id = i;
+			thieves[i] = () -> {
+				long steps = 0;
+				for (int trip = 0; trip < trips; trip++) {
+					while (party.crawlIn(agilities[id], id, id)) {
+						steps++;
+						Thread.yield();
+					}
+					party.reverseDirection(id);
+					while (party.crawlOut(agilities[id], id)) {
+						steps++;
+						Thread.yield();
+					}
+				}
+				Bench.sink += steps;
+			};
+		}
+		Bench.runAll(thieves);
+	}
+
+	/**
+	 * A party crawls to the room and back the given number of times, with a remote call per trip.
+	 * One operation is a round trip of the whole party
+	 *
+	 * @param agilities the agility of each thief of the party
+	 * @param trips     the number of round trips
+	 * @throws Exception when a thief fails
+	 */
+	private static void crawlTrips(int[] agilities, int trips) throws Exception {
+		final AssaultParty party = new AssaultParty(0, agilities.length, MAX_SEPARATION, LOGGER, LOGGER);
+		party.setRoom(0, ROOM_DISTANCE);
+		final Bench.Task[] thieves = new Bench.Task[agilities.length];
+		for (int i = 0; i < thieves.length; i++) {
+			final int id = i;
+			thieves[i] = () -> {
+				for (int trip = 0; trip < trips; trip++) {
+					party.crawlToRoom(agilities[id], id, id);
+					party.reverseDirection(id);
+					party.crawlToSite(agilities[id], id);
+				}
+			};
+		}
+		Bench.runAll(thieves);
+	}
+
+	/**
+	 * The thieves of a party hand their canvases to the master thief and wait to be sent again, round after round.
+	 * One operation is a canvas handed and collected
+	 *
+	 * @param partySize the number of thieves of the party
+	 * @param canvases  the number of canvases, rounded down to a multiple of the party size
+	 * @param batch     whether the master collects the canvases of the whole party at once
+	 * @throws Exception when a thief or the master thief fails
+	 */
+	private static void handOff(int partySize, int canvases, boolean batch) throws Exception {
+		final int rounds = canvases / partySize;
+		final CollectionSite site = new CollectionSite(LOGGER, LOGGER, 1, new int[]{partySize}, 1, partySize, batch);
+		final CyclicBarrier roundEnd = new CyclicBarrier(partySize);
+		final Bench.Task[] tasks = new Bench.Task[partySize + 1];
+		for (int i = 0; i < partySize; i++) {
+			final int id = i;
+			tasks[i] = () -> {
+				for (int round = 0; round < rounds; round++) {
+					while (!site.isMasterResting())
+						Thread.yield();
+					site.handACanvas(id, 0, 1, id, 0);
+					site.amINeeded(0, 0);
+					roundEnd.await();
+				}
+			};
+		}
+		tasks[partySize] = () -> {
+			for (int round = 0; round < rounds; round++) {
+				for (int i = 0; i < (batch ? 1 : partySize); i++) {
+					site.takeARest();
+					site.collectACanvas();
+				}
+				while (!site.prepareAssaultParty())
+					Thread.yield();
+			}
+		};
+		Bench.runAll(tasks);
+	}
+
+	/**
+	 * The master thief sends a party, round after round.
+	 * One operation is a party sent
+	 *
+	 * @param partySize the number of thieves of the party
+	 * @param parties   the number of parties sent
+	 * @throws Exception when a thief or the master thief fails
+	 */
+	private static void sendParties(int partySize, int parties) throws Exception {
+		final ConcentrationSite site = new ConcentrationSite(LOGGER, LOGGER, partySize, RoomAssignment.SEQUENTIAL, () -> null);
+		final CyclicBarrier roundEnd = new CyclicBarrier(partySize + 1);
+		final Bench.Task[] tasks = new Bench.Task[partySize + 1];
+		for (int i = 0; i < partySize; i++) {
+			tasks[i] = () -> {
+				for (int round = 0; round < parties; round++) {
+					site.prepareExcursion(false);
+					roundEnd.await();
+				}
+			};
+		}
+		tasks[partySize] = () -> {
+			for (int round = 0; round < parties; round++) {
+				site.sendAssaultParty();
+				roundEnd.await();
+			}
+		};
+		Bench.runAll(tasks);
+	}
+}
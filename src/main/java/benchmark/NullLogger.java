@@ -0,0 +1,150 @@
+package benchmark;
+
+import logger.IConcurrentLogger;
+import logger.ILogSink;
+
+/**
+ * A logger that discards every event, so the monitors can be measured on their own
+ */
+class NullLogger implements IConcurrentLogger, ILogSink {
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void header() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setupRooms(int[] roomDistance, int[] roomCanvas) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setAgility(int id, int agility) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void masterDecidingWhatToDo() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void takeRest() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sumUpResults(int paintings) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void atControl(int thief) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rob(int thief, int roomID, int thiefIdInAssaultParty, int partyId) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void handCanvas(int thiefIdInAssaultParty, int partyId) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlIn(int thief) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlOut(int thief) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void preparingAssaultParty() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRoom(int partyId, int roomId) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDistance(int partyId, int thiefIdInAssaultParty, int distance) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void atRoom(int thief) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int openBatchSource() {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void logBatch(int source, long firstSeq, int[] events) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void flush() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void waitUntilCompletion() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() {
+	}
+}
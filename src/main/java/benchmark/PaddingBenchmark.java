@@ -0,0 +1,143 @@
+package benchmark;
+
+import logger.LoggerStatus;
+import logger.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the garbage produced per log entry by the padding of its cells.
+ * <p>
+ * Padding is built in three ways, for the cells of an entry of the default simulation:
+ * the stream based implementation StringUtils used to have, the precomputed runs returned by {@link StringUtils#nChars(char, int)}
+ * and the runs written straight into a reusable builder by {@link StringUtils#appendChars(StringBuilder, char, int)}.
+ * The whole entry, as rendered by the logger, is measured as well.
+ * <p>
+ * Allocations are read from the HotSpot thread allocation counter, so this has to run on a HotSpot JVM.
+ * Usage: benchmark.PaddingBenchmark [entries per round] [spaces between values]
+ */
+public class PaddingBenchmark {
+	/**
+	 * Number of warm up rounds, so the measured rounds run compiled code
+	 */
+	private static final int WARM_UP_ROUNDS = 5;
+
+	/**
+	 * The HotSpot thread bean, to read allocated bytes
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Prevents the JIT from discarding the measured work
+	 */
+	private static long sink;
+
+	/**
+	 * A way of padding a cell
+	 */
+	private interface Padder {
+		/**
+		 * Appends n spaces to a builder
+		 *
+		 * @param sb the builder
+		 * @param n  the number of spaces
+		 */
+		void pad(StringBuilder sb, int n);
+	}
+
+	/**
+	 * Runs the benchmark
+	 *
+	 * @param args the number of entries per round and the number of spaces between values
+	 */
+	public static void main(String[] args) {
+		final int entries = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		final int nEmptyChars = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		final int[] widths = paddingWidths(6, new int[]{3, 3}, 5, nEmptyChars);
+
+		System.out.printf("%d padded cells per entry, %d entries per round%n", widths.length, entries);
+		report("stream padding (before)", entries, widths, (sb, n) -> sb.append(legacyNChars(' ', n)));
+		report("nChars (precomputed)", entries, widths, (sb, n) -> sb.append(StringUtils.nChars(' ', n)));
+		report("appendChars (builder)", entries, widths, (sb, n) -> StringUtils.appendChars(sb, ' ', n));
+
+		final LoggerStatus status = LoggerStatus.initial(6, new int[]{3, 3}, 5);
+		final StringBuilder sb = new StringBuilder();
+		long bytes = 0;
+		for (int round = 0; round <= WARM_UP_ROUNDS; round++) {
+			final long before = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+			for (int i = 0; i < entries; i++) {
+				sb.setLength(0);
+				status.setMasterStatus(i % 2 == 0 ? 'P' : 'D');
+				sb.append(status.getMessage(nEmptyChars, false));
+				sink += sb.length();
+			}
+			bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		}
+		System.out.printf("%-26s %10.1f bytes per entry%n", "whole entry (row buffer)", (double) bytes / entries);
+		if (sink == 42)
+			System.out.println();
+	}
+
+	/**
+	 * Pads every cell of an entry, round after round, and prints the bytes allocated per entry in the last round
+	 *
+	 * @param name    the name of the padding implementation
+	 * @param entries the number of entries per round
+	 * @param widths  the padding of each cell of an entry
+	 * @param padder  the padding implementation
+	 */
+	private static void report(String name, int entries, int[] widths, Padder padder) {
+		final StringBuilder sb = new StringBuilder();
+		long bytes = 0;
+		for (int round = 0; round <= WARM_UP_ROUNDS; round++) {
+			final long before = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+			for (int i = 0; i < entries; i++) {
+				sb.setLength(0);
+				for (int width : widths)
+					padder.pad(sb, width);
+				sink += sb.length();
+			}
+			bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		}
+		System.out.printf("%-26s %10.1f bytes per entry%n", name, (double) bytes / entries);
+	}
+
+	/**
+	 * The padding of each cell of an entry, in the order the logger renders them
+	 *
+	 * @param nThieves    the number of thieves
+	 * @param partySizes  the number of elements of each assault party
+	 * @param nRooms      the number of rooms
+	 * @param nEmptyChars the number of spaces between values
+	 * @return the number of spaces of each padding
+	 */
+	private static int[] paddingWidths(int nThieves, int[] partySizes, int nRooms, int nEmptyChars) {
+		final IntStream.Builder widths = IntStream.builder();
+		widths.add(nEmptyChars);
+		for (int i = 0; i < nThieves; i++)
+			widths.add(nEmptyChars).add(nEmptyChars).add(nEmptyChars);
+		for (int partySize : partySizes) {
+			widths.add(nEmptyChars + 1);
+			for (int i = 0; i < partySize; i++)
+				widths.add(nEmptyChars).add(nEmptyChars).add(nEmptyChars);
+		}
+		for (int i = 0; i < nRooms; i++)
+			widths.add(nEmptyChars).add(nEmptyChars);
+		return widths.build().toArray();
+	}
+
+	/**
+	 * The implementation StringUtils#nChars had before the padding table
+	 *
+	 * @param c The character to be repeated
+	 * @param n The number of times to repeat it
+	 * @return The character repeated n times
+	 */
+	private static String legacyNChars(char c, int n) {
+		return IntStream.range(0, n)
+				.mapToObj(i -> String.valueOf(c))
+				.collect(Collectors.joining());
+	}
+}
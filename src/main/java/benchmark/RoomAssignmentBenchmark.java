@@ -0,0 +1,54 @@
+package benchmark;
+
+import SimulationDefaults.SimulationDefaults;
+import concentrationSite.RoomAssignment;
+import standalone.InProcessHeist;
+
+/**
+ * Compares the room assignment policies, running whole heists in a single process.
+ * <p>
+ * For each policy it reports the mean, over several heists, of the total distance crawled by the thieves,
+ * of the distance crawled by the busiest assault party, which bounds how long the heist takes since the parties crawl in parallel,
+ * and of the wall time. Every heist has a new random museum, so the heists of each policy are averaged over the same kind of museums.
+ * <p>
+ * The configuration is loaded as by the servers, so the museum can be made larger with e.g. -Dsimulation.numberOfRooms=50.
+ * The number of heists of each policy can be changed with the bench.heists system property.
+ * <p>
+ * Usage: benchmark.RoomAssignmentBenchmark [names of the policies to run]
+ */
+public class RoomAssignmentBenchmark {
+	/**
+	 * Number of heists of each policy
+	 */
+	private static final int HEISTS = Integer.getInteger("bench.heists", 20);
+
+	/**
+	 * Runs the benchmark
+	 *
+	 * @param args the names of the policies to run, or nothing to run them all
+	 * @throws Exception when a heist fails
+	 */
+	public static void main(String[] args) throws Exception {
+		final SimulationDefaults base = SimulationDefaults.load();
+		System.out.printf("%-24s %16s %16s %12s%n", "Policy", "Total distance", "Busiest party", "Wall ms");
+		for (RoomAssignment policy : RoomAssignment.values()) {
+			if (!Bench.selected(args, policy.name()))
+				continue;
+			final SimulationDefaults params = base.toBuilder().roomAssignment(policy).build();
+
+			long total = 0;
+			long busiest = 0;
+			long nanos = 0;
+			for (int heist = 0; heist < HEISTS; heist++) {
+				final DistanceLogger logger = new DistanceLogger(params.getNumberOfAssaultParties(), params.getAssaultPartySize());
+				final long start = System.nanoTime();
+				new InProcessHeist(params).run(logger);
+				nanos += System.nanoTime() - start;
+				total += logger.getTotalDistance();
+				busiest += logger.getLongestPartyDistance();
+			}
+			System.out.printf("%-24s %16.1f %16.1f %12.1f%n", policy,
+					(double) total / HEISTS, (double) busiest / HEISTS, nanos / 1e6 / HEISTS);
+		}
+	}
+}
@@ -0,0 +1,482 @@
+package benchmark;
+
+import Register.RMIUtils;
+import Register.RegisterRemoteObject;
+import SimulationDefaults.SimulationDefaults;
+import logger.LogEventType;
+import standalone.InProcessHeist;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the distributed simulation over a grid of configurations and records how each run performed.
+ * <p>
+ * Every run is a full local deployment: the registry and the register object live in this process,
+ * and the logger, the sites, the assault parties, the museum, the thieves and the master are started as separate JVMs,
+ * in their own directory, sharing a generated {@code simulation.properties}.
+ * For each run the wall time from the start of the thieves until every process exits is recorded,
+ * along with the number of remote calls served (counted from {@code java.rmi.server.logCalls})
+ * and the number of entries logged.
+ * A run is recorded as failed when one of its processes exits with an error or its log does not end with the results,
+ * and as timeout when it does not end in time.
+ * <p>
+ * With {@code -Dsweep.inProcess=true} every run is an {@link InProcessHeist} instead, as a baseline without RMI.
+ * <p>
+ * Usage: benchmark.SweepRunner &lt;results.csv&gt; &lt;java.policy&gt; name=value,value... [name=value,value...]
+ * <p>
+ * The names are the ones of {@code simulation.properties}; values missing from the grid are loaded as usual
+ * (see {@link SimulationDefaults#load()}). {@code numberOfThieves} may be swept on its own, in which case
+ * the number of assault parties follows it. Runs are configured through the system properties
+ * {@code sweep.dir} (default: ./sweep), {@code sweep.port} (first port used, default: 50100)
+ * and {@code sweep.timeout} (seconds, default: 300).
+ */
+public class SweepRunner {
+	/**
+	 * The host every process runs on
+	 */
+	private static final String HOST = "localhost";
+	/**
+	 * Prefix of the lines java.rmi.server.logCalls writes for each remote call
+	 */
+	private static final String CALL_LOG_PREFIX = "FINER: RMI ";
+	/**
+	 * Start of the last entry of the log of a run that got to its end
+	 */
+	private static final String RESULTS_PREFIX = "My friends, tonight's effort produced";
+
+	/**
+	 * The configuration every run starts from
+	 */
+	private final SimulationDefaults base;
+	/**
+	 * The values of each swept property, in the order given
+	 */
+	private final Map<String, String[]> grid;
+	/**
+	 * The java.policy every server runs under
+	 */
+	private final File policy;
+	/**
+	 * The directory where each run gets its own directory
+	 */
+	private final File sweepDir;
+	/**
+	 * The registry port, the servers listen on the following ones
+	 */
+	private final int registryPort;
+	/**
+	 * Maximum time in seconds a run can take
+	 */
+	private final int timeout;
+	/**
+	 * Whether to run the simulations in this process, without RMI
+	 */
+	private final boolean inProcess;
+	/**
+	 * The registry shared by every run
+	 */
+	private Registry registry;
+	/**
+	 * The register object shared by every run, whose directory the runs' clients wait in for the servers
+	 */
+	private RegisterRemoteObject register;
+
+	/**
+	 * Creates the runner
+	 *
+	 * @param base         The configuration every run starts from
+	 * @param grid         The values of each swept property
+	 * @param policy       The java.policy every server runs under
+	 * @param sweepDir     The directory where each run gets its own directory
+	 * @param registryPort The registry port, the servers listen on the following ones
+	 * @param timeout      Maximum time in seconds a run can take
+	 * @param inProcess    Whether to run the simulations in this process, without RMI
+	 */
+	public SweepRunner(SimulationDefaults base, Map<String, String[]> grid, File policy, File sweepDir, int registryPort, int timeout, boolean inProcess) {
+		this.base = base;
+		this.grid = grid;
+		this.policy = policy;
+		this.sweepDir = sweepDir;
+		this.registryPort = registryPort;
+		this.timeout = timeout;
+		this.inProcess = inProcess;
+	}
+
+	/**
+	 * Runs the sweep given in the arguments
+	 *
+	 * @param args the results file, the java.policy and the grid
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.err.println("SweepRunner- Please provide the results file, the java.policy and at least one name=value,value...");
+			return;
+		}
+
+		final SimulationDefaults base;
+		try {
+			base = SimulationDefaults.load();
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("SweepRunner- Could not load the simulation configuration: " + e.getMessage());
+			return;
+		}
+
+		final Map<String, String[]> grid = new LinkedHashMap<>();
+		for (int i = 2; i < args.length; i++) {
+			final int eq = args[i].indexOf('=');
+			if (eq <= 0 || !base.toProperties().containsKey(args[i].substring(0, eq))) {
+				System.err.println("SweepRunner- Unknown property: " + args[i]);
+				return;
+			}
+			grid.put(args[i].substring(0, eq), args[i].substring(eq + 1).split(","));
+		}
+
+		final SweepRunner runner = new SweepRunner(
+				base,
+				grid,
+				new File(args[1]).getAbsoluteFile(),
+				new File(System.getProperty("sweep.dir", "./sweep")).getAbsoluteFile(),
+				Integer.getInteger("sweep.port", 50100),
+				Integer.getInteger("sweep.timeout", 300),
+				Boolean.getBoolean("sweep.inProcess")
+		);
+		try {
+			runner.run(new File(args[0]));
+		} catch (IOException | InterruptedException e) {
+			System.err.println("SweepRunner- " + e);
+			e.printStackTrace();
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Runs every configuration of the grid, writing one line of results per run
+	 *
+	 * @param results The file to write the results to, as CSV
+	 * @throws IOException          when the results or a run's files cannot be written
+	 * @throws InterruptedException when interrupted while waiting for a run
+	 */
+	public void run(File results) throws IOException, InterruptedException {
+		register = new RegisterRemoteObject(HOST, registryPort);
+		if (!inProcess) {
+			registry = LocateRegistry.createRegistry(registryPort);
+			registry.rebind(RMIUtils.REGISTER_NAME, UnicastRemoteObject.exportObject(register, 0));
+		}
+
+		final String[] names = grid.keySet().toArray(new String[0]);
+		final int[] index = new int[names.length];
+		int nRuns = 1;
+		for (String[] values : grid.values())
+			nRuns *= values.length;
+
+		try (PrintWriter out = new PrintWriter(new FileWriter(results))) {
+			out.println(String.join(",", names) + ",status,wallMs,rmiCalls,events,eventsPerSecond");
+			for (int run = 0; run < nRuns; run++) {
+				final Properties properties = base.toProperties();
+				final StringBuilder line = new StringBuilder();
+				for (int i = 0; i < names.length; i++) {
+					final String value = grid.get(names[i])[index[i]].trim();
+					properties.setProperty(names[i], value);
+					line.append(value).append(',');
+				}
+				if (grid.containsKey("numberOfThieves") && !grid.containsKey("numberOfAssaultParties")) {
+					final int partySize = Integer.parseInt(properties.getProperty("assaultPartySize"));
+					final int nThieves = Integer.parseInt(properties.getProperty("numberOfThieves"));
+					properties.setProperty("numberOfAssaultParties", String.valueOf((nThieves + partySize - 1) / partySize));
+				}
+
+				System.out.printf("Run %d/%d: %s%n", run + 1, nRuns, line);
+				out.println(line.append(runOnce(run, properties)));
+				out.flush();
+
+				for (int i = names.length - 1; i >= 0; i--) {
+					if (++index[i] < grid.get(names[i]).length)
+						break;
+					index[i] = 0;
+				}
+			}
+		} finally {
+			if (!inProcess) {
+				UnicastRemoteObject.unexportObject(register, true);
+				UnicastRemoteObject.unexportObject(registry, true);
+			}
+		}
+	}
+
+	/**
+	 * Deploys and runs the simulation once
+	 *
+	 * @param run        The number of the run
+	 * @param properties The configuration of the run
+	 * @return The results of the run: status, wall time, remote calls, events logged and events per second
+	 * @throws IOException          when the run's files cannot be written
+	 * @throws InterruptedException when interrupted while waiting for the run
+	 */
+	private String runOnce(int run, Properties properties) throws IOException, InterruptedException {
+		final SimulationDefaults params;
+		try {
+			params = SimulationDefaults.fromProperties(properties);
+		} catch (IllegalArgumentException e) {
+			return "invalid,,,,";
+		}
+		if (!params.isTopologyComplete())
+			return "invalid,,,,";
+
+		final File runDir = new File(sweepDir, "run-" + run);
+		if (!runDir.isDirectory() && !runDir.mkdirs())
+			throw new IOException("Could not create " + runDir);
+		if (inProcess)
+			return runInProcess(runDir, properties);
+
+		final File config = new File(runDir, "simulation.properties");
+		try (FileWriter writer = new FileWriter(config)) {
+			properties.store(writer, "Sweep run " + run);
+		}
+
+		final List<Process> processes = new ArrayList<>();
+		int port = registryPort;
+		try {
+			processes.add(launch(runDir, config, "logger", "logger.Main", ++port, HOST, registryPort));
+			awaitBound(1);
+			for (int i = 0; i < params.getNumberOfAssaultParties(); i++)
+				processes.add(launch(runDir, config, "assaultParty" + i, "assaultParty.Main", ++port, i, HOST, registryPort));
+			processes.add(launch(runDir, config, "concentrationSite", "concentrationSite.Main", ++port, HOST, registryPort));
+			processes.add(launch(runDir, config, "collectionSite", "collectionSite.Main", ++port, HOST, registryPort));
+			awaitBound(3 + params.getNumberOfAssaultParties());
+			processes.add(launch(runDir, config, "museum", "museum.Main", ++port, HOST, registryPort));
+			awaitBound(4 + params.getNumberOfAssaultParties());
+
+			final long start = System.nanoTime();
+			processes.add(launch(runDir, config, "thief", "thief.Main", HOST, registryPort));
+			processes.add(launch(runDir, config, "masterThief", "masterThief.Main", HOST, registryPort));
+			final long deadline = start + TimeUnit.SECONDS.toNanos(timeout);
+			for (Process process : processes) {
+				if (!process.waitFor(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS))
+					return "timeout,,,,";
+			}
+			final long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			/* a process that died, or gave up waiting for the others, must not pass for a short run */
+			for (Process process : processes) {
+				if (process.exitValue() != 0)
+					return "failed,,,,";
+			}
+			if (!isCompleted(runDir, params))
+				return "failed,,,,";
+
+			final long rmiCalls = countCalls(runDir);
+			final long events = countEvents(runDir, params);
+			return String.format("ok,%d,%d,%d,%.1f", wallMs, rmiCalls, events, events * 1000.0 / Math.max(wallMs, 1));
+		} finally {
+			for (Process process : processes)
+				process.destroyForcibly();
+			/* through the register object, so the next run's clients do not find this run's objects in its directory */
+			for (String name : registry.list()) {
+				if (!RMIUtils.REGISTER_NAME.equals(name)) {
+					try {
+						register.unbind(name);
+					} catch (NotBoundException ignored) {
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the simulation once in this process, with its log in the run's directory
+	 *
+	 * @param runDir     The run's directory
+	 * @param properties The configuration of the run
+	 * @return The results of the run: status, wall time, remote calls, events logged and events per second
+	 * @throws IOException          when the log cannot be written
+	 * @throws InterruptedException when interrupted while waiting for the run
+	 */
+	private static String runInProcess(File runDir, Properties properties) throws IOException, InterruptedException {
+		final SimulationDefaults configured = SimulationDefaults.fromProperties(properties);
+		properties.setProperty("logFilePath", new File(runDir, configured.getLogFilePath()).getPath());
+		properties.setProperty("binaryLogFilePath", new File(runDir, configured.getBinaryLogFilePath()).getPath());
+		final SimulationDefaults params = SimulationDefaults.fromProperties(properties);
+
+		final long start = System.nanoTime();
+		new InProcessHeist(params).run();
+		final long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		if (!isCompleted(runDir, params))
+			return "failed,,,,";
+
+		final long events = countEvents(runDir, params);
+		return String.format("ok,%d,%d,%d,%.1f", wallMs, 0, events, events * 1000.0 / Math.max(wallMs, 1));
+	}
+
+	/**
+	 * Starts one of the simulation's processes, with its output in the run's directory
+	 *
+	 * @param runDir    The run's directory, also the process' working directory
+	 * @param config    The run's configuration file
+	 * @param name      The name of the process' output files
+	 * @param mainClass The process' entry point
+	 * @param args      The process' arguments
+	 * @return The process
+	 * @throws IOException when the process cannot be started
+	 */
+	private Process launch(File runDir, File config, String name, String mainClass, Object... args) throws IOException {
+		final List<String> command = new ArrayList<>(Arrays.asList(
+				new File(System.getProperty("java.home"), "bin/java").getPath(),
+				"-cp", System.getProperty("java.class.path"),
+				"-Djava.security.policy=" + policy.getPath(),
+				"-Djava.rmi.server.useCodebaseOnly=true",
+				"-Djava.rmi.server.logCalls=true",
+				"-D" + SimulationDefaults.CONFIG_FILE_PROPERTY + "=" + config.getPath(),
+				mainClass
+		));
+		for (Object arg : args)
+			command.add(String.valueOf(arg));
+		return new ProcessBuilder(command)
+				.directory(runDir)
+				.redirectOutput(new File(runDir, name + ".out"))
+				.redirectError(new File(runDir, name + ".err"))
+				.start();
+	}
+
+	/**
+	 * Waits until the given number of objects, besides the register object, is bound in the registry
+	 *
+	 * @param nBound The number of objects
+	 * @throws RemoteException      when the registry cannot be listed
+	 * @throws InterruptedException when interrupted while waiting
+	 */
+	private void awaitBound(int nBound) throws RemoteException, InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+		while (registry.list().length - 1 < nBound) {
+			if (System.nanoTime() > deadline)
+				throw new RemoteException("Timed out waiting for the servers to register");
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * Counts the remote calls served in a run, from the call logs of its processes
+	 *
+	 * @param runDir The run's directory
+	 * @return The number of remote calls
+	 * @throws IOException when the logs cannot be read
+	 */
+	private static long countCalls(File runDir) throws IOException {
+		long calls = 0;
+		final File[] logs = runDir.listFiles((dir, name) -> name.endsWith(".err"));
+		if (logs == null)
+			return 0;
+		for (File log : logs) {
+			try (BufferedReader reader = new BufferedReader(new FileReader(log))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith(CALL_LOG_PREFIX))
+						calls++;
+				}
+			}
+		}
+		return calls;
+	}
+
+	/**
+	 * Counts the entries logged in a run, or the events recorded in binary mode, the setup and the results line excluded.
+	 * Every event but the setup logs exactly one entry, so both modes count the same
+	 *
+	 * @param runDir The run's directory
+	 * @param params The run's configuration
+	 * @return The number of events
+	 * @throws IOException when the log cannot be read
+	 */
+	private static long countEvents(File runDir, SimulationDefaults params) throws IOException {
+		if (params.isBinaryLogger()) {
+			final int headerBytes = Integer.BYTES * (7 + params.getNumberOfAssaultParties());
+			final int argumentBytes = LogEventType.ARITY * Integer.BYTES;
+			long events = 0;
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(resolve(runDir, params.getBinaryLogFilePath()))))) {
+				in.skipBytes(headerBytes);
+				for (int type; (type = in.read()) >= 0; ) {
+					in.skipBytes(argumentBytes);
+					switch (LogEventType.fromOrdinal(type)) {
+						case HEADER:
+						case SETUP_ROOMS:
+						case SET_AGILITY:
+							break;
+						default:
+							events++;
+					}
+				}
+			}
+			return events;
+		}
+		long lines = 0;
+		try (BufferedReader reader = new BufferedReader(new FileReader(resolve(runDir, params.getLogFilePath())))) {
+			while (reader.readLine() != null)
+				lines++;
+		}
+		return params.isBreakLogger() ? (lines - 1) / 2 : lines - 1;
+	}
+
+	/**
+	 * Whether a run's log ends with the results of the heist, that is, whether the simulation got to its end
+	 *
+	 * @param runDir The run's directory
+	 * @param params The run's configuration
+	 * @return true if the last entry, or the last event recorded in binary mode, presents the results
+	 * @throws IOException when the log cannot be read
+	 */
+	private static boolean isCompleted(File runDir, SimulationDefaults params) throws IOException {
+		if (params.isBinaryLogger()) {
+			final File log = resolve(runDir, params.getBinaryLogFilePath());
+			final long recordBytes = 1 + 4 * Integer.BYTES;
+			if (!log.isFile() || log.length() < recordBytes)
+				return false;
+			try (RandomAccessFile file = new RandomAccessFile(log, "r")) {
+				file.seek(log.length() - recordBytes);
+				return file.read() == LogEventType.SUM_UP_RESULTS.ordinal();
+			}
+		}
+		final File log = resolve(runDir, params.getLogFilePath());
+		if (!log.isFile())
+			return false;
+		String last = null;
+		try (BufferedReader reader = new BufferedReader(new FileReader(log))) {
+			for (String line; (line = reader.readLine()) != null; ) {
+				if (!line.trim().isEmpty())
+					last = line;
+			}
+		}
+		return last != null && last.startsWith(RESULTS_PREFIX);
+	}
+
+	/**
+	 * Resolves a path against the run's directory, unless it is absolute
+	 *
+	 * @param runDir The run's directory
+	 * @param path   The path
+	 * @return The file
+	 */
+	private static File resolve(File runDir, String path) {
+		final File file = new File(path);
+		return file.isAbsolute() ? file : new File(runDir, path);
+	}
+}
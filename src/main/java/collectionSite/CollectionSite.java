@@ -1,54 +1,66 @@
 package collectionSite;
 
 
+import instrumentation.Instrumentation;
 import logger.IConcurrentLogger;
+import logger.ILogSink;
+import threads.Completions;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@inheritDoc}
  */
-public class CollectionSite implements ICollectionSite {
+public class CollectionSite implements ICollectionSite, ICollectionSiteAsync {
 
 	/**
 	 * The logger
 	 */
 	private final IConcurrentLogger logger;
+	/**
+	 * Where the events logged by this monitor wait to be shipped to the logger
+	 */
+	private final ILogSink sink;
 	/**
 	 * The mutex's lock
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock lock = Instrumentation.newLock(CollectionSite.class);
 	/**
 	 * The condition signaled when a thief wants to deliver a canvas to the master
 	 */
 	private final Condition handACanvas = lock.newCondition();
 	/**
-	 * The condition signaled when the master wants to collect a canvas from the thieves
+	 * The thieves that handed a canvas, completed when the master collects the canvas waiting to be delivered
 	 */
-	private final Condition collectACanvas = lock.newCondition();
+	private final List<CompletableFuture<Void>> deliveries = new ArrayList<>();
 	/**
 	 * Master thief waits for thief arrival
 	 */
 	private final Condition thiefArrival = lock.newCondition();
 	/**
-	 * Thieves wait for the master to request their departure
+	 * The thieves waiting for the master to request their departure, completed when it does or ends the heist.
+	 * The index of the list is the identifier of the assault party
 	 */
-	private final Condition[] prepareAssaultParty;
+	private final List<List<CompletableFuture<boolean[]>>> prepareAssaultParty;
 	/**
 	 * Master waits for thieves in the first cycle
 	 */
 	private final Condition masterWait = lock.newCondition();
 	/**
-	 * /**
-	 * Painting delivery queue.
-	 * The array is structured as follows: [thiefId, roomId, numberOFCanvasStolen]
+	 * Painting delivery queue
 	 */
-	private final Queue<int[]> paintings = new LinkedList<>();
+	private final DeliveryQueue paintings;
+	/**
+	 * Collects a delivery removed from the queue.
+	 * Kept in a field so collecting does not allocate
+	 */
+	private final DeliveryQueue.Consumer collector = this::collect;
 	/**
 	 * Total number of assault parties
 	 */
@@ -61,6 +73,10 @@ public class CollectionSite implements ICollectionSite {
 	 * Rooms with canvas. The index of the array is the room identifier
 	 */
 	private final boolean[] roomHasCanvas;
+	/**
+	 * Number of rooms still marked with canvas in roomHasCanvas, so the end of the heist is known without scanning it
+	 */
+	private int roomsWithCanvas;
 	/**
 	 * Whether there are elements of the assault party crawling or not
 	 * The index in the array is the identifier of the assault party
@@ -93,10 +109,6 @@ public class CollectionSite implements ICollectionSite {
 	 * Whether the master thief can receive a canvas
 	 */
 	private boolean handACanvasHold;
-	/**
-	 * Whether the master thief can collect a canvas
-	 */
-	private boolean collectACanvasHold;
 	/**
 	 * Total number of canvas that were collected
 	 */
@@ -106,9 +118,22 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	private boolean masterTakingARest;
 	/**
-	 * Whether there are thieves with canvas to deliver
+	 * Number of thieves whose canvas was collected and have not yet reached the concentration site
 	 */
-	private boolean thiefWithCanvasToDeliver;
+	private int thievesToArrive;
+	/**
+	 * Whether the master collects every waiting canvas each time it wakes up, instead of one
+	 */
+	private final boolean batchCollection;
+	/**
+	 * Number of thieves of each assault party that handed a canvas since the whole party last did.
+	 * The index in the array is the identifier of the assault party
+	 */
+	private final int[] partyDeliveries;
+	/**
+	 * Number of assault parties whose thieves all handed a canvas since the master last collected
+	 */
+	private int partiesDelivered;
 	/**
 	 * Number of thieves in the collection site
 	 */
@@ -127,24 +152,31 @@ public class CollectionSite implements ICollectionSite {
 	 * Creates the collection site
 	 *
 	 * @param logger                 The concurrent logger
+	 * @param sink                   Where the logged events wait to be shipped, flushed before returning to a client
 	 * @param nRooms                 The number of rooms
 	 * @param nThievesPerParty       The number of thieves in each assault party
 	 * @param numberOfAssaultParties The number of assault parties
 	 * @param numberOfThieves        The total number of thieves
+	 * @param batchCollection        Whether the master collects every waiting canvas each time it wakes up, instead of one
 	 * @throws RemoteException when the call to this remote method fails
 	 */
-	public CollectionSite(IConcurrentLogger logger, int nRooms, int[] nThievesPerParty, int numberOfAssaultParties, int numberOfThieves) throws RemoteException {
+	public CollectionSite(IConcurrentLogger logger, ILogSink sink, int nRooms, int[] nThievesPerParty, int numberOfAssaultParties, int numberOfThieves, boolean batchCollection) throws RemoteException {
 		this.logger = logger;
+		this.sink = sink;
 
 		this.numberOfAssaultParties = numberOfAssaultParties;
 		this.numberOfThieves = numberOfThieves;
-		this.prepareAssaultParty = new Condition[numberOfAssaultParties];
-		for (int i = 0; i < this.prepareAssaultParty.length; i++) {
-			this.prepareAssaultParty[i] = lock.newCondition();
+		this.paintings = new DeliveryQueue(numberOfThieves);
+		this.batchCollection = batchCollection;
+		this.partyDeliveries = new int[numberOfAssaultParties];
+		this.prepareAssaultParty = new ArrayList<>(numberOfAssaultParties);
+		for (int i = 0; i < numberOfAssaultParties; i++) {
+			this.prepareAssaultParty.add(new ArrayList<>());
 		}
 
 		this.roomHasCanvas = new boolean[nRooms];
 		Arrays.fill(roomHasCanvas, true);
+		this.roomsWithCanvas = nRooms;
 
 		this.awaitingThieves = new int[numberOfAssaultParties];
 		Arrays.fill(awaitingThieves, 0);
@@ -159,7 +191,7 @@ public class CollectionSite implements ICollectionSite {
 		this.totalCanvasCollected = 0;
 		this.nThievesPerParty = nThievesPerParty;
 		this.masterTakingARest = false;
-		this.thiefWithCanvasToDeliver = false;
+		this.thievesToArrive = 0;
 		this.totalThievesOnSite = 0;
 		this.totalRoomsLeft = nRooms;
 	}
@@ -171,6 +203,7 @@ public class CollectionSite implements ICollectionSite {
 	public void startOperations() throws RemoteException {
 		try {
 			logger.masterDecidingWhatToDo();
+			sink.flush();
 		} catch (RemoteException e) {
 			throw new RuntimeException(e);
 		}
@@ -181,6 +214,16 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	@Override
 	public boolean[] amINeeded(int partyNumber, int roomID) throws RemoteException {
+		return amINeededAsync(partyNumber, roomID).join();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<boolean[]> amINeededAsync(int partyNumber, int roomID) throws RemoteException {
+		final CompletableFuture<boolean[]> needed = new CompletableFuture<>();
+		final Completions released = new Completions();
 		try {
 			lock.lock();
 			if (awaitingThieves[partyNumber] == 0) {
@@ -195,26 +238,51 @@ public class CollectionSite implements ICollectionSite {
 				masterWait.signal();
 			}
 
-			thiefWithCanvasToDeliver = false;
-			thiefArrival.signal();
+			if (thievesToArrive > 0 && --thievesToArrive == 0)
+				thiefArrival.signal();
 			if (roomID != -1) {
 				if (!roomHasCanvas[roomID])
 					getNewRoom[partyNumber] = true;
 			} else {
 				getNewRoom[partyNumber] = true;
 			}
-			while (prepareAssaultPartyHold[partyNumber])
-				prepareAssaultParty[partyNumber].await();
-
-			totalThievesOnSite--;
-
-			return new boolean[]{!end, getNewRoom[partyNumber]};
-
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
+			if (prepareAssaultPartyHold[partyNumber])
+				prepareAssaultParty.get(partyNumber).add(needed);
+			else
+				release(needed, partyNumber, released);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
+		released.complete();
+		return needed;
+	}
+
+	/**
+	 * Lets the thieves of an assault party waiting in amINeeded go.
+	 * Must be called while holding the lock
+	 *
+	 * @param party    the identifier of the assault party
+	 * @param released where the thieves' calls are let go
+	 */
+	private void releaseParty(int party, Completions released) {
+		prepareAssaultPartyHold[party] = false;
+		for (CompletableFuture<boolean[]> needed : prepareAssaultParty.get(party))
+			release(needed, party, released);
+		prepareAssaultParty.get(party).clear();
+	}
+
+	/**
+	 * Lets a thief that called amINeeded go.
+	 * Must be called while holding the lock
+	 *
+	 * @param needed   the thief's call
+	 * @param party    the identifier of its assault party
+	 * @param released where the thief's call is let go
+	 */
+	private void release(CompletableFuture<boolean[]> needed, int party, Completions released) {
+		totalThievesOnSite--;
+		released.add(needed, new boolean[]{!end, getNewRoom[party]});
 	}
 
 	/**
@@ -222,6 +290,8 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	@Override
 	public boolean prepareAssaultParty() throws RemoteException {
+		final Completions released = new Completions();
+		final boolean isOnePartyReady;
 		try {
 			lock.lock();
 			int partyToLeave = -1;
@@ -232,21 +302,19 @@ public class CollectionSite implements ICollectionSite {
 					if (getNewRoom[partyToLeave]) {
 						if (totalRoomsLeft != 0) {
 							totalRoomsLeft--;
-							prepareAssaultPartyHold[partyToLeave] = false;
-							prepareAssaultParty[partyToLeave].signalAll();
+							releaseParty(partyToLeave, released);
 							break;
 						} else {
 							partyToLeave = -1;
 						}
 					} else {
-						prepareAssaultPartyHold[partyToLeave] = false;
-						prepareAssaultParty[partyToLeave].signalAll();
+						releaseParty(partyToLeave, released);
 						break;
 					}
 				}
 			}
 
-			boolean isOnePartyReady = partyToLeave != -1;
+			isOnePartyReady = partyToLeave != -1;
 			if (isOnePartyReady) {
 				try {
 					logger.preparingAssaultParty();
@@ -254,10 +322,12 @@ public class CollectionSite implements ICollectionSite {
 					throw new RuntimeException(e);
 				}
 			}
-			return isOnePartyReady;
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
+		released.complete();
+		return isOnePartyReady;
 	}
 
 	/**
@@ -268,18 +338,25 @@ public class CollectionSite implements ICollectionSite {
 		try {
 			try {
 				logger.takeRest();
+				sink.flush();
 			} catch (RemoteException e) {
 				throw new RuntimeException(e);
 			}
 			lock.lock();
-			handACanvasHold = true;
 			masterTakingARest = true;
-			while (handACanvasHold)
-				handACanvas.await();
+			if (batchCollection) {
+				while (partiesDelivered == 0) // wait for a whole assault party instead of its first thief
+					handACanvas.await();
+			} else {
+				handACanvasHold = true;
+				while (handACanvasHold)
+					handACanvas.await();
+			}
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
 	}
 
@@ -288,6 +365,15 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	@Override
 	public void handACanvas(int thief, int room, int nCanvas, int thiefIdInAssaultParty, int partyId) throws RemoteException {
+		handACanvasAsync(thief, room, nCanvas, thiefIdInAssaultParty, partyId).join();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> handACanvasAsync(int thief, int room, int nCanvas, int thiefIdInAssaultParty, int partyId) throws RemoteException {
+		final CompletableFuture<Void> collected = new CompletableFuture<>();
 		try {
 			lock.lock();
 			try {
@@ -295,19 +381,23 @@ public class CollectionSite implements ICollectionSite {
 			} catch (RemoteException e) {
 				throw new RuntimeException(e);
 			}
-			collectACanvasHold = true;
-			this.paintings.add(new int[]{thief, room, nCanvas});
-			thiefWithCanvasToDeliver = true;
-			handACanvasHold = false;
-			this.handACanvas.signal();
-			while (collectACanvasHold)
-				this.collectACanvas.await();
-
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
+			this.paintings.add(thief, room, nCanvas);
+			if (batchCollection) {
+				if (++partyDeliveries[partyId] == nThievesPerParty[partyId]) {
+					partyDeliveries[partyId] = 0;
+					partiesDelivered++;
+					this.handACanvas.signal();
+				}
+			} else {
+				handACanvasHold = false;
+				this.handACanvas.signal();
+			}
+			deliveries.add(collected);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
+		return collected;
 	}
 
 	/**
@@ -315,26 +405,52 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	@Override
 	public void collectACanvas() throws RemoteException {
+		final Completions released = new Completions();
 		try {
 			lock.lock();
 
-			final int[] canvas = paintings.remove();
-			if (canvas == null)
-				System.exit(2);
-			if (canvas[2] > 0) {
-				totalCanvasCollected += canvas[2];
+			if (batchCollection) {
+				thievesToArrive += paintings.drain(collector);
+				partiesDelivered = 0;
 			} else {
-				roomHasCanvas[canvas[1]] = false;
+				paintings.remove(collector);
+				thievesToArrive++;
 			}
-			collectACanvasHold = false;
-			this.collectACanvas.signal();
+			for (CompletableFuture<Void> collected : deliveries)
+				released.add(collected, null);
+			deliveries.clear();
+		} finally {
+			lock.unlock();
+			sink.flush();
+		}
+		released.complete();
 
-			while (thiefWithCanvasToDeliver)
+		try {
+			lock.lock();
+			while (thievesToArrive > 0)
 				thiefArrival.await();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		} finally {
 			lock.unlock();
+			sink.flush();
+		}
+	}
+
+	/**
+	 * Adds a delivery to the results.
+	 * Must be called while holding the lock
+	 *
+	 * @param thief   the thief's unique identifier
+	 * @param room    the room the thief was in
+	 * @param nCanvas the number of canvas delivered, 0 if the room was empty
+	 */
+	private void collect(int thief, int room, int nCanvas) {
+		if (nCanvas > 0) {
+			totalCanvasCollected += nCanvas;
+		} else if (roomHasCanvas[room]) {
+			roomHasCanvas[room] = false;
+			roomsWithCanvas--;
 		}
 	}
 
@@ -362,6 +478,8 @@ public class CollectionSite implements ICollectionSite {
 	public boolean isMasterResting() throws RemoteException {
 		try {
 			lock.lock();
+			if (batchCollection) // the canvas wait in the queue until the master collects them all
+				return true;
 			if (masterTakingARest) {
 				masterTakingARest = false;
 				return true;
@@ -378,27 +496,24 @@ public class CollectionSite implements ICollectionSite {
 	 */
 	@Override
 	public boolean isEnd() throws RemoteException {
+		final Completions released = new Completions();
 		try {
 			lock.lock();
-			for (boolean hasCanvas : roomHasCanvas)
-				if (hasCanvas) {
-					return false;
-				}
+			if (roomsWithCanvas > 0)
+				return false;
 			if ((totalThievesOnSite == numberOfThieves)) {
 				end = true;
-				int i = 0;
-				for (Condition x : prepareAssaultParty) {
-					prepareAssaultPartyHold[i++] = false;
-					x.signalAll();
-				}
-				return true;
+				for (int party = 0; party < numberOfAssaultParties; party++)
+					releaseParty(party, released);
 			} else {
 				return false;
 			}
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
-
+		released.complete();
+		return true;
 	}
 
 	/**
@@ -416,6 +531,7 @@ public class CollectionSite implements ICollectionSite {
 			e.printStackTrace();
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
 	}
 
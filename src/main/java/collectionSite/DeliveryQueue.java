@@ -0,0 +1,105 @@
+package collectionSite;
+
+/**
+ * The queue of the canvas deliveries waiting for the master, in order of arrival.
+ * <p>
+ * A ring buffer with one array per field of a delivery, sized for every thief to have a delivery pending,
+ * so neither adding nor removing a delivery allocates.
+ * <p>
+ * This class is NOT thread safe, it is only accessed while holding the collection site's lock.
+ */
+class DeliveryQueue {
+	/**
+	 * What is done with each delivery removed from the queue
+	 */
+	interface Consumer {
+		/**
+		 * Handles a delivery
+		 *
+		 * @param thief   the thief's unique identifier
+		 * @param room    the room the thief was in
+		 * @param nCanvas the number of canvas delivered, 0 if the room was empty
+		 */
+		void accept(int thief, int room, int nCanvas);
+	}
+
+	/**
+	 * The thief of each delivery
+	 */
+	private final int[] thieves;
+	/**
+	 * The room of each delivery
+	 */
+	private final int[] rooms;
+	/**
+	 * The number of canvas of each delivery
+	 */
+	private final int[] canvas;
+	/**
+	 * The slot of the oldest delivery
+	 */
+	private int head;
+	/**
+	 * The number of deliveries in the queue
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty queue
+	 *
+	 * @param capacity the maximum number of deliveries pending, the number of thieves
+	 */
+	DeliveryQueue(int capacity) {
+		this.thieves = new int[capacity];
+		this.rooms = new int[capacity];
+		this.canvas = new int[capacity];
+	}
+
+	/**
+	 * Adds a delivery at the end of the queue
+	 *
+	 * @param thief   the thief's unique identifier
+	 * @param room    the room the thief was in
+	 * @param nCanvas the number of canvas delivered, 0 if the room was empty
+	 * @throws IllegalStateException if the queue is full
+	 */
+	void add(int thief, int room, int nCanvas) {
+		if (size == thieves.length)
+			throw new IllegalStateException("More deliveries than thieves");
+		int tail = head + size;
+		if (tail >= thieves.length)
+			tail -= thieves.length;
+		thieves[tail] = thief;
+		rooms[tail] = room;
+		canvas[tail] = nCanvas;
+		size++;
+	}
+
+	/**
+	 * Removes the oldest delivery
+	 *
+	 * @param consumer what is done with it
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	void remove(Consumer consumer) {
+		if (size == 0)
+			throw new IllegalStateException("No canvas to collect");
+		final int slot = head;
+		head = slot + 1 == thieves.length ? 0 : slot + 1;
+		size--;
+		consumer.accept(thieves[slot], rooms[slot], canvas[slot]);
+	}
+
+	/**
+	 * Removes every delivery, oldest first
+	 *
+	 * @param consumer what is done with each one
+	 * @return the number of deliveries removed
+	 */
+	int drain(Consumer consumer) {
+		final int drained = size;
+		while (size > 0)
+			remove(consumer);
+		return drained;
+	}
+}
@@ -36,6 +36,7 @@ public interface ICollectionSite extends Remote, CloseableServer {
 
 	/**
 	 * Master thief takes a rest until the arrival of a thief to the collection site.
+	 * With batch collection, until every thief of an assault party has handed its canvas.
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	void takeARest() throws RemoteException;
@@ -53,7 +54,9 @@ public interface ICollectionSite extends Remote, CloseableServer {
 	void handACanvas(int thief, int room, int nCanvas, int thiefIdInAssaultParty, int partyId) throws RemoteException;
 
 	/**
-	 * Master thief collects what thief had
+	 * Master thief collects what thief had.
+	 * With batch collection, collects what every thief waiting at the collection site had and releases them all at once.
+	 * Returns when the thieves have reached the concentration site
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	void collectACanvas() throws RemoteException;
@@ -67,7 +70,7 @@ public interface ICollectionSite extends Remote, CloseableServer {
 	/**
 	 * Thief verifies if he can handACanvas()
 	 *
-	 * @return true if master is resting or false if master is not resting
+	 * @return true if master is resting or false if master is not resting. Always true with batch collection
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	boolean isMasterResting() throws RemoteException;
@@ -0,0 +1,38 @@
+package collectionSite;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterparts of the rendezvous of the collection site.
+ * <p>
+ * Each method does what its blocking counterpart in {@link ICollectionSite} does, but returns right away,
+ * with a future the monitor completes once the condition its counterpart waits for is satisfied, so no thread is held meanwhile.
+ * The futures may be completed while the monitor's lock is held, so the actions depending on them must not block.
+ * A future cannot be sent through RMI; the binary transport serves the blocking methods with these,
+ * and its clients can call them to send a call without waiting for the previous ones.
+ */
+public interface ICollectionSiteAsync {
+	/**
+	 * Non-blocking {@link ICollectionSite#amINeeded(int, int)}
+	 *
+	 * @param partyNumber the identifier of the thief's assault party
+	 * @param roomID      the id of the room he last went to
+	 * @return completed, as amINeeded returns, when the master sends the thief's assault party or ends the heist
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	CompletableFuture<boolean[]> amINeededAsync(int partyNumber, int roomID) throws RemoteException;
+
+	/**
+	 * Non-blocking {@link ICollectionSite#handACanvas(int, int, int, int, int)}
+	 *
+	 * @param thief                 the thief that hands a canvas
+	 * @param room                  the room it came from
+	 * @param nCanvas               the number of canvas delivered
+	 * @param thiefIdInAssaultParty the thief's identifier in the assault party
+	 * @param partyId               the identifier of the assault party
+	 * @return completed when the master has collected the canvas
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	CompletableFuture<Void> handACanvasAsync(int thief, int room, int nCanvas, int thiefIdInAssaultParty, int partyId) throws RemoteException;
+}
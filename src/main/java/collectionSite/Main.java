@@ -1,14 +1,18 @@
 package collectionSite;
 
 import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+import logger.BatchingLogger;
 import logger.ConcurrentLogger;
 import logger.IConcurrentLogger;
 import Register.RMIUtils;
+import transport.TransportStats;
+import transport.TunedSockets;
 
+import java.io.IOException;
 import java.rmi.AlreadyBoundException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
-import java.util.Arrays;
 
 /**
  * Entry point for the collection site server
@@ -48,6 +52,15 @@ public class Main {
 				return;
 			}
 
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("CollectionSite- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+			Instrumentation.setEnabled(params.isInstrumented());
+
 			/* create and install the security manager */
 
 			if (System.getSecurityManager() == null) System.setSecurityManager(new SecurityManager());
@@ -55,19 +68,27 @@ public class Main {
 
 			/* RMI registry service */
 
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
-			final IConcurrentLogger logger = (IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class);
-
-			final int[] thievesPerParty = new int[SimulationDefaults.DEFAULT.getNumberOfAssaultParties()];
-			Arrays.fill(thievesPerParty, SimulationDefaults.DEFAULT.getAssaultPartySize());
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			if (params.isTunedSockets())
+				rmiUtils.setSocketFactories(new TunedSockets(params.getSocketBufferSize(), params.getCompressionThreshold()));
+			rmiUtils.setBinaryTransport(params.isBinaryTransport());
+			final BatchingLogger logger = new BatchingLogger(
+					(IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class),
+					params.getLoggerBatchSize(),
+					params.getLoggerFlushInterval()
+			);
 
-			final CollectionSite collectionSite = new CollectionSite(logger, SimulationDefaults.DEFAULT.getNumberOfRooms(), thievesPerParty, SimulationDefaults.DEFAULT.getNumberOfAssaultParties(), SimulationDefaults.DEFAULT.getNumberOfThieves());
+			final CollectionSite collectionSite = new CollectionSite(logger, logger, params.getNumberOfRooms(), params.getPartySizes(), params.getNumberOfAssaultParties(), params.getNumberOfThieves(), params.isBatchCollection());
 
 			rmiUtils.register(collectionSite, port);
 
 			System.out.println("COL waiting...");
 			collectionSite.waitUntilCompletion();
 			rmiUtils.unbind(collectionSite);
+			if (Instrumentation.isEnabled())
+				System.out.print(Instrumentation.report());
+			if (params.isTunedSockets())
+				System.out.print(TransportStats.report());
 			System.out.println("COL COMPLETED");
 
 		} catch (RemoteException e) {
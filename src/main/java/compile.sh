@@ -6,4 +6,4 @@ then
   alias javac=/usr/lib/jvm/java-8-openjdk/bin/javac
 fi
 
-javac assaultParty/*.java collectionSite/*.java concentrationSite/*.java logger/*.java masterThief/*.java museum/*.java thief/*.java Register/*.java
+javac assaultParty/*.java benchmark/*.java collectionSite/*.java concentrationSite/*.java instrumentation/*.java logger/*.java masterThief/*.java museum/*.java standalone/*.java thief/*.java threads/*.java transport/*.java Register/*.java
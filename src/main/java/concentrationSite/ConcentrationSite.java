@@ -1,36 +1,49 @@
 package concentrationSite;
 
+import instrumentation.Instrumentation;
 import logger.IConcurrentLogger;
+import logger.ILogSink;
+import museum.IMuseum;
+import threads.Completions;
 
 import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The class representing the concentration site
  */
-public class ConcentrationSite implements IConcentrationSite {
+public class ConcentrationSite implements IConcentrationSite, IConcentrationSiteAsync {
 	/**
 	 * The logger
 	 */
 	private final IConcurrentLogger logger;
+	/**
+	 * Where the events logged by this monitor wait to be shipped to the logger
+	 */
+	private final ILogSink sink;
 	/**
 	 * The mutex's lock
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock lock = Instrumentation.newLock(ConcentrationSite.class);
 	/**
 	 * The condition signaled when all thieves are ready to start crawl inward movement
 	 */
 	private final Condition prepareExcursion = lock.newCondition();
 	/**
-	 * The condition signaled when the master thief allows the crawling movement to start.
-	 * Only the first thief must react to the signal
+	 * The first thief of the assault party being sent, completed when the master has seen the whole party ready
 	 */
-	private final Condition holdFirstThief = lock.newCondition();
+	private final List<CompletableFuture<Integer>> holdFirstThief = new ArrayList<>();
 	/**
-	 * The condition signaled when master has reached the sendAssaultParty method and is awaiting
+	 * The thieves waiting for the master to reach the sendAssaultParty method, in order of arrival
 	 */
-	private final Condition thiefWait = lock.newCondition();
+	private final Deque<Excursion> thiefWait = new ArrayDeque<>();
 	/**
 	 * Number of thieves in each assault party.
 	 * The index of the array is the id of the assault party
@@ -41,9 +54,27 @@ public class ConcentrationSite implements IConcentrationSite {
 	 */
 	private int nReadyThieves;
 	/**
-	 * Counter used to give new room IDs to assault parties in need
+	 * Counter used to give new room IDs to assault parties in need.
+	 * It is the position of the next room in the order of the room assignment policy
 	 */
 	private int availableRoom = 0;
+	/**
+	 * The order in which the rooms are assigned
+	 */
+	private final RoomAssignment roomAssignment;
+	/**
+	 * Locates the museum, the first time the room assignment policy needs its layout
+	 */
+	private final Callable<IMuseum> museum;
+	/**
+	 * The lock held while fetching the layout of the museum, so it is fetched once
+	 */
+	private final ReentrantLock layoutLock = new ReentrantLock();
+	/**
+	 * The room IDs in the order they are assigned, null until the layout of the museum is fetched.
+	 * Fetched without holding the monitor's lock
+	 */
+	private volatile int[] roomOrder;
 	/**
 	 * Thieves must wait until the master thief is in sendAssaultParty
 	 */
@@ -61,11 +92,17 @@ public class ConcentrationSite implements IConcentrationSite {
 	 * Creates the concentration site
 	 *
 	 * @param logger           The concurrent logger
+	 * @param sink             Where the logged events wait to be shipped, flushed before returning to a client
 	 * @param nThievesPerParty The number of thieves in each party
+	 * @param roomAssignment   The order in which the rooms are assigned
+	 * @param museum           Locates the museum. Only called if the room assignment policy needs the layout of the museum
 	 * @throws RemoteException when the call to this remote method fails
 	 */
-	public ConcentrationSite(IConcurrentLogger logger, int nThievesPerParty) throws RemoteException {
+	public ConcentrationSite(IConcurrentLogger logger, ILogSink sink, int nThievesPerParty, RoomAssignment roomAssignment, Callable<IMuseum> museum) throws RemoteException {
 		this.logger = logger;
+		this.sink = sink;
+		this.roomAssignment = roomAssignment;
+		this.museum = museum;
 		this.nReadyThieves = 0;
 		this.nThievesPerParty = nThievesPerParty;
 		this.isMasterReadyToSendParty = true;
@@ -78,52 +115,123 @@ public class ConcentrationSite implements IConcentrationSite {
 	 */
 	@Override
 	public int prepareExcursion(boolean getRoom) throws RemoteException {
+		return prepareExcursionAsync(getRoom).join();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Integer> prepareExcursionAsync(boolean getRoom) throws RemoteException {
+		final Excursion excursion = new Excursion(getRoom);
+		final Completions released = new Completions();
+		fetchLayout();
 		try {
 			lock.lock();
-			while (isMasterReadyToSendParty)
-				thiefWait.await();
-			nReadyThieves++;
-			if (nReadyThieves == nThievesPerParty) {
-				nReadyThieves = 0;
-				prepareExcursion.signal();
-				prepareExcursionReady = true;
-				if (getRoom) {
-					return availableRoom++;
-				}
-			}
-			if (getRoom) {
-				return availableRoom;
+			if (isMasterReadyToSendParty)
+				thiefWait.add(excursion);
+			else
+				ready(excursion, released);
+		} finally {
+			lock.unlock();
+			sink.flush();
+		}
+		released.complete();
+		return excursion.room;
+	}
+
+	/**
+	 * A thief joins the assault party being sent.
+	 * The last one signals the master, and the first one is held until the master has seen the whole party ready.
+	 * Must be called while holding the lock, after the master reached the sendAssaultParty method
+	 *
+	 * @param excursion the thief's call
+	 * @param released  where the thief's call is let go, unless it is held
+	 */
+	private void ready(Excursion excursion, Completions released) {
+		nReadyThieves++;
+		if (nReadyThieves == nThievesPerParty) {
+			nReadyThieves = 0;
+			prepareExcursion.signal();
+			prepareExcursionReady = true;
+			if (excursion.getRoom) {
+				released.add(excursion.room, room(availableRoom++));
+				return;
 			}
-			if (nReadyThieves == 1) {
-				while (firstThief)
-					holdFirstThief.await();
+		}
+		if (excursion.getRoom)
+			released.add(excursion.room, room(availableRoom));
+		else if (nReadyThieves == 1 && firstThief)
+			holdFirstThief.add(excursion.room);
+		else
+			released.add(excursion.room, -1);
+	}
+
+	/**
+	 * Fetches the layout of the museum the first time it is needed, if the room assignment policy needs it.
+	 * Must be called without holding the lock, so the thieves and the master do not wait for the museum behind it
+	 *
+	 * @throws RuntimeException when the museum cannot be reached, before the call changed anything
+	 */
+	private void fetchLayout() {
+		if (!roomAssignment.needsLayout() || roomOrder != null)
+			return;
+		try {
+			layoutLock.lock();
+			if (roomOrder == null) {
+				final IMuseum museum = this.museum.call();
+				roomOrder = roomAssignment.order(museum.getRoomDistance(), museum.getRoomPaintings());
 			}
-			return -1;
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
+		} catch (Exception e) {
+			throw new RuntimeException("Could not get the layout of the museum", e);
 		} finally {
-			lock.unlock();
+			layoutLock.unlock();
 		}
 	}
 
+	/**
+	 * The room assigned in a given position, according to the room assignment policy.
+	 * Must be called while holding the lock, after {@link #fetchLayout()}
+	 *
+	 * @param position the number of rooms assigned before it
+	 * @return the room ID
+	 */
+	private int room(int position) {
+		if (!roomAssignment.needsLayout())
+			return position;
+		return roomOrder[position];
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void sendAssaultParty() throws RemoteException {
+		final Completions released = new Completions();
+		fetchLayout();
 		try {
 			lock.lock();
 			isMasterReadyToSendParty = false;
 			firstThief = true;
-			thiefWait.signalAll();
+			while (!prepareExcursionReady && !thiefWait.isEmpty())
+				ready(thiefWait.poll(), released);
+		} finally {
+			lock.unlock();
+			sink.flush();
+		}
+		released.complete();
 
+		try {
+			lock.lock();
 			while (!prepareExcursionReady)
 				prepareExcursion.await();
 			this.prepareExcursionReady = false;
 
 			isMasterReadyToSendParty = true;
 			firstThief = false;
-			holdFirstThief.signal();
+			for (CompletableFuture<Integer> room : holdFirstThief)
+				released.add(room, -1);
+			holdFirstThief.clear();
 			logger.masterDecidingWhatToDo();
 		} catch (InterruptedException e) {
 			throw new RuntimeException(e);
@@ -131,7 +239,9 @@ public class ConcentrationSite implements IConcentrationSite {
 			throw new RuntimeException(e);
 		} finally {
 			lock.unlock();
+			sink.flush();
 		}
+		released.complete();
 	}
 
 	private final Condition completed = lock.newCondition();
@@ -161,4 +271,25 @@ public class ConcentrationSite implements IConcentrationSite {
 			lock.unlock();
 		}
 	}
+
+	/**
+	 * A call to prepareExcursion
+	 */
+	private static final class Excursion {
+		/**
+		 * Whether the thief's assault party needs a new room
+		 */
+		private final boolean getRoom;
+		/**
+		 * Completed with what prepareExcursion returns
+		 */
+		private final CompletableFuture<Integer> room = new CompletableFuture<>();
+
+		/**
+		 * @param getRoom whether the thief's assault party needs a new room
+		 */
+		Excursion(boolean getRoom) {
+			this.getRoom = getRoom;
+		}
+	}
 }
@@ -0,0 +1,22 @@
+package concentrationSite;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the rendezvous of the concentration site.
+ * <p>
+ * Does what {@link IConcentrationSite#prepareExcursion(boolean)} does, but returns right away, with a future the monitor
+ * completes once the thief may go, so no thread is held meanwhile.
+ * The future may be completed while the monitor's lock is held, so the actions depending on it must not block.
+ */
+public interface IConcentrationSiteAsync {
+	/**
+	 * Non-blocking {@link IConcentrationSite#prepareExcursion(boolean)}
+	 *
+	 * @param getRoom flag used to know if new room attribution is needed
+	 * @return completed, with what prepareExcursion returns, when the master sends the assault party
+	 * @throws RemoteException when the call to the logger fails
+	 */
+	CompletableFuture<Integer> prepareExcursionAsync(boolean getRoom) throws RemoteException;
+}
@@ -1,10 +1,18 @@
 package concentrationSite;
 
 
+import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+import logger.BatchingLogger;
 import logger.ConcurrentLogger;
 import logger.IConcurrentLogger;
+import museum.IMuseum;
+import museum.Museum;
 import Register.RMIUtils;
+import transport.TransportStats;
+import transport.TunedSockets;
 
+import java.io.IOException;
 import java.rmi.AlreadyBoundException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
@@ -48,6 +56,15 @@ public class Main {
 				return;
 			}
 
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("ConcentrationSite- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+			Instrumentation.setEnabled(params.isInstrumented());
+
 			/* create and install the security manager */
 
 			if (System.getSecurityManager() == null)
@@ -57,13 +74,23 @@ public class Main {
 
 			/* RMI registry service */
 
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
-			final IConcurrentLogger logger = (IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class);
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			if (params.isTunedSockets())
+				rmiUtils.setSocketFactories(new TunedSockets(params.getSocketBufferSize(), params.getCompressionThreshold()));
+			rmiUtils.setBinaryTransport(params.isBinaryTransport());
+			final BatchingLogger logger = new BatchingLogger(
+					(IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class),
+					params.getLoggerBatchSize(),
+					params.getLoggerFlushInterval()
+			);
 
-			final int thievesPerParty = 3;
+			/* the museum is started after this server, it is only looked up when the first room is assigned */
 			final ConcentrationSite concentrationSite = new ConcentrationSite(
 					logger,
-					thievesPerParty
+					logger,
+					params.getAssaultPartySize(),
+					params.getRoomAssignment(),
+					() -> (IMuseum) rmiUtils.find(Museum.class)
 			);
 
 			rmiUtils.register(concentrationSite, port);
@@ -71,6 +98,10 @@ public class Main {
 			System.out.println("CON waiting...");
 			concentrationSite.waitUntilCompletion();
 			rmiUtils.unbind(concentrationSite);
+			if (Instrumentation.isEnabled())
+				System.out.print(Instrumentation.report());
+			if (params.isTunedSockets())
+				System.out.print(TransportStats.report());
 			System.out.println("CON COMPLETED");
 
 		} catch (RemoteException e) {
@@ -0,0 +1,135 @@
+package concentrationSite;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The order in which the rooms of the museum are assigned to the assault parties.
+ * <p>
+ * A party keeps robbing its room until it finds it empty, so every room is assigned once and the rooms already assigned
+ * are exactly the ones that are or will be found empty. The policy only decides the order of the rest.
+ * Every room must still be emptied, so the total distance crawled is the same for every policy,
+ * what changes is how the work is spread between the parties and how long the heist takes.
+ */
+public enum RoomAssignment {
+	/**
+	 * In order of room identifier, without looking at the museum
+	 */
+	SEQUENTIAL {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean needsLayout() {
+			return false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Comparator<Integer> comparator(int[] distances, int[] paintings) {
+			return Comparator.naturalOrder();
+		}
+	},
+	/**
+	 * Closest room first
+	 */
+	NEAREST_FIRST {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Comparator<Integer> comparator(int[] distances, int[] paintings) {
+			return Comparator.comparingInt(room -> distances[room]);
+		}
+	},
+	/**
+	 * Room with the most paintings first
+	 */
+	MOST_PAINTINGS_FIRST {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Comparator<Integer> comparator(int[] distances, int[] paintings) {
+			return Comparator.comparingInt((Integer room) -> paintings[room]).reversed();
+		}
+	},
+	/**
+	 * Room with the most paintings per unit of distance first, the best expected yield for each trip
+	 */
+	YIELD_PER_DISTANCE {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Comparator<Integer> comparator(int[] distances, int[] paintings) {
+			return Comparator.comparingDouble((Integer room) -> paintings[room] / (double) Math.max(1, distances[room])).reversed();
+		}
+	},
+	/**
+	 * Room needing the most crawling first, paintings times distance.
+	 * Leaves the short jobs for the end so the parties finish close together
+	 */
+	MOST_WORK_FIRST {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Comparator<Integer> comparator(int[] distances, int[] paintings) {
+			return Comparator.comparingLong((Integer room) -> (long) paintings[room] * distances[room]).reversed();
+		}
+	};
+
+	/**
+	 * Whether the policy needs the distance and paintings of each room
+	 *
+	 * @return true if {@link #order(int[], int[])} looks at the museum
+	 */
+	public boolean needsLayout() {
+		return true;
+	}
+
+	/**
+	 * Orders the rooms of the museum. Ties are broken by room identifier
+	 *
+	 * @param distances the distance to each room
+	 * @param paintings the number of paintings in each room
+	 * @return the room identifiers, in the order they are to be assigned
+	 */
+	public int[] order(int[] distances, int[] paintings) {
+		final Integer[] rooms = new Integer[distances.length];
+		for (int i = 0; i < rooms.length; i++)
+			rooms[i] = i;
+		Arrays.sort(rooms, comparator(distances, paintings).thenComparing(Comparator.naturalOrder()));
+
+		final int[] order = new int[rooms.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = rooms[i];
+		return order;
+	}
+
+	/**
+	 * The order of the policy
+	 *
+	 * @param distances the distance to each room
+	 * @param paintings the number of paintings in each room
+	 * @return the comparator of the room identifiers
+	 */
+	abstract Comparator<Integer> comparator(int[] distances, int[] paintings);
+
+	/**
+	 * Parses a policy name, case insensitive
+	 *
+	 * @param name the name, e.g. nearest_first
+	 * @return the policy
+	 * @throws IllegalArgumentException when there is no policy with that name
+	 */
+	public static RoomAssignment fromName(String name) {
+		for (RoomAssignment policy : values())
+			if (policy.name().equalsIgnoreCase(name.trim()))
+				return policy;
+		throw new IllegalArgumentException("Unknown room assignment " + name + ", expected one of " + Arrays.toString(values()));
+	}
+}
@@ -6,7 +6,7 @@ n=10 # for 2 assault parties, need to change if more are deployed
 
 rm deploy.tar
 find . -name "*.tar" -type f -delete
-tar czf deploy.tar $(find . -name '*.class' -o -name '*.policy')
+tar czf deploy.tar $(find . -name '*.class' -o -name '*.policy' -o -name '*.properties')
 
 for machine in $(seq -w $n); do
   # skip faulty machines
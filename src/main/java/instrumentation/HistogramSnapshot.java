@@ -0,0 +1,105 @@
+package instrumentation;
+
+/**
+ * The summary of a {@link LatencyHistogram} at some point in time.
+ * Every value is in nanoseconds
+ */
+public class HistogramSnapshot {
+	/**
+	 * The number of values recorded
+	 */
+	private final long count;
+	/**
+	 * The mean of the values recorded
+	 */
+	private final long mean;
+	/**
+	 * The median
+	 */
+	private final long p50;
+	/**
+	 * The 90th percentile
+	 */
+	private final long p90;
+	/**
+	 * The 99th percentile
+	 */
+	private final long p99;
+	/**
+	 * The highest value recorded
+	 */
+	private final long max;
+
+	/**
+	 * Creates a snapshot
+	 *
+	 * @param count the number of values recorded
+	 * @param mean  the mean of the values recorded
+	 * @param p50   the median
+	 * @param p90   the 90th percentile
+	 * @param p99   the 99th percentile
+	 * @param max   the highest value recorded
+	 */
+	HistogramSnapshot(long count, long mean, long p50, long p90, long p99, long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.max = max;
+	}
+
+	/**
+	 * Getter for the number of values recorded
+	 *
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Getter for the mean of the values recorded
+	 *
+	 * @return the mean, 0 if there are no values
+	 */
+	public long getMean() {
+		return mean;
+	}
+
+	/**
+	 * Getter for the median
+	 *
+	 * @return the median, within the precision of the histogram
+	 */
+	public long getP50() {
+		return p50;
+	}
+
+	/**
+	 * Getter for the 90th percentile
+	 *
+	 * @return the 90th percentile, within the precision of the histogram
+	 */
+	public long getP90() {
+		return p90;
+	}
+
+	/**
+	 * Getter for the 99th percentile
+	 *
+	 * @return the 99th percentile, within the precision of the histogram
+	 */
+	public long getP99() {
+		return p99;
+	}
+
+	/**
+	 * Getter for the highest value recorded
+	 *
+	 * @return the highest value recorded
+	 */
+	public long getMax() {
+		return max;
+	}
+}
@@ -0,0 +1,208 @@
+package instrumentation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per method instrumentation of the servers of a process.
+ * <p>
+ * When enabled, every exported object is wrapped in a proxy that counts and times each remote call,
+ * and the monitors' locks record how long each call waited for them and held them.
+ * Recording never allocates; the numbers are only summarized when a {@link #snapshot()} is taken,
+ * usually when the server shuts down.
+ * <p>
+ * It must be enabled before the monitors are created, since their locks are created with them.
+ * When disabled the monitors get plain locks and the objects are exported as they are.
+ */
+public final class Instrumentation {
+	/**
+	 * The method name under which the lock activity outside remote calls is recorded, e.g. that of the logger's writer thread
+	 */
+	public static final String INTERNAL = "(internal)";
+
+	/**
+	 * Whether the servers created from now on are instrumented
+	 */
+	private static volatile boolean enabled = false;
+	/**
+	 * The stats of every method of every instrumented server, in creation order
+	 */
+	private static final List<MethodStats> STATS = new ArrayList<>();
+	/**
+	 * The stats of the lock activity outside remote calls of each server
+	 */
+	private static final Map<String, MethodStats> INTERNAL_STATS = new HashMap<>();
+	/**
+	 * The stats of the remote call each thread is serving, null outside remote calls
+	 */
+	private static final ThreadLocal<MethodStats[]> CURRENT_CALL = ThreadLocal.withInitial(() -> new MethodStats[1]);
+
+	private Instrumentation() {
+	}
+
+	/**
+	 * Enables or disables the instrumentation of the servers created from now on
+	 *
+	 * @param enabled whether to instrument them
+	 */
+	public static void setEnabled(boolean enabled) {
+		Instrumentation.enabled = enabled;
+	}
+
+	/**
+	 * Whether the servers created from now on are instrumented
+	 *
+	 * @return true if they are
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Creates the lock of a monitor
+	 *
+	 * @param server the class of the monitor
+	 * @return a lock that records its activity if the instrumentation is enabled, a plain lock otherwise
+	 */
+	public static ReentrantLock newLock(Class<?> server) {
+		if (!enabled)
+			return new ReentrantLock();
+		synchronized (STATS) {
+			MethodStats internal = INTERNAL_STATS.get(server.getSimpleName());
+			if (internal == null) {
+				internal = new MethodStats(server.getSimpleName(), INTERNAL);
+				INTERNAL_STATS.put(server.getSimpleName(), internal);
+				STATS.add(internal);
+			}
+			return new InstrumentedLock(internal);
+		}
+	}
+
+	/**
+	 * Wraps an object about to be exported, so each remote call is counted and timed
+	 *
+	 * @param target the object
+	 * @param server the name the calls are reported under
+	 * @param <T>    the object's type. Must implement Remote
+	 * @return the object to export in its place if the instrumentation is enabled, the object itself otherwise
+	 */
+	public static <T extends Remote> Remote instrument(T target, String server) {
+		if (!enabled)
+			return target;
+
+		final Set<Class<?>> interfaces = new LinkedHashSet<>();
+		for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass())
+			interfaces.addAll(Arrays.asList(c.getInterfaces()));
+
+		final Map<String, MethodStats> bySignature = new HashMap<>();
+		final Map<Method, MethodStats> byMethod = new HashMap<>();
+		synchronized (STATS) {
+			for (Class<?> i : interfaces) {
+				for (Method method : i.getMethods()) {
+					final String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+					MethodStats stats = bySignature.get(signature);
+					if (stats == null) {
+						stats = new MethodStats(server, method.getName());
+						bySignature.put(signature, stats);
+						STATS.add(stats);
+					}
+					byMethod.put(method, stats);
+				}
+			}
+		}
+		return (Remote) Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces.toArray(new Class<?>[0]),
+				new InstrumentedInvocationHandler(target, byMethod));
+	}
+
+	/**
+	 * Takes a snapshot of what was recorded so far, for every method that was called or used a lock
+	 *
+	 * @return the snapshot of each method, grouped by server, most called first
+	 */
+	public static List<MethodSnapshot> snapshot() {
+		final List<MethodSnapshot> snapshots = new ArrayList<>();
+		synchronized (STATS) {
+			for (MethodStats stats : STATS) {
+				final MethodSnapshot snapshot = stats.snapshot();
+				if (snapshot.getCalls() > 0 || snapshot.getLockWait().getCount() > 0)
+					snapshots.add(snapshot);
+			}
+		}
+		snapshots.sort(Comparator.comparing(MethodSnapshot::getServer)
+				.thenComparing(Comparator.comparingLong(MethodSnapshot::getCalls).reversed()));
+		return snapshots;
+	}
+
+	/**
+	 * Renders a snapshot as a table, with the times in microseconds
+	 *
+	 * @return the table
+	 */
+	public static String report() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-20s %-24s %9s %6s | %10s %10s %10s %10s | %10s %10s | %10s %10s%n",
+				"Server", "Method", "Calls", "Errors", "Mean", "p50", "p99", "Max", "Wait mean", "Wait p99", "Hold mean", "Hold p99"));
+		for (MethodSnapshot s : snapshot()) {
+			sb.append(String.format("%-20s %-24s %9d %6d | %10.1f %10.1f %10.1f %10.1f | %10.1f %10.1f | %10.1f %10.1f%n",
+					s.getServer(), s.getMethod(), s.getCalls(), s.getErrors(),
+					micros(s.getLatency().getMean()), micros(s.getLatency().getP50()),
+					micros(s.getLatency().getP99()), micros(s.getLatency().getMax()),
+					micros(s.getLockWait().getMean()), micros(s.getLockWait().getP99()),
+					micros(s.getLockHold().getMean()), micros(s.getLockHold().getP99())));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Makes a call the current thread's call
+	 *
+	 * @param call the stats of the call starting
+	 * @return the stats of the call the thread was serving, restored by {@link #exit(MethodStats)}
+	 */
+	static MethodStats enter(MethodStats call) {
+		final MethodStats[] current = CURRENT_CALL.get();
+		final MethodStats previous = current[0];
+		current[0] = call;
+		return previous;
+	}
+
+	/**
+	 * Restores the current thread's call when a call ends
+	 *
+	 * @param previous what {@link #enter(MethodStats)} returned
+	 */
+	static void exit(MethodStats previous) {
+		CURRENT_CALL.get()[0] = previous;
+	}
+
+	/**
+	 * The stats of the call the current thread is serving
+	 *
+	 * @param internal the stats to use outside remote calls
+	 * @return the stats of the call, or internal
+	 */
+	static MethodStats currentCall(MethodStats internal) {
+		final MethodStats call = CURRENT_CALL.get()[0];
+		return call == null ? internal : call;
+	}
+
+	/**
+	 * Converts nanoseconds to microseconds
+	 *
+	 * @param nanos the nanoseconds
+	 * @return the microseconds
+	 */
+	private static double micros(long nanos) {
+		return nanos / 1000.0;
+	}
+}
@@ -0,0 +1,69 @@
+package instrumentation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Forwards the calls to an exported object, recording each one in the {@link MethodStats} of its method.
+ * <p>
+ * While a call runs its stats are the thread's current call, so the monitor's {@link InstrumentedLock} can charge its lock activity to it.
+ */
+class InstrumentedInvocationHandler implements InvocationHandler {
+	/**
+	 * The exported object
+	 */
+	private final Object target;
+	/**
+	 * The stats of each remote method, shared by the methods with the same signature declared in several interfaces
+	 */
+	private final Map<Method, MethodStats> stats;
+
+	/**
+	 * @param target the exported object
+	 * @param stats  the stats of each remote method
+	 */
+	InstrumentedInvocationHandler(Object target, Map<Method, MethodStats> stats) {
+		this.target = target;
+		this.stats = stats;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		final MethodStats call = stats.get(method);
+		if (call == null)
+			return forward(method, args);
+
+		final MethodStats previous = Instrumentation.enter(call);
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			final Object result = forward(method, args);
+			failed = false;
+			return result;
+		} finally {
+			call.recordCall(System.nanoTime() - start, failed);
+			Instrumentation.exit(previous);
+		}
+	}
+
+	/**
+	 * Calls a method of the exported object
+	 *
+	 * @param method the method
+	 * @param args   the arguments
+	 * @return what the method returned
+	 * @throws Throwable what the method threw
+	 */
+	private Object forward(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package instrumentation;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A monitor's lock that records how long it is waited for and how long it is held.
+ * <p>
+ * Both are charged to the remote call the current thread is serving, or to the server's {@link Instrumentation#INTERNAL} entry.
+ * The time spent waiting on a condition is neither: the lock is released while waiting,
+ * so a hold ends when a wait starts and a new one starts when the wait ends.
+ * Only the outermost acquisition of a reentrant hold is measured.
+ */
+class InstrumentedLock extends ReentrantLock {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Where the lock activity outside remote calls is recorded
+	 */
+	private final transient MethodStats internal;
+	/**
+	 * The call holding the lock.
+	 * Only accessed by the thread holding the lock
+	 */
+	private transient MethodStats holder;
+	/**
+	 * When the current hold started.
+	 * Only accessed by the thread holding the lock
+	 */
+	private transient long holdStart;
+
+	/**
+	 * @param internal where the lock activity outside remote calls is recorded
+	 */
+	InstrumentedLock(MethodStats internal) {
+		this.internal = internal;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void lock() {
+		final long start = System.nanoTime();
+		super.lock();
+		acquired(start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void lockInterruptibly() throws InterruptedException {
+		final long start = System.nanoTime();
+		super.lockInterruptibly();
+		acquired(start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryLock() {
+		final long start = System.nanoTime();
+		if (!super.tryLock())
+			return false;
+		acquired(start);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+		final long start = System.nanoTime();
+		if (!super.tryLock(timeout, unit))
+			return false;
+		acquired(start);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unlock() {
+		if (isHeldByCurrentThread() && getHoldCount() == 1)
+			holder.recordLockHold(System.nanoTime() - holdStart);
+		super.unlock();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Condition newCondition() {
+		return new InstrumentedCondition(super.newCondition());
+	}
+
+	/**
+	 * Records the wait for the lock and starts the hold, unless the lock was already held
+	 *
+	 * @param start when the thread started waiting for the lock
+	 */
+	private void acquired(long start) {
+		if (getHoldCount() != 1)
+			return;
+		holdStart = System.nanoTime();
+		holder = Instrumentation.currentCall(internal);
+		holder.recordLockWait(holdStart - start);
+	}
+
+	/**
+	 * A condition of the lock, that ends the hold when a wait starts and starts a new one when it ends
+	 */
+	private class InstrumentedCondition implements Condition {
+		/**
+		 * The condition of the underlying lock
+		 */
+		private final Condition condition;
+
+		/**
+		 * @param condition the condition of the underlying lock
+		 */
+		InstrumentedCondition(Condition condition) {
+			this.condition = condition;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void await() throws InterruptedException {
+			release();
+			try {
+				condition.await();
+			} finally {
+				reacquired();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void awaitUninterruptibly() {
+			release();
+			try {
+				condition.awaitUninterruptibly();
+			} finally {
+				reacquired();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long awaitNanos(long nanosTimeout) throws InterruptedException {
+			release();
+			try {
+				return condition.awaitNanos(nanosTimeout);
+			} finally {
+				reacquired();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean await(long time, TimeUnit unit) throws InterruptedException {
+			release();
+			try {
+				return condition.await(time, unit);
+			} finally {
+				reacquired();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean awaitUntil(Date deadline) throws InterruptedException {
+			release();
+			try {
+				return condition.awaitUntil(deadline);
+			} finally {
+				reacquired();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void signal() {
+			condition.signal();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void signalAll() {
+			condition.signalAll();
+		}
+
+		/**
+		 * Ends the current hold, the lock is about to be released by a wait
+		 */
+		private void release() {
+			if (isHeldByCurrentThread())
+				holder.recordLockHold(System.nanoTime() - holdStart);
+		}
+
+		/**
+		 * Starts a new hold, the lock was acquired again at the end of a wait
+		 */
+		private void reacquired() {
+			if (!isHeldByCurrentThread())
+				return;
+			holdStart = System.nanoTime();
+			holder = Instrumentation.currentCall(internal);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds, with logarithmic buckets split linearly.
+ * <p>
+ * Values below 2 * SUB_BUCKETS get a bucket each. Above that every power of two is split in SUB_BUCKETS buckets,
+ * so a value is counted in a bucket at most 1 / SUB_BUCKETS (about 3%) wider than itself.
+ * Recording only increments counters, it never allocates nor locks, so it can be called on every remote call.
+ * <p>
+ * Values above MAX_VALUE (about 73 minutes) are counted as MAX_VALUE.
+ */
+public class LatencyHistogram {
+	/**
+	 * log2 of the number of buckets each power of two is split in
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+	/**
+	 * Number of buckets each power of two is split in
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**
+	 * The highest power of two counted
+	 */
+	private static final int MAX_EXPONENT = 41;
+	/**
+	 * The highest value counted
+	 */
+	static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+	/**
+	 * The number of values counted in each bucket
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS);
+	/**
+	 * The number of values recorded
+	 */
+	private final AtomicLong count = new AtomicLong();
+	/**
+	 * The sum of the values recorded
+	 */
+	private final AtomicLong total = new AtomicLong();
+	/**
+	 * The highest value recorded
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value
+	 *
+	 * @param nanos the value, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		final long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+		counts.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+			current = max.get();
+	}
+
+	/**
+	 * Takes a snapshot of the values recorded so far.
+	 * Values recorded while the snapshot is taken may or may not be part of it
+	 *
+	 * @return the snapshot
+	 */
+	public HistogramSnapshot snapshot() {
+		final long[] buckets = new long[counts.length()];
+		long n = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = counts.get(i);
+			n += buckets[i];
+		}
+		final long highest = max.get();
+		return new HistogramSnapshot(n, n == 0 ? 0 : total.get() / n,
+				Math.min(valueAt(buckets, n, 0.50), highest),
+				Math.min(valueAt(buckets, n, 0.90), highest),
+				Math.min(valueAt(buckets, n, 0.99), highest),
+				highest);
+	}
+
+	/**
+	 * The bucket a value is counted in
+	 *
+	 * @param value the value, between 0 and MAX_VALUE
+	 * @return the index of the bucket
+	 */
+	static int bucketOf(long value) {
+		if (value < 2 * SUB_BUCKETS)
+			return (int) value;
+		final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * The highest value counted in a bucket
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the highest value of the bucket
+	 */
+	static long highestValueOf(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS)
+			return bucket;
+		final int shift = bucket / SUB_BUCKETS - 1;
+		final long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * The value below which a fraction of the values fall
+	 *
+	 * @param buckets  the number of values counted in each bucket
+	 * @param n        the number of values counted
+	 * @param fraction the fraction, between 0 and 1
+	 * @return the highest value of the bucket the fraction is reached at, 0 if there are no values
+	 */
+	private static long valueAt(long[] buckets, long n, double fraction) {
+		final long rank = Math.max(1, (long) Math.ceil(n * fraction));
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= rank)
+				return highestValueOf(i);
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,114 @@
+package instrumentation;
+
+/**
+ * What was recorded for a method of a server up to some point in time
+ */
+public class MethodSnapshot {
+	/**
+	 * The name of the server
+	 */
+	private final String server;
+	/**
+	 * The name of the method
+	 */
+	private final String method;
+	/**
+	 * The number of calls that threw an exception
+	 */
+	private final long errors;
+	/**
+	 * The duration of the calls
+	 */
+	private final HistogramSnapshot latency;
+	/**
+	 * The time waited for the monitor's lock, per acquisition
+	 */
+	private final HistogramSnapshot lockWait;
+	/**
+	 * The time the monitor's lock was held, per hold
+	 */
+	private final HistogramSnapshot lockHold;
+
+	/**
+	 * Creates a snapshot
+	 *
+	 * @param server   the name of the server
+	 * @param method   the name of the method
+	 * @param errors   the number of calls that threw an exception
+	 * @param latency  the duration of the calls
+	 * @param lockWait the time waited for the monitor's lock
+	 * @param lockHold the time the monitor's lock was held
+	 */
+	MethodSnapshot(String server, String method, long errors, HistogramSnapshot latency, HistogramSnapshot lockWait, HistogramSnapshot lockHold) {
+		this.server = server;
+		this.method = method;
+		this.errors = errors;
+		this.latency = latency;
+		this.lockWait = lockWait;
+		this.lockHold = lockHold;
+	}
+
+	/**
+	 * Getter for the name of the server
+	 *
+	 * @return the name of the server
+	 */
+	public String getServer() {
+		return server;
+	}
+
+	/**
+	 * Getter for the name of the method.
+	 * The lock activity of threads that are not serving a remote call, such as the logger's writer, is under {@link Instrumentation#INTERNAL}
+	 *
+	 * @return the name of the method
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Getter for the number of calls
+	 *
+	 * @return the number of calls
+	 */
+	public long getCalls() {
+		return latency.getCount();
+	}
+
+	/**
+	 * Getter for the number of calls that threw an exception
+	 *
+	 * @return the number of calls that threw an exception
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Getter for the duration of the calls
+	 *
+	 * @return the duration of the calls
+	 */
+	public HistogramSnapshot getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Getter for the time waited for the monitor's lock
+	 *
+	 * @return the time waited for the monitor's lock, per acquisition
+	 */
+	public HistogramSnapshot getLockWait() {
+		return lockWait;
+	}
+
+	/**
+	 * Getter for the time the monitor's lock was held
+	 *
+	 * @return the time the monitor's lock was held, per hold
+	 */
+	public HistogramSnapshot getLockHold() {
+		return lockHold;
+	}
+}
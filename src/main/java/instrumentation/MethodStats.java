@@ -0,0 +1,82 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What is recorded for a method of a server: calls, failed calls, how long the calls took,
+ * how long they waited for the monitor's lock and how long they held it
+ */
+class MethodStats {
+	/**
+	 * The name of the server
+	 */
+	private final String server;
+	/**
+	 * The name of the method
+	 */
+	private final String method;
+	/**
+	 * The number of calls that threw an exception
+	 */
+	private final AtomicLong errors = new AtomicLong();
+	/**
+	 * The duration of each call
+	 */
+	private final LatencyHistogram latency = new LatencyHistogram();
+	/**
+	 * The time each acquisition of the lock waited for it
+	 */
+	private final LatencyHistogram lockWait = new LatencyHistogram();
+	/**
+	 * The time the lock was held, from acquisition or the end of a wait on a condition until release or the start of a wait
+	 */
+	private final LatencyHistogram lockHold = new LatencyHistogram();
+
+	/**
+	 * @param server the name of the server
+	 * @param method the name of the method
+	 */
+	MethodStats(String server, String method) {
+		this.server = server;
+		this.method = method;
+	}
+
+	/**
+	 * Records a call
+	 *
+	 * @param nanos  the duration of the call
+	 * @param failed whether it threw an exception
+	 */
+	void recordCall(long nanos, boolean failed) {
+		latency.record(nanos);
+		if (failed)
+			errors.incrementAndGet();
+	}
+
+	/**
+	 * Records the time a call waited to acquire the lock
+	 *
+	 * @param nanos the time waited
+	 */
+	void recordLockWait(long nanos) {
+		lockWait.record(nanos);
+	}
+
+	/**
+	 * Records the time a call held the lock
+	 *
+	 * @param nanos the time held
+	 */
+	void recordLockHold(long nanos) {
+		lockHold.record(nanos);
+	}
+
+	/**
+	 * Takes a snapshot of what was recorded so far
+	 *
+	 * @return the snapshot
+	 */
+	MethodSnapshot snapshot() {
+		return new MethodSnapshot(server, method, errors.get(), latency.snapshot(), lockWait.snapshot(), lockHold.snapshot());
+	}
+}
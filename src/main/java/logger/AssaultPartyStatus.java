@@ -1,6 +1,6 @@
 package logger;
 
-import static logger.StringUtils.nChars;
+import static logger.StringUtils.appendChars;
 
 /**
  * Represents all data about an assault party that is to be logged
@@ -15,6 +15,18 @@ public class AssaultPartyStatus implements Loggable {
      * The identifier of the room assigned to the assault party
      */
     private int rId;
+    /**
+     * The row this status was laid out in, null if it was not
+     */
+    private RowBuffer row;
+    /**
+     * Offset of the room identifier cell in the row
+     */
+    private int rIdOffset;
+    /**
+     * Width of the room identifier cell in the row
+     */
+    private int rIdWidth;
 
     /**
      * Constructor for the AssaultPartyStatus
@@ -30,15 +42,30 @@ public class AssaultPartyStatus implements Loggable {
     @Override
     public String getMessage(int nEmptyChars, boolean breakLines) {
         StringBuilder s = new StringBuilder();
-        s
-                .append(String.format("%2d", rId))
-                .append(nChars(' ', nEmptyChars + 1))
-        ;
+        appendChars(s.append(String.format("%2d", rId)), ' ', nEmptyChars + 1);
         for (ElementStatus e : elements)
-            s.append(e.getMessage(nEmptyChars, breakLines)).append(nChars(' ', nEmptyChars));
+            appendChars(s.append(e.getMessage(nEmptyChars, breakLines)), ' ', nEmptyChars);
         return s.toString();
     }
 
+    /**
+     * Appends the cells of this status to a row, in the same format as {@link #getMessage(int, boolean)}.
+     * From then on the setters keep them up to date
+     *
+     * @param row         the row
+     * @param nEmptyChars Number of spaces between each value
+     */
+    void layout(RowBuffer row, int nEmptyChars) {
+        this.row = row;
+        rIdOffset = row.length();
+        rIdWidth = row.appendInt(rId, 2);
+        row.appendChars(' ', nEmptyChars + 1);
+        for (ElementStatus e : elements) {
+            e.layout(row, nEmptyChars);
+            row.appendChars(' ', nEmptyChars);
+        }
+    }
+
     /**
      * Get assault party's elements
      *
@@ -55,6 +82,8 @@ public class AssaultPartyStatus implements Loggable {
      */
     public void setrId(int rId) {
         this.rId = rId;
+        if (row != null)
+            row.patchInt(rIdOffset, rIdWidth, 2, rId);
     }
 
     /**
@@ -0,0 +1,304 @@
+package logger;
+
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client side proxy of the concurrent logger that ships events in batches.
+ * <p>
+ * Each server process wraps its remote logger in one of these.
+ * State changes are recorded locally, numbered sequentially, and shipped with a single {@link IConcurrentLogger#logBatch}
+ * call when the batch is full, when the flush interval elapses or when {@link #flush()} is called.
+ * The monitors call {@link #flush()} after releasing their lock, before returning to their client,
+ * so events that depend on each other across processes keep their order.
+ * <p>
+ * Setup and shutdown calls are forwarded right away, after shipping any pending events.
+ */
+public class BatchingLogger implements IConcurrentLogger, ILogSink {
+	/**
+	 * The remote logger
+	 */
+	private final IConcurrentLogger logger;
+	/**
+	 * This process' source identifier in the remote logger
+	 */
+	private final int source;
+	/**
+	 * Maximum number of events in a batch
+	 */
+	private final int batchSize;
+	/**
+	 * The mutex lock protecting the pending events
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * The lock held while shipping a batch, so that batches leave in sequence number order
+	 */
+	private final ReentrantLock sendLock = new ReentrantLock();
+	/**
+	 * The pending events, encoded as in {@link IConcurrentLogger#logBatch(int, long, int[])}
+	 */
+	private final int[] events;
+	/**
+	 * Number of pending events
+	 */
+	private int count;
+	/**
+	 * Sequence number of the first pending event
+	 */
+	private long nextSeq;
+
+	/**
+	 * Creates the batching proxy and registers it as a batch source in the remote logger
+	 *
+	 * @param logger        The remote logger
+	 * @param batchSize     The maximum number of events in a batch, 1 ships every event right away
+	 * @param flushInterval Maximum time in ms an event waits to be shipped, 0 to only ship full or explicitly flushed batches
+	 * @throws RemoteException when the call to the remote logger fails
+	 */
+	public BatchingLogger(IConcurrentLogger logger, int batchSize, int flushInterval) throws RemoteException {
+		this.logger = logger;
+		this.source = logger.openBatchSource();
+		this.batchSize = Math.max(batchSize, 1);
+		this.events = new int[this.batchSize * LogEventType.RECORD_SIZE];
+		this.count = 0;
+		this.nextSeq = 0;
+		if (flushInterval > 0) {
+			final Thread flusher = new Thread(() -> {
+				try {
+					while (true) {
+						Thread.sleep(flushInterval);
+						flush();
+					}
+				} catch (InterruptedException | RemoteException e) {
+					System.err.println("BatchingLogger stopped flushing: " + e.getMessage());
+				}
+			}, "BatchingLogger-flusher");
+			flusher.setDaemon(true);
+			flusher.start();
+		}
+	}
+
+	/**
+	 * Adds an event to the pending batch, shipping it when full
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 * @throws RemoteException when shipping the batch fails
+	 */
+	private void record(LogEventType type, int a0, int a1, int a2, int a3) throws RemoteException {
+		while (true) {
+			final boolean full;
+			try {
+				lock.lock();
+				if (count < batchSize) {
+					final int from = count * LogEventType.RECORD_SIZE;
+					events[from] = type.ordinal();
+					events[from + 1] = a0;
+					events[from + 2] = a1;
+					events[from + 3] = a2;
+					events[from + 4] = a3;
+					count++;
+					if (count < batchSize)
+						return;
+					full = true;
+				} else {
+					full = false;
+				}
+			} finally {
+				lock.unlock();
+			}
+			flush();
+			if (full)
+				return;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void flush() throws RemoteException {
+		try {
+			sendLock.lock();
+			final int[] batch;
+			final long firstSeq;
+			try {
+				lock.lock();
+				if (count == 0)
+					return;
+				batch = Arrays.copyOf(events, count * LogEventType.RECORD_SIZE);
+				firstSeq = nextSeq;
+				nextSeq += count;
+				count = 0;
+			} finally {
+				lock.unlock();
+			}
+			logger.logBatch(source, firstSeq, batch);
+		} finally {
+			sendLock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int openBatchSource() throws RemoteException {
+		return logger.openBatchSource();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void logBatch(int source, long firstSeq, int[] events) throws RemoteException {
+		logger.logBatch(source, firstSeq, events);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void header() throws RemoteException {
+		flush();
+		logger.header();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setupRooms(int[] roomDistance, int[] roomCanvas) throws RemoteException {
+		flush();
+		logger.setupRooms(roomDistance, roomCanvas);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setAgility(int id, int agility) throws RemoteException {
+		flush();
+		logger.setAgility(id, agility);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void masterDecidingWhatToDo() throws RemoteException {
+		record(LogEventType.MASTER_DECIDING_WHAT_TO_DO, 0, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void takeRest() throws RemoteException {
+		record(LogEventType.TAKE_REST, 0, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sumUpResults(int paintings) throws RemoteException {
+		flush();
+		logger.sumUpResults(paintings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void atControl(int thief) throws RemoteException {
+		record(LogEventType.AT_CONTROL, thief, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rob(int thief, int roomID, int thiefIdInAssaultParty, int partyId) throws RemoteException {
+		record(LogEventType.ROB, thief, roomID, thiefIdInAssaultParty, partyId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void handCanvas(int thiefIdInAssaultParty, int partyId) throws RemoteException {
+		record(LogEventType.HAND_CANVAS, thiefIdInAssaultParty, partyId, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlIn(int thief) throws RemoteException {
+		record(LogEventType.CRAWL_IN, thief, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void crawlOut(int thief) throws RemoteException {
+		record(LogEventType.CRAWL_OUT, thief, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void preparingAssaultParty() throws RemoteException {
+		record(LogEventType.PREPARING_ASSAULT_PARTY, 0, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setRoom(int partyId, int roomId) throws RemoteException {
+		record(LogEventType.SET_ROOM, partyId, roomId, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDistance(int partyId, int thiefIdInAssaultParty, int distance) throws RemoteException {
+		record(LogEventType.SET_DISTANCE, partyId, thiefIdInAssaultParty, distance, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void atRoom(int thief) throws RemoteException {
+		record(LogEventType.AT_ROOM, thief, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void waitUntilCompletion() throws RemoteException {
+		flush();
+		logger.waitUntilCompletion();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() throws RemoteException {
+		flush();
+		logger.shutdown();
+	}
+}
@@ -0,0 +1,117 @@
+package logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary log of the simulation events.
+ * <p>
+ * The file starts with a header describing the layout of the simulation:
+ * <pre>
+ * MAGIC VERSION breakLines entitySeparationSpace nThieves nAssaultParties partySize... nRooms
+ * </pre>
+ * followed by one fixed size record per event: the ordinal of its {@link LogEventType} in one byte
+ * and its {@link LogEventType#ARITY} arguments.
+ * All values are big endian ints, except the event type.
+ * <p>
+ * Records are accumulated in a direct buffer and written to the file channel when it fills up.
+ * This class is NOT thread safe.
+ */
+class BinaryEventLog {
+	/**
+	 * Identifies a binary event log file
+	 */
+	static final int MAGIC = 0x4D484C47;
+	/**
+	 * The version of the format
+	 */
+	static final int VERSION = 1;
+	/**
+	 * Number of bytes of each event record
+	 */
+	static final int RECORD_BYTES = 1 + LogEventType.ARITY * Integer.BYTES;
+	/**
+	 * Size of the write buffer
+	 */
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	/**
+	 * The log file
+	 */
+	private final FileChannel channel;
+	/**
+	 * The records not yet written to the file
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+	/**
+	 * Creates the binary log file and writes its header
+	 *
+	 * @param logFilePath           The path to the log file
+	 * @param breakLines            Whether the rendered entries are to be broken in multiple lines
+	 * @param entitySeparationSpace Number of spaces between values in the same rendered entry
+	 * @param status                The simulation status, it is only used for its layout
+	 * @throws IOException when the file cannot be created or written
+	 */
+	BinaryEventLog(String logFilePath, boolean breakLines, int entitySeparationSpace, LoggerStatus status) throws IOException {
+		this.channel = FileChannel.open(Paths.get(logFilePath), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		final AssaultPartyStatus[] assaultParties = status.getAssaultParties();
+		buffer
+				.putInt(MAGIC)
+				.putInt(VERSION)
+				.putInt(breakLines ? 1 : 0)
+				.putInt(entitySeparationSpace)
+				.putInt(status.getThieves().length)
+				.putInt(assaultParties.length);
+		for (AssaultPartyStatus assaultParty : assaultParties)
+			buffer.putInt(assaultParty.getElements().length);
+		buffer.putInt(status.getMuseum().getRooms().length);
+	}
+
+	/**
+	 * Appends an event record
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 * @throws IOException when the file cannot be written
+	 */
+	void write(LogEventType type, int a0, int a1, int a2, int a3) throws IOException {
+		if (buffer.remaining() < RECORD_BYTES)
+			drain();
+		buffer
+				.put((byte) type.ordinal())
+				.putInt(a0)
+				.putInt(a1)
+				.putInt(a2)
+				.putInt(a3);
+	}
+
+	/**
+	 * Writes every buffered record and closes the file.
+	 * No more events can be written after this point.
+	 *
+	 * @throws IOException when the file cannot be written
+	 */
+	void close() throws IOException {
+		drain();
+		channel.close();
+	}
+
+	/**
+	 * Writes every buffered record to the file
+	 *
+	 * @throws IOException when the file cannot be written
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
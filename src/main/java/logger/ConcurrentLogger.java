@@ -1,13 +1,17 @@
 package logger;
 
+import instrumentation.Instrumentation;
+
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.rmi.RemoteException;
+import java.util.Arrays;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static logger.StringUtils.appendChars;
 import static logger.StringUtils.center;
 import static logger.StringUtils.nChars;
 
@@ -24,6 +28,13 @@ import static logger.StringUtils.nChars;
  * The logging process only starts when all random state variables (paintings per room and thief agilities) have been set.
  * Shutdown can only happen when the sumUpResults method has been called. If called prior, the method will hang until either
  * a timeout happens or the method has been called
+ * <p>
+ * In asynchronous mode the callers only record each state change in a {@link LogRingBuffer}.
+ * A dedicated writer thread applies them to the simulation status, renders the entries and writes them in batches,
+ * in the exact order they were recorded.
+ * <p>
+ * In binary mode no entry is rendered, every state change is appended to a {@link BinaryEventLog} instead.
+ * The text log can then be produced on demand with {@link LogRenderer}.
  */
 public class ConcurrentLogger implements IConcurrentLogger {
 
@@ -36,9 +47,13 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	private final int entitySeparationSpace;
 	/**
-	 * The helper that writes the entries to the file
+	 * The helper that writes the entries to the file, null in binary mode
 	 */
 	private final FileWriter fw;
+	/**
+	 * The binary event log, null in text mode
+	 */
+	private final BinaryEventLog binaryLog;
 	/**
 	 * The simulation status.
 	 * IT IS NOT THREAD SAFE
@@ -47,7 +62,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	/**
 	 * The mutex lock
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock lock = Instrumentation.newLock(ConcurrentLogger.class);
 
 	private final Condition setup = lock.newCondition();
 	/**
@@ -67,9 +82,37 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 * Used to count thieves that set its agility
 	 */
 	private int thievesCounter;
+	/**
+	 * The recorded events waiting to be written, null in synchronous mode
+	 */
+	private final LogRingBuffer buffer;
+	/**
+	 * The thread that writes the recorded events, null in synchronous mode
+	 */
+	private final Thread writer;
+	/**
+	 * The entries rendered but not yet written.
+	 * Only touched while holding the lock (synchronous mode) or by the writer thread (asynchronous mode)
+	 */
+	private final StringBuilder pending = new StringBuilder();
+	/**
+	 * The condition signaled when a batch is logged, so that the next batch of the same source can be logged
+	 */
+	private final Condition batchOrder = lock.newCondition();
+	/**
+	 * Sequence number of the next event expected from each batch source.
+	 * The index in the array is the source identifier
+	 */
+	private long[] nextBatchSeq = new long[8];
+	/**
+	 * Number of batch sources that were opened.
+	 * Volatile so the source of a batch can be checked before taking the lock
+	 */
+	private volatile int nBatchSources = 0;
 
 	/**
-	 * Constructor for the concurrent logger
+	 * Constructor for the concurrent logger.
+	 * The entries are written synchronously by the calling thread
 	 *
 	 * @param breakLines            Whether to break each entry in multiple lines
 	 * @param entitySeparationSpace Number of spaces between values in the same entry
@@ -80,23 +123,72 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	public ConcurrentLogger(boolean breakLines, int entitySeparationSpace, String logFilePath, LoggerStatus status, int nThieves) throws IOException, RemoteException {
+		this(breakLines, entitySeparationSpace, logFilePath, status, nThieves, 0);
+	}
+
+	/**
+	 * Constructor for the concurrent logger.
+	 * The entries are written to a text log
+	 *
+	 * @param breakLines            Whether to break each entry in multiple lines
+	 * @param entitySeparationSpace Number of spaces between values in the same entry
+	 * @param logFilePath           The path to the log file
+	 * @param status                The initial simulation status
+	 * @param nThieves              The number of thieves in the simulation
+	 * @param bufferSize            The number of events that can be waiting to be written.
+	 *                              If positive, entries are written asynchronously by a dedicated thread
+	 * @throws IOException @see java.io.FileWriter
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	public ConcurrentLogger(boolean breakLines, int entitySeparationSpace, String logFilePath, LoggerStatus status, int nThieves, int bufferSize) throws IOException, RemoteException {
+		this(breakLines, entitySeparationSpace, logFilePath, status, nThieves, bufferSize, false);
+	}
+
+	/**
+	 * Constructor for the concurrent logger
+	 *
+	 * @param breakLines            Whether to break each entry in multiple lines
+	 * @param entitySeparationSpace Number of spaces between values in the same entry
+	 * @param logFilePath           The path to the log file
+	 * @param status                The initial simulation status
+	 * @param nThieves              The number of thieves in the simulation
+	 * @param bufferSize            The number of events that can be waiting to be written.
+	 *                              If positive, entries are written asynchronously by a dedicated thread
+	 * @param binary                Whether to write a binary event log instead of the text log
+	 * @throws IOException @see java.io.FileWriter
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	public ConcurrentLogger(boolean breakLines, int entitySeparationSpace, String logFilePath, LoggerStatus status, int nThieves, int bufferSize, boolean binary) throws IOException, RemoteException {
 //		super();
 		this.breakLines = breakLines;
 		this.entitySeparationSpace = entitySeparationSpace;
 		Files.deleteIfExists(Paths.get(logFilePath));
-		this.fw = new FileWriter(logFilePath);
+		if (binary) {
+			this.fw = null;
+			this.binaryLog = new BinaryEventLog(logFilePath, breakLines, entitySeparationSpace, status);
+		} else {
+			this.fw = new FileWriter(logFilePath);
+			this.binaryLog = null;
+		}
 		this.status = status;
 		this.nThieves = nThieves;
 		this.roomsFlag = false;
 		this.thievesFlag = false;
 		this.thievesCounter = 0;
+		if (bufferSize > 0) {
+			this.buffer = new LogRingBuffer(bufferSize);
+			this.writer = new Thread(this::writeEvents, "ConcurrentLogger-writer");
+			this.writer.start();
+		} else {
+			this.buffer = null;
+			this.writer = null;
+		}
 	}
 
-
 	/**
 	 * Logs a sequence of strings
 	 * <p>
-	 * WARNING: This method is to be called behind locks.
+	 * WARNING: This method is to be called behind locks or by the writer thread.
 	 * This is just a wrapper around the IO operations and not a safe writing method.
 	 * <p>
 	 * Adding locks here would require a more cumbersome management of locks in the public facing methods,
@@ -105,37 +197,203 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 * @param messages the messages to print
 	 */
 	private void log(String... messages) {
-		try {
-			for (String m : messages) {
-				System.out.println(m);
-				fw.write(m);
-				fw.write('\n');
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		for (String m : messages)
+			pending.append(m).append('\n');
 	}
 
 	/**
 	 * Logs the current simulation status
 	 * <p>
-	 * WARNING: This method is to be called behind locks.
+	 * WARNING: This method is to be called behind locks or by the writer thread.
 	 * This is just a wrapper around the IO operations and not a safe writing method.
 	 * <p>
 	 * Adding locks here would require a more cumbersome management of locks in the public facing methods,
 	 * since the simulation state is not thread safe and needs to be manipulated in these methods.
 	 */
 	private void log() {
+		pending.append(status.getMessage(entitySeparationSpace, breakLines));
+		pending.append('\n');
+	}
+
+	/**
+	 * Writes every logged entry to standard output and the log file
+	 * <p>
+	 * WARNING: This method is to be called behind locks or by the writer thread.
+	 */
+	private void writePending() {
+		if (pending.length() == 0)
+			return;
+		try {
+			System.out.print(pending);
+			fw.append(pending);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		pending.setLength(0);
+	}
+
+	/**
+	 * Records a state change.
+	 * Waits until the logging process has started, then either applies it right away (synchronous mode)
+	 * or hands it to the writer thread (asynchronous mode)
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 */
+	private void record(LogEventType type, int a0, int a1, int a2, int a3) {
 		try {
-			final String m = status.getMessage(entitySeparationSpace, breakLines);
-			System.out.println(m);
-			fw.write(m);
-			fw.write('\n');
+			lock.lock();
+			while (!(thievesFlag && roomsFlag))
+				setup.await();
+			recordLocked(type, a0, a1, a2, a3);
+			if (buffer == null)
+				writePending();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a state change, without writing it in synchronous mode
+	 * <p>
+	 * WARNING: This method is to be called behind locks.
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 * @throws InterruptedException when interrupted while waiting for space in the buffer
+	 */
+	private void recordLocked(LogEventType type, int a0, int a1, int a2, int a3) throws InterruptedException {
+		if (buffer != null)
+			buffer.publish(type, a0, a1, a2, a3);
+		else
+			consume(type, a0, a1, a2, a3);
+		if (type == LogEventType.SUM_UP_RESULTS) {
+			hasPresentedResults = true;
+			completed.signal();
+		}
+	}
+
+	/**
+	 * Processes a recorded state change, either appending it to the binary log or applying and logging it
+	 * <p>
+	 * WARNING: This method is to be called behind locks or by the writer thread.
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 */
+	private void consume(LogEventType type, int a0, int a1, int a2, int a3) {
+		if (binaryLog == null) {
+			apply(type, a0, a1, a2, a3);
+			return;
+		}
+		try {
+			binaryLog.write(type, a0, a1, a2, a3);
+			if (type == LogEventType.SUM_UP_RESULTS)
+				binaryLog.close();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Applies a state change to the simulation status and logs the resulting entry
+	 * <p>
+	 * WARNING: This method is to be called behind locks or by the writer thread.
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 */
+	private void apply(LogEventType type, int a0, int a1, int a2, int a3) {
+		switch (type) {
+			case HEADER:
+				logHeader();
+				return;
+			case MASTER_DECIDING_WHAT_TO_DO:
+				status.setMasterStatus('D');
+				break;
+			case TAKE_REST:
+				status.setMasterStatus('W');
+				break;
+			case SUM_UP_RESULTS:
+				status.setMasterStatus('P');
+				log();
+				log(String.format("My friends, tonight's effort produced %s priceless paintings!", a0));
+				writePending();
+				try {
+					fw.flush();
+					fw.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				return;
+			case AT_CONTROL:
+				status.getThieves()[a0].setStat('C');
+				break;
+			case ROB:
+				status.getThieves()[a0].setStat('A');
+				final RoomStatus room = status.getMuseum().getRooms()[a1];
+				room.setnPaintings(room.getnPaintings() - 1);
+				status.getAssaultParties()[a3].setHasCanvas(a2, true);
+				break;
+			case HAND_CANVAS:
+				status.getAssaultParties()[a1].setHasCanvas(a0, false);
+				break;
+			case CRAWL_IN:
+				status.getThieves()[a0].setStat('I');
+				break;
+			case CRAWL_OUT:
+				status.getThieves()[a0].setStat('O');
+				break;
+			case PREPARING_ASSAULT_PARTY:
+				status.setMasterStatus('P');
+				break;
+			case SET_ROOM:
+				status.getAssaultParties()[a0].setrId(a1);
+				break;
+			case SET_DISTANCE:
+				status.getAssaultParties()[a0].setDistance(a1, a2);
+				break;
+			case AT_ROOM:
+				status.getThieves()[a0].setStat('A');
+				break;
+			case SETUP_ROOMS:
+				status.getMuseum().getRooms()[a0].setupRoom(a1, a2);
+				return;
+			case SET_AGILITY:
+				status.setAgility(a0, a1);
+				return;
+		}
+		log();
+	}
+
+	/**
+	 * The writer thread's lifecycle.
+	 * Applies and writes every batch of recorded events until the buffer is closed
+	 */
+	private void writeEvents() {
+		final LogRingBuffer.Handler handler = (type, args, from) -> consume(type, args[from], args[from + 1], args[from + 2], args[from + 3]);
+		try {
+			while (buffer.drain(handler) > 0)
+				writePending();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -143,63 +401,77 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	public void header() throws RemoteException {
 		try {
 			lock.lock();
-			final int nRooms = status.getMuseum().getRooms().length;
-//			while (!(thievesFlag && roomsFlag))
-//				setup.await();
-			final StringBuilder h1 = new StringBuilder();
-			final StringBuilder h2 = new StringBuilder();
-			final StringBuilder h3 = new StringBuilder();
-
-
-			// master
-			h1.append("MstT").append(nChars(' ', entitySeparationSpace));
-			h2.append("Stat").append(nChars(' ', entitySeparationSpace));
-
-			//thieves
-			final String thiefH2 = "Stat" + nChars(' ', entitySeparationSpace) + "S" + nChars(' ', entitySeparationSpace) + "MD" // + nChars(' ', entitySeparationSpace)
-					;
-			for (int i = 0; i < nThieves; i++) {
-				h1.append(center("Thief" + (i + 1), thiefH2.length())).append(nChars(' ', entitySeparationSpace));
-				h2.append(thiefH2).append(nChars(' ', entitySeparationSpace));
-			}
-			h3.append(nChars(' ', h1.length()));
-
-			if (breakLines) {
-				log(h1.toString(), h2.toString());
-				h1.setLength(0);
-				h2.setLength(0);
-				h3.setLength(0);
-				h1.append("\t");
-				h2.append("\t");
-				h3.append("\t");
+			if (buffer != null) {
+				buffer.publish(LogEventType.HEADER, 0, 0, 0, 0);
+			} else {
+				consume(LogEventType.HEADER, 0, 0, 0, 0);
+				writePending();
 			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			lock.unlock();
+		}
+	}
 
-			//assault parties
-			final String elemH3 = "Id" + nChars(' ', entitySeparationSpace) + "Pos" + nChars(' ', entitySeparationSpace) + "Cv";
-			for (int i = 0; i < status.getAssaultParties().length; i++) {
-				final int nElems = status.getAssaultParties()[i].getElements().length;
-				h1.append(center("Assault Party " + (i + 1), 3 + entitySeparationSpace + nElems * (entitySeparationSpace + elemH3.length())));
-				h2.append(nChars(' ', 3 + entitySeparationSpace));
-				h3.append("RId").append(nChars(' ', entitySeparationSpace));
-
-				for (int i1 = 0; i1 < nElems; i1++) {
-					h2.append(center("Element " + (i1 + 1), elemH3.length())).append(nChars(' ', entitySeparationSpace));
-					h3.append(elemH3).append(nChars(' ', entitySeparationSpace));
-				}
-			}
+	/**
+	 * Logs the log header
+	 * <p>
+	 * WARNING: This method is to be called behind locks or by the writer thread.
+	 */
+	private void logHeader() {
+		final int nRooms = status.getMuseum().getRooms().length;
+		final StringBuilder h1 = new StringBuilder();
+		final StringBuilder h2 = new StringBuilder();
+		final StringBuilder h3 = new StringBuilder();
+
+
+		// master
+		appendChars(h1.append("MstT"), ' ', entitySeparationSpace);
+		appendChars(h2.append("Stat"), ' ', entitySeparationSpace);
+
+		//thieves
+		final String thiefH2 = "Stat" + nChars(' ', entitySeparationSpace) + "S" + nChars(' ', entitySeparationSpace) + "MD" // + nChars(' ', entitySeparationSpace)
+				;
+		for (int i = 0; i < nThieves; i++) {
+			appendChars(center(h1, "Thief" + (i + 1), thiefH2.length()), ' ', entitySeparationSpace);
+			appendChars(h2.append(thiefH2), ' ', entitySeparationSpace);
+		}
+		appendChars(h3, ' ', h1.length());
+
+		if (breakLines) {
+			log(h1.toString(), h2.toString());
+			h1.setLength(0);
+			h2.setLength(0);
+			h3.setLength(0);
+			h1.append("\t");
+			h2.append("\t");
+			h3.append("\t");
+		}
 
-			//museum
-			final String museumH3 = "NP" + nChars(' ', entitySeparationSpace) + "DT";
-			h1.append(center("Museum", nRooms * (museumH3.length() + entitySeparationSpace)));
-			for (int i = 0; i < nRooms; i++) {
-				h2.append(center("Room " + (i + 1), museumH3.length())).append(nChars(' ', entitySeparationSpace));
-				h3.append(museumH3).append(nChars(' ', entitySeparationSpace));
+		//assault parties
+		final String elemH3 = "Id" + nChars(' ', entitySeparationSpace) + "Pos" + nChars(' ', entitySeparationSpace) + "Cv";
+		for (int i = 0; i < status.getAssaultParties().length; i++) {
+			final int nElems = status.getAssaultParties()[i].getElements().length;
+			center(h1, "Assault Party " + (i + 1), 3 + entitySeparationSpace + nElems * (entitySeparationSpace + elemH3.length()));
+			appendChars(h2, ' ', 3 + entitySeparationSpace);
+			appendChars(h3.append("RId"), ' ', entitySeparationSpace);
+
+			for (int i1 = 0; i1 < nElems; i1++) {
+				appendChars(center(h2, "Element " + (i1 + 1), elemH3.length()), ' ', entitySeparationSpace);
+				appendChars(h3.append(elemH3), ' ', entitySeparationSpace);
 			}
+		}
 
-			log(h1.toString(), h2.toString(), h3.toString());
-		} finally {
-			lock.unlock();
+		//museum
+		final String museumH3 = "NP" + nChars(' ', entitySeparationSpace) + "DT";
+		center(h1, "Museum", nRooms * (museumH3.length() + entitySeparationSpace));
+		for (int i = 0; i < nRooms; i++) {
+			appendChars(center(h2, "Room " + (i + 1), museumH3.length()), ' ', entitySeparationSpace);
+			appendChars(h3.append(museumH3), ' ', entitySeparationSpace);
 		}
+
+		log(h1.toString(), h2.toString(), h3.toString());
 	}
 
 	/**
@@ -215,6 +487,10 @@ public class ConcurrentLogger implements IConcurrentLogger {
 		try {
 			lock.lock();
 			status.setupRooms(roomDistance, roomCanvas);
+			if (binaryLog != null) {
+				for (int i = 0; i < roomDistance.length; i++)
+					emitSetup(LogEventType.SETUP_ROOMS, i, roomDistance[i], roomCanvas[i]);
+			}
 			roomsFlag = true;
 			if (thievesFlag)
 				setup.signal();
@@ -234,6 +510,8 @@ public class ConcurrentLogger implements IConcurrentLogger {
 		try {
 			lock.lock();
 			status.setAgility(id, agility);
+			if (binaryLog != null)
+				emitSetup(LogEventType.SET_AGILITY, id, agility, 0);
 			thievesCounter++;
 			if (thievesCounter == nThieves) {
 				thievesFlag = true;
@@ -246,40 +524,41 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	}
 
 	/**
-	 * The master enters the DecidingWhatToDo state
+	 * Records a setup event in the binary log.
+	 * The text log does not need them, the status is updated directly
+	 * <p>
+	 * WARNING: This method is to be called behind locks.
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
 	 */
-	@Override
-	public void masterDecidingWhatToDo() throws RemoteException {
+	private void emitSetup(LogEventType type, int a0, int a1, int a2) {
 		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.setMasterStatus('D');
-			log();
+			if (buffer != null)
+				buffer.publish(type, a0, a1, a2, 0);
+			else
+				consume(type, a0, a1, a2, 0);
 		} catch (InterruptedException e) {
 			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
 		}
 	}
 
+	/**
+	 * The master enters the DecidingWhatToDo state
+	 */
+	@Override
+	public void masterDecidingWhatToDo() throws RemoteException {
+		record(LogEventType.MASTER_DECIDING_WHAT_TO_DO, 0, 0, 0, 0);
+	}
+
 	/**
 	 * For the transition of the master thief to the waiting for arrival state
 	 */
 	@Override
 	public void takeRest() throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.setMasterStatus('W');
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-
-			lock.unlock();
-		}
+		record(LogEventType.TAKE_REST, 0, 0, 0, 0);
 	}
 
 	/**
@@ -290,24 +569,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void sumUpResults(int paintings) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.setMasterStatus('P');
-			log();
-			log(String.format("My friends, tonight's effort produced %s priceless paintings!", paintings));
-			fw.flush();
-			fw.close();
-			hasPresentedResults = true;
-			completed.signal();
-		} catch (IOException e) {
-			e.printStackTrace();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.SUM_UP_RESULTS, paintings, 0, 0, 0);
 	}
 
 	/**
@@ -317,17 +579,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void atControl(int thief) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.getThieves()[thief].setStat('C');
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.AT_CONTROL, thief, 0, 0, 0);
 	}
 
 	/**
@@ -340,21 +592,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void rob(int thief, int roomID, int thiefIdInAssaultParty, int partyId) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.getThieves()[thief].setStat('A');
-			final RoomStatus room = status.getMuseum().getRooms()[roomID];
-			room.setnPaintings(room.getnPaintings() - 1);
-			final AssaultPartyStatus ap = status.getAssaultParties()[partyId];
-			ap.setHasCanvas(thiefIdInAssaultParty, true);
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.ROB, thief, roomID, thiefIdInAssaultParty, partyId);
 	}
 
 	/**
@@ -365,18 +603,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void handCanvas(int thiefIdInAssaultParty, int partyId) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			final AssaultPartyStatus ap = status.getAssaultParties()[partyId];
-			ap.setHasCanvas(thiefIdInAssaultParty, false);
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.HAND_CANVAS, thiefIdInAssaultParty, partyId, 0, 0);
 	}
 
 	/**
@@ -386,17 +613,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void crawlIn(int thief) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.getThieves()[thief].setStat('I');
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.CRAWL_IN, thief, 0, 0, 0);
 	}
 
 	/**
@@ -406,17 +623,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void crawlOut(int thief) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.getThieves()[thief].setStat('O');
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.CRAWL_OUT, thief, 0, 0, 0);
 	}
 
 	/**
@@ -424,17 +631,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void preparingAssaultParty() throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			status.setMasterStatus('P');
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.PREPARING_ASSAULT_PARTY, 0, 0, 0, 0);
 	}
 
 	/**
@@ -445,18 +642,7 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void setRoom(int partyId, int roomId) throws RemoteException {
-		try {
-			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			final AssaultPartyStatus ap = status.getAssaultParties()[partyId];
-			ap.setrId(roomId);
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		} finally {
-			lock.unlock();
-		}
+		record(LogEventType.SET_ROOM, partyId, roomId, 0, 0);
 	}
 
 	/**
@@ -468,33 +654,58 @@ public class ConcurrentLogger implements IConcurrentLogger {
 	 */
 	@Override
 	public void setDistance(int partyId, int thiefIdInAssaultParty, int distance) throws RemoteException {
+		record(LogEventType.SET_DISTANCE, partyId, thiefIdInAssaultParty, distance, 0);
+	}
+
+	/**
+	 * Logs the arrival of the thief at the destination room
+	 *
+	 * @param thief The thief taht arrived
+	 */
+	@Override
+	public void atRoom(int thief) throws RemoteException {
+		record(LogEventType.AT_ROOM, thief, 0, 0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int openBatchSource() throws RemoteException {
 		try {
 			lock.lock();
-			while (!(thievesFlag && roomsFlag))
-				setup.await();
-			final AssaultPartyStatus ap = status.getAssaultParties()[partyId];
-			ap.setDistance(thiefIdInAssaultParty, distance);
-			log();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
+			if (nBatchSources == nextBatchSeq.length)
+				nextBatchSeq = Arrays.copyOf(nextBatchSeq, nBatchSources * 2);
+			nextBatchSeq[nBatchSources] = 0;
+			return nBatchSources++;
 		} finally {
 			lock.unlock();
 		}
 	}
 
 	/**
-	 * Logs the arrival of the thief at the destination room
-	 *
-	 * @param thief The thief taht arrived
+	 * {@inheritDoc}
+	 * <p>
+	 * A batch whose first event is not the next one expected from its source waits until the previous batches are logged.
+	 * In synchronous mode every entry of the batch is written at once.
 	 */
 	@Override
-	public void atRoom(int thief) throws RemoteException {
+	public void logBatch(int source, long firstSeq, int[] events) throws RemoteException {
+		if (source < 0 || source >= nBatchSources)
+			throw new IllegalArgumentException("Unknown batch source: " + source);
 		try {
 			lock.lock();
 			while (!(thievesFlag && roomsFlag))
 				setup.await();
-			status.getThieves()[thief].setStat('A');
-			log();
+			while (nextBatchSeq[source] != firstSeq)
+				batchOrder.await();
+			final int nEvents = events.length / LogEventType.RECORD_SIZE;
+			for (int from = 0; from < events.length; from += LogEventType.RECORD_SIZE)
+				recordLocked(LogEventType.fromOrdinal(events[from]), events[from + 1], events[from + 2], events[from + 3], events[from + 4]);
+			if (buffer == null)
+				writePending();
+			nextBatchSeq[source] += nEvents;
+			batchOrder.signalAll();
 		} catch (InterruptedException e) {
 			throw new RuntimeException(e);
 		} finally {
@@ -515,6 +726,14 @@ public class ConcurrentLogger implements IConcurrentLogger {
 		} finally {
 			lock.unlock();
 		}
+		if (writer != null) {
+			buffer.close();
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
 	}
 
 	private boolean shutdown = false;
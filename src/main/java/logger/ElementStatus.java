@@ -18,6 +18,22 @@ public class ElementStatus implements Loggable {
      * Whether he is carrying a canvas or not
      */
     private boolean isCarryingCanvas;
+    /**
+     * The row this status was laid out in, null if it was not
+     */
+    private RowBuffer row;
+    /**
+     * Offset of the position cell in the row
+     */
+    private int posOffset;
+    /**
+     * Width of the position cell in the row
+     */
+    private int posWidth;
+    /**
+     * Offset of the canvas cell in the row
+     */
+    private int canvasOffset;
 
     /**
      * Constructor for the ElementStatus class
@@ -40,6 +56,24 @@ public class ElementStatus implements Loggable {
                 ;
     }
 
+    /**
+     * Appends the cells of this status to a row, in the same format as {@link #getMessage(int, boolean)}.
+     * From then on the setters keep them up to date
+     *
+     * @param row         the row
+     * @param nEmptyChars Number of spaces between each value
+     */
+    void layout(RowBuffer row, int nEmptyChars) {
+        this.row = row;
+        row.appendInt(id, 2);
+        row.appendChars(' ', nEmptyChars);
+        posOffset = row.length();
+        posWidth = row.appendInt(pos, 3);
+        row.appendChars(' ', nEmptyChars);
+        canvasOffset = row.appendChar(isCarryingCanvas ? 'Y' : 'N');
+        row.appendChar(' ');
+    }
+
     /**
      * Set element's current distance
      *
@@ -47,6 +81,8 @@ public class ElementStatus implements Loggable {
      */
     public void setDistance(int distance) {
         this.pos = distance;
+        if (row != null)
+            row.patchInt(posOffset, posWidth, 3, distance);
     }
 
     /**
@@ -56,5 +92,7 @@ public class ElementStatus implements Loggable {
      */
     public void setHasCanvas(boolean hasCanvas) {
         this.isCarryingCanvas = hasCanvas;
+        if (row != null)
+            row.patchChar(canvasOffset, hasCanvas ? 'Y' : 'N');
     }
 }
@@ -133,4 +133,29 @@ public interface IConcurrentLogger extends Remote, CloseableServer {
 	 */
 	void atRoom(int thief) throws RemoteException;
 
+	/**
+	 * Registers a new source of event batches.
+	 * Each source numbers its events sequentially starting at 0
+	 *
+	 * @return the identifier of the new source
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	int openBatchSource() throws RemoteException;
+
+	/**
+	 * Logs a batch of events recorded by one source.
+	 * <p>
+	 * Each event is encoded in {@link LogEventType#RECORD_SIZE} integers: the ordinal of its {@link LogEventType}
+	 * followed by its arguments, in the order of the parameters of the equivalent method.
+	 * Events of the same source are logged in sequence number order.
+	 * Events of different sources are logged in the order their batches are received.
+	 *
+	 * @param source   the identifier of the source, as given by {@link #openBatchSource()}
+	 * @param firstSeq the sequence number of the first event in the batch
+	 * @param events   the encoded events
+	 * @throws RemoteException          when the call to this remote method fails
+	 * @throws IllegalArgumentException when the source was not opened
+	 */
+	void logBatch(int source, long firstSeq, int[] events) throws RemoteException;
+
 }
@@ -0,0 +1,22 @@
+package logger;
+
+import java.rmi.RemoteException;
+
+/**
+ * The local side of the logger in a process: where the events its monitors log wait to be shipped to the logger.
+ * <p>
+ * Not a remote interface, flushing is never a call to the logger by itself, only the shipping of what is pending.
+ * In the servers it is their {@link BatchingLogger}, when the monitors log straight to the logger there is nothing to ship.
+ */
+@FunctionalInterface
+public interface ILogSink {
+
+	/**
+	 * Ships every event recorded by this process that is still waiting in a batch.
+	 * Must be called before returning to a client that can cause events in other processes,
+	 * so that those are logged after the ones they depend on
+	 *
+	 * @throws RemoteException when shipping the events to the logger fails
+	 */
+	void flush() throws RemoteException;
+}
@@ -0,0 +1,97 @@
+package logger;
+
+/**
+ * Every state change the logger can record.
+ * <p>
+ * The element names are the SCREAMING_SNAKE_CASE version of the {@link IConcurrentLogger} method that originates them
+ * (see {@link StringUtils#convertToCamelCase(String)}).
+ * Each event carries at most {@link #ARITY} integer arguments, in the same order as the method's parameters.
+ */
+public enum LogEventType {
+	/**
+	 * Id for the header event, no arguments
+	 */
+	HEADER,
+	/**
+	 * Id for the master deciding what to do event, no arguments
+	 */
+	MASTER_DECIDING_WHAT_TO_DO,
+	/**
+	 * Id for the master taking a rest event, no arguments
+	 */
+	TAKE_REST,
+	/**
+	 * Id for the results event: [paintings]
+	 */
+	SUM_UP_RESULTS,
+	/**
+	 * Id for the thief arriving at a control site event: [thief]
+	 */
+	AT_CONTROL,
+	/**
+	 * Id for the robbery event: [thief, roomID, thiefIdInAssaultParty, partyId]
+	 */
+	ROB,
+	/**
+	 * Id for the canvas handing event: [thiefIdInAssaultParty, partyId]
+	 */
+	HAND_CANVAS,
+	/**
+	 * Id for the crawl in event: [thief]
+	 */
+	CRAWL_IN,
+	/**
+	 * Id for the crawl out event: [thief]
+	 */
+	CRAWL_OUT,
+	/**
+	 * Id for the master preparing an assault party event, no arguments
+	 */
+	PREPARING_ASSAULT_PARTY,
+	/**
+	 * Id for the assault party room change event: [partyId, roomId]
+	 */
+	SET_ROOM,
+	/**
+	 * Id for the distance change event: [partyId, thiefIdInAssaultParty, distance]
+	 */
+	SET_DISTANCE,
+	/**
+	 * Id for the thief arriving at a room event: [thief]
+	 */
+	AT_ROOM,
+	/**
+	 * Id for the setup of one room, no entry is logged: [roomId, distance, paintings]
+	 */
+	SETUP_ROOMS,
+	/**
+	 * Id for the setup of a thief's agility, no entry is logged: [id, agility]
+	 */
+	SET_AGILITY,
+	;
+
+	/**
+	 * Maximum number of integer arguments of an event
+	 */
+	public static final int ARITY = 4;
+
+	/**
+	 * Number of integers used to encode an event in a batch: the ordinal of its type followed by its arguments
+	 */
+	public static final int RECORD_SIZE = ARITY + 1;
+
+	/**
+	 * Cached copy of {@link #values()}, to map ordinals back without allocating
+	 */
+	private static final LogEventType[] VALUES = values();
+
+	/**
+	 * Gets the event type with the given ordinal
+	 *
+	 * @param ordinal the ordinal of the event type
+	 * @return the event type
+	 */
+	public static LogEventType fromOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
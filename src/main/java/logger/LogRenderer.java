@@ -0,0 +1,162 @@
+package logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Offline tool that renders a {@link BinaryEventLog} into the usual text log.
+ * <p>
+ * The events are replayed through a local {@link ConcurrentLogger}, so the output is exactly what the logger
+ * would have written had it been running in text mode.
+ */
+public class LogRenderer {
+	/**
+	 * Maximum number of events replayed at once
+	 */
+	private static final int BATCH_SIZE = 4096;
+
+	/**
+	 * The binary log file
+	 */
+	private final FileChannel channel;
+	/**
+	 * The bytes read from the file and not yet decoded
+	 */
+	private final ByteBuffer in = ByteBuffer.allocateDirect(1 << 16);
+
+	/**
+	 * Opens a binary log to be rendered
+	 *
+	 * @param binaryLogPath The path to the binary log
+	 * @throws IOException when the file cannot be read
+	 */
+	public LogRenderer(String binaryLogPath) throws IOException {
+		this.channel = FileChannel.open(Paths.get(binaryLogPath), StandardOpenOption.READ);
+		this.in.flip();
+	}
+
+	/**
+	 * Renders the binary log given as first argument into the text log given as second argument (default: ./log.txt)
+	 *
+	 * @param args the path to the binary log and the path to the text log
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.err.println("LogRenderer- Please provide the binary log path");
+			return;
+		}
+		try {
+			new LogRenderer(args[0]).render(args.length < 2 ? "./log.txt" : args[1]);
+		} catch (IOException e) {
+			System.err.println("LogRenderer- " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Replays every event of the binary log, writing the text log
+	 *
+	 * @param logFilePath The path to the text log
+	 * @throws IOException when either file cannot be read or written
+	 */
+	public void render(String logFilePath) throws IOException {
+		if (readInt() != BinaryEventLog.MAGIC)
+			throw new IOException("Not a binary event log");
+		if (readInt() != BinaryEventLog.VERSION)
+			throw new IOException("Unsupported binary event log version");
+		final boolean breakLines = readInt() != 0;
+		final int entitySeparationSpace = readInt();
+		final int nThieves = readInt();
+		final int[] partySizes = new int[readInt()];
+		for (int i = 0; i < partySizes.length; i++)
+			partySizes[i] = readInt();
+		final int nRooms = readInt();
+
+		final LoggerStatus status = LoggerStatus.initial(nThieves, partySizes, nRooms);
+		final ConcurrentLogger logger = new ConcurrentLogger(breakLines, entitySeparationSpace, logFilePath, status, nThieves);
+		final int source = logger.openBatchSource();
+
+		final int[] roomDistance = new int[nRooms];
+		final int[] roomCanvas = new int[nRooms];
+		int nRoomsSet = 0;
+		final int[] batch = new int[BATCH_SIZE * LogEventType.RECORD_SIZE];
+		int nEvents = 0;
+		long seq = 0;
+
+		while (fill(BinaryEventLog.RECORD_BYTES)) {
+			final LogEventType type = LogEventType.fromOrdinal(in.get());
+			final int a0 = in.getInt();
+			final int a1 = in.getInt();
+			final int a2 = in.getInt();
+			final int a3 = in.getInt();
+			switch (type) {
+				case SETUP_ROOMS:
+					roomDistance[a0] = a1;
+					roomCanvas[a0] = a2;
+					if (++nRoomsSet == nRooms)
+						logger.setupRooms(roomDistance, roomCanvas);
+					break;
+				case SET_AGILITY:
+					logger.setAgility(a0, a1);
+					break;
+				case HEADER:
+					if (nEvents > 0) {
+						logger.logBatch(source, seq, Arrays.copyOf(batch, nEvents * LogEventType.RECORD_SIZE));
+						seq += nEvents;
+						nEvents = 0;
+					}
+					logger.header();
+					break;
+				default:
+					final int from = nEvents * LogEventType.RECORD_SIZE;
+					batch[from] = type.ordinal();
+					batch[from + 1] = a0;
+					batch[from + 2] = a1;
+					batch[from + 3] = a2;
+					batch[from + 4] = a3;
+					if (++nEvents == BATCH_SIZE) {
+						logger.logBatch(source, seq, batch);
+						seq += nEvents;
+						nEvents = 0;
+					}
+			}
+		}
+		if (nEvents > 0)
+			logger.logBatch(source, seq, Arrays.copyOf(batch, nEvents * LogEventType.RECORD_SIZE));
+		channel.close();
+	}
+
+	/**
+	 * Reads a single int from the file
+	 *
+	 * @return the int read
+	 * @throws IOException when the file cannot be read or ends prematurely
+	 */
+	private int readInt() throws IOException {
+		if (!fill(Integer.BYTES))
+			throw new IOException("Truncated binary event log header");
+		return in.getInt();
+	}
+
+	/**
+	 * Makes sure the given number of bytes is available in the input buffer
+	 *
+	 * @param nBytes the number of bytes needed
+	 * @return false if the file ended before
+	 * @throws IOException when the file cannot be read
+	 */
+	private boolean fill(int nBytes) throws IOException {
+		while (in.remaining() < nBytes) {
+			in.compact();
+			final int n = channel.read(in);
+			in.flip();
+			if (n < 0)
+				return false;
+		}
+		return true;
+	}
+}
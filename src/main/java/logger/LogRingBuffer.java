@@ -0,0 +1,162 @@
+package logger;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, preallocated queue of log events.
+ * <p>
+ * Producers publish events one at a time and block while the buffer is full.
+ * A single consumer drains every event available at once and processes them outside the lock,
+ * the slots it is reading are only handed back to producers after the whole batch was processed.
+ * No objects are allocated after construction.
+ */
+class LogRingBuffer {
+	/**
+	 * Handler for the events drained from the buffer
+	 */
+	interface Handler {
+		/**
+		 * Processes one event
+		 *
+		 * @param type the event's type
+		 * @param args the buffer holding the arguments
+		 * @param from the index of the first argument of this event in args
+		 */
+		void onEvent(LogEventType type, int[] args, int from);
+	}
+
+	/**
+	 * The mutex lock
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * The condition signaled when an event is published
+	 */
+	private final Condition notEmpty = lock.newCondition();
+	/**
+	 * The condition signaled when the consumer frees slots
+	 */
+	private final Condition notFull = lock.newCondition();
+	/**
+	 * The type of the event in each slot
+	 */
+	private final LogEventType[] types;
+	/**
+	 * The arguments of the event in each slot, {@link LogEventType#ARITY} per slot
+	 */
+	private final int[] args;
+	/**
+	 * Used to map a sequence number into a slot, the capacity is a power of 2
+	 */
+	private final int mask;
+	/**
+	 * Sequence number of the next event to be published
+	 */
+	private long head;
+	/**
+	 * Sequence number of the next event to be consumed
+	 */
+	private long tail;
+	/**
+	 * Whether no more events will be published
+	 */
+	private boolean closed;
+
+	/**
+	 * Creates the ring buffer
+	 *
+	 * @param capacity the minimum number of events it can hold, rounded up to a power of 2
+	 */
+	LogRingBuffer(int capacity) {
+		int size = 1;
+		while (size < capacity)
+			size <<= 1;
+		this.types = new LogEventType[size];
+		this.args = new int[size * LogEventType.ARITY];
+		this.mask = size - 1;
+		this.head = 0;
+		this.tail = 0;
+		this.closed = false;
+	}
+
+	/**
+	 * Adds an event to the buffer, waiting while it is full
+	 *
+	 * @param type the event type
+	 * @param a0   the first argument
+	 * @param a1   the second argument
+	 * @param a2   the third argument
+	 * @param a3   the fourth argument
+	 * @throws InterruptedException when interrupted while waiting for space
+	 */
+	void publish(LogEventType type, int a0, int a1, int a2, int a3) throws InterruptedException {
+		try {
+			lock.lock();
+			while (head - tail == types.length)
+				notFull.await();
+			final int slot = (int) (head & mask);
+			final int from = slot * LogEventType.ARITY;
+			types[slot] = type;
+			args[from] = a0;
+			args[from + 1] = a1;
+			args[from + 2] = a2;
+			args[from + 3] = a3;
+			if (head++ == tail)
+				notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until there are events available and hands all of them to the handler, in the order they were published.
+	 * <p>
+	 * Must only be called by a single consumer thread.
+	 *
+	 * @param handler the event handler
+	 * @return the number of events handled, 0 when the buffer is closed and empty
+	 * @throws InterruptedException when interrupted while waiting for events
+	 */
+	int drain(Handler handler) throws InterruptedException {
+		final long from;
+		final long to;
+		try {
+			lock.lock();
+			while (head == tail && !closed)
+				notEmpty.await();
+			from = tail;
+			to = head;
+		} finally {
+			lock.unlock();
+		}
+
+		for (long seq = from; seq < to; seq++) {
+			final int slot = (int) (seq & mask);
+			handler.onEvent(types[slot], args, slot * LogEventType.ARITY);
+		}
+
+		try {
+			lock.lock();
+			tail = to;
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		return (int) (to - from);
+	}
+
+	/**
+	 * Marks the buffer as closed.
+	 * The consumer still drains what was published before
+	 */
+	void close() {
+		try {
+			lock.lock();
+			closed = true;
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
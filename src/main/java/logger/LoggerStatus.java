@@ -1,7 +1,5 @@
 package logger;
 
-import static logger.StringUtils.nChars;
-
 /**
  * Class representing every property in a log entry
  */
@@ -24,7 +22,22 @@ public class LoggerStatus implements Loggable {
      * The status of the master thief
      */
     private char masterStatus;
-
+    /**
+     * The current entry, laid out once and patched by every status as it changes
+     */
+    private final RowBuffer row = new RowBuffer();
+    /**
+     * Number of spaces between each value the row was laid out with
+     */
+    private int rowEmptyChars;
+    /**
+     * Whether the row was laid out broken in multiple lines
+     */
+    private boolean rowBreakLines;
+    /**
+     * Offset of the master thief status cell in the row
+     */
+    private int masterStatusOffset;
 
     /**
      * Constructor for the LoggerStatus class
@@ -41,22 +54,75 @@ public class LoggerStatus implements Loggable {
         this.museum = museum;
     }
 
+    /**
+     * Creates the status at the start of the simulation: every thief at the concentration site,
+     * every element of every party at position 0 without canvas and every room empty
+     *
+     * @param nThieves   The number of thieves
+     * @param partySizes The number of elements of each assault party
+     * @param nRooms     The number of rooms in the museum
+     * @return The initial status
+     */
+    public static LoggerStatus initial(int nThieves, int[] partySizes, int nRooms) {
+        final ThiefLogStatus[] thieves = new ThiefLogStatus[nThieves];
+        for (int i = 0; i < thieves.length; i++)
+            thieves[i] = new ThiefLogStatus('C', 'P');
+
+        final AssaultPartyStatus[] assaultParties = new AssaultPartyStatus[partySizes.length];
+        for (int i = 0; i < assaultParties.length; i++) {
+            final ElementStatus[] elements = new ElementStatus[partySizes[i]];
+            for (int i1 = 0; i1 < elements.length; i1++)
+                elements[i1] = new ElementStatus(i1, 0, false);
+            assaultParties[i] = new AssaultPartyStatus(0, elements);
+        }
+
+        final RoomStatus[] rooms = new RoomStatus[nRooms];
+        for (int i = 0; i < rooms.length; i++)
+            rooms[i] = new RoomStatus();
+
+        return new LoggerStatus('P', thieves, assaultParties, new MuseumStatus(rooms));
+    }
+
     @Override
     public String getMessage(int nEmptyChars, boolean breakLines) {
-        StringBuilder s = new StringBuilder(String.format(" %C  ", masterStatus) + nChars(' ', nEmptyChars));
+        return row(nEmptyChars, breakLines).toString();
+    }
+
+    /**
+     * Gets the row holding the current entry.
+     * The row is only laid out again the first time, when the format changes
+     * or when a value no longer fits in its cell; otherwise every status has already patched its own cells.
+     *
+     * @param nEmptyChars Number of spaces between each value
+     * @param breakLines  Whether to break the entry in multiple lines
+     * @return the row holding the current entry
+     */
+    private RowBuffer row(int nEmptyChars, boolean breakLines) {
+        if (row.isValid() && rowEmptyChars == nEmptyChars && rowBreakLines == breakLines)
+            return row;
+
+        row.reset();
+        rowEmptyChars = nEmptyChars;
+        rowBreakLines = breakLines;
+
+        row.appendChar(' ');
+        masterStatusOffset = row.appendChar(Character.toUpperCase(masterStatus));
+        row.appendChars(' ', 2 + nEmptyChars);
 
-        for (ThiefLogStatus thief : thieves)
-            s.append(thief.getMessage(nEmptyChars, breakLines)).append(nChars(' ', nEmptyChars));
+        for (ThiefLogStatus thief : thieves) {
+            thief.layout(row, nEmptyChars);
+            row.appendChars(' ', nEmptyChars);
+        }
 
         if (breakLines)
-            s.append("\n\t");
+            row.appendString("\n\t");
 
         for (AssaultPartyStatus assaultParty : assaultParties)
-            s.append(assaultParty.getMessage(nEmptyChars, breakLines));//.append(nChars(' ', nEmptyChars));
+            assaultParty.layout(row, nEmptyChars);
 
-        s.append(museum.getMessage(nEmptyChars, breakLines));
+        museum.layout(row, nEmptyChars);
 
-        return s.toString();
+        return row;
     }
 
     /**
@@ -66,6 +132,8 @@ public class LoggerStatus implements Loggable {
      */
     public void setMasterStatus(char masterStatus) {
         this.masterStatus = masterStatus;
+        if (row.isValid())
+            row.patchChar(masterStatusOffset, Character.toUpperCase(masterStatus));
     }
 
     /**
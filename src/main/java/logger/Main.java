@@ -2,7 +2,10 @@ package logger;
 
 
 import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
 import Register.RMIUtils;
+import transport.TransportStats;
+import transport.TunedSockets;
 
 import java.io.IOException;
 import java.rmi.*;
@@ -44,46 +47,16 @@ public class Main {
 				return;
 			}
 
-			final SimulationDefaults params = SimulationDefaults.DEFAULT;
-
-			final ThiefLogStatus[] thiefLogStatuses = new ThiefLogStatus[params.getNumberOfThieves()];
-			for (int i = 0; i < thiefLogStatuses.length; i++) {
-				thiefLogStatuses[i] = new ThiefLogStatus('C', 'P');
-			}
-
-			int[] nThievesPerParty = new int[params.getNumberOfAssaultParties()];
-			int temp = params.getNumberOfThieves();
-			for (int i = 0; i < params.getNumberOfAssaultParties(); i++) {
-				if (temp >= params.getAssaultPartySize()) {
-					nThievesPerParty[i] = params.getAssaultPartySize();
-					temp = temp - params.getAssaultPartySize();
-				} else if (temp == 0) {
-					nThievesPerParty[i] = 0;
-				} else {
-					nThievesPerParty[i] = temp;
-					temp = 0;
-				}
-			}
-
-			final AssaultPartyStatus[] assaultPartyStatuses = new AssaultPartyStatus[params.getNumberOfAssaultParties()];
-			for (int i = 0; i < assaultPartyStatuses.length; i++) {
-				final ElementStatus[] elementStatuses = new ElementStatus[nThievesPerParty[i]];
-				for (int i1 = 0; i1 < elementStatuses.length; i1++) {
-					elementStatuses[i1] = new ElementStatus(i1, 0, false);
-				}
-				// TODO: 4/22/23 getAssaultParty room
-				assaultPartyStatuses[i] = new AssaultPartyStatus(0, elementStatuses);
-			}
-
-			final RoomStatus[] roomStatuses = new RoomStatus[params.getNumberOfRooms()];
-			for (int i = 0; i < roomStatuses.length; i++) {
-				// TODO: 4/22/23 bind to configuration
-				roomStatuses[i] = new RoomStatus();
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("ConcurrentLogger- Could not load the simulation configuration: " + e.getMessage());
+				return;
 			}
+			Instrumentation.setEnabled(params.isInstrumented());
 
-			final MuseumStatus museumStatus = new MuseumStatus(roomStatuses);
-
-			final LoggerStatus status = new LoggerStatus('P', thiefLogStatuses, assaultPartyStatuses, museumStatus);
+			final LoggerStatus status = LoggerStatus.initial(params.getNumberOfThieves(), params.getPartySizes(), params.getNumberOfRooms());
 
 			/* create and install the security manager */
 
@@ -95,15 +68,30 @@ public class Main {
 
 			/* RMI registry service */
 
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
-
-			final ConcurrentLogger concurrentLogger = new ConcurrentLogger(params.isBreakLogger(), params.getEntitySeparationSpace(), params.getLogFilePath(), status, params.getNumberOfThieves());
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			if (params.isTunedSockets())
+				rmiUtils.setSocketFactories(new TunedSockets(params.getSocketBufferSize(), params.getCompressionThreshold()));
+			rmiUtils.setBinaryTransport(params.isBinaryTransport());
+
+			final ConcurrentLogger concurrentLogger = new ConcurrentLogger(
+					params.isBreakLogger(),
+					params.getEntitySeparationSpace(),
+					params.isBinaryLogger() ? params.getBinaryLogFilePath() : params.getLogFilePath(),
+					status,
+					params.getNumberOfThieves(),
+					params.getLoggerBufferSize(),
+					params.isBinaryLogger()
+			);
 			rmiUtils.register(concurrentLogger, port);
 
 			System.out.println("LOG waiting...");
 			concurrentLogger.waitUntilCompletion();
 			rmiUtils.unbind(concurrentLogger);
 
+			if (Instrumentation.isEnabled())
+				System.out.print(Instrumentation.report());
+			if (params.isTunedSockets())
+				System.out.print(TransportStats.report());
 			System.out.println("LOG COMPLETED");
 
 		} catch (RemoteException e) {
@@ -1,6 +1,6 @@
 package logger;
 
-import static logger.StringUtils.nChars;
+import static logger.StringUtils.appendChars;
 
 /**
  * Class representing every property of the museum to be logged
@@ -25,10 +25,23 @@ public class MuseumStatus implements Loggable {
     public String getMessage(int nEmptyChars, boolean breakLines) {
         StringBuilder s = new StringBuilder();
         for (RoomStatus r : rooms)
-            s.append(r.getMessage(nEmptyChars, breakLines)).append(nChars(' ', nEmptyChars));
+            appendChars(s.append(r.getMessage(nEmptyChars, breakLines)), ' ', nEmptyChars);
         return s.toString();
     }
 
+    /**
+     * Appends the cells of every room to a row, in the same format as {@link #getMessage(int, boolean)}
+     *
+     * @param row         the row
+     * @param nEmptyChars Number of spaces between each value
+     */
+    void layout(RowBuffer row, int nEmptyChars) {
+        for (RoomStatus r : rooms) {
+            r.layout(row, nEmptyChars);
+            row.appendChars(' ', nEmptyChars);
+        }
+    }
+
     /**
      * Get room's status
      *
@@ -0,0 +1,41 @@
+package logger;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed runs of spaces, so padding does not allocate on the logger's hot path.
+ * Backs {@link StringUtils#nChars(char, int)} and {@link StringUtils#appendChars(StringBuilder, char, int)}.
+ */
+final class Padding {
+    /**
+     * Longest run kept in the table, longer runs are built on demand
+     */
+    static final int MAX_RUN = 128;
+    /**
+     * MAX_RUN spaces, to be appended in a single copy
+     */
+    static final char[] SPACES = new char[MAX_RUN];
+    /**
+     * The run of spaces of each length, the length is the array index
+     */
+    private static final String[] RUNS = new String[MAX_RUN + 1];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+        for (int i = 0; i < RUNS.length; i++)
+            RUNS[i] = new String(SPACES, 0, i);
+    }
+
+    private Padding() {
+    }
+
+    /**
+     * Gets a run of spaces
+     *
+     * @param n The number of spaces, at most {@link #MAX_RUN}
+     * @return The cached run of n spaces
+     */
+    static String spaces(int n) {
+        return RUNS[n];
+    }
+}
@@ -14,6 +14,26 @@ public class RoomStatus implements Loggable {
      * The distance it is from the concentration site
      */
     private int distance;
+    /**
+     * The row this status was laid out in, null if it was not
+     */
+    private RowBuffer row;
+    /**
+     * Offset of the number of paintings cell in the row
+     */
+    private int nPaintingsOffset;
+    /**
+     * Width of the number of paintings cell in the row
+     */
+    private int nPaintingsWidth;
+    /**
+     * Offset of the distance cell in the row
+     */
+    private int distanceOffset;
+    /**
+     * Width of the distance cell in the row
+     */
+    private int distanceWidth;
 
 
     /**
@@ -29,6 +49,22 @@ public class RoomStatus implements Loggable {
         return String.format("%2d", nPaintings) + nChars(' ', nEmptyChars) + String.format("%2d", distance);
     }
 
+    /**
+     * Appends the cells of this status to a row, in the same format as {@link #getMessage(int, boolean)}.
+     * From then on the setters keep them up to date
+     *
+     * @param row         the row
+     * @param nEmptyChars Number of spaces between each value
+     */
+    void layout(RowBuffer row, int nEmptyChars) {
+        this.row = row;
+        nPaintingsOffset = row.length();
+        nPaintingsWidth = row.appendInt(nPaintings, 2);
+        row.appendChars(' ', nEmptyChars);
+        distanceOffset = row.length();
+        distanceWidth = row.appendInt(distance, 2);
+    }
+
     /**
      * Getter for the number of paintings in the room
      *
@@ -45,6 +81,8 @@ public class RoomStatus implements Loggable {
      */
     public void setnPaintings(int nPaintings) {
         this.nPaintings = nPaintings;
+        if (row != null)
+            row.patchInt(nPaintingsOffset, nPaintingsWidth, 2, nPaintings);
     }
 
     /**
@@ -56,6 +94,10 @@ public class RoomStatus implements Loggable {
     public void setupRoom(int roomDistance, int nPaintings) {
         this.distance = roomDistance;
         this.nPaintings = nPaintings;
+        if (row != null) {
+            row.patchInt(nPaintingsOffset, nPaintingsWidth, 2, nPaintings);
+            row.patchInt(distanceOffset, distanceWidth, 2, roomDistance);
+        }
     }
 
 }
@@ -0,0 +1,180 @@
+package logger;
+
+import java.util.Arrays;
+
+/**
+ * A log entry laid out in a fixed character buffer.
+ * <p>
+ * The status classes append their cells once, remember where each cell starts,
+ * and from then on only patch their own cells when their values change.
+ * When a new value does not fit the width of its cell the buffer is invalidated and has to be laid out again.
+ * <p>
+ * This class is NOT thread safe.
+ */
+class RowBuffer {
+	/**
+	 * The characters of the entry
+	 */
+	private char[] chars = new char[256];
+	/**
+	 * Number of characters in use
+	 */
+	private int length = 0;
+	/**
+	 * Whether every cell still matches its value
+	 */
+	private boolean valid = false;
+
+	/**
+	 * Empties the buffer, to lay out the entry again
+	 */
+	void reset() {
+		length = 0;
+		valid = true;
+	}
+
+	/**
+	 * Whether the buffer holds the current entry
+	 *
+	 * @return false if it was never laid out or a value outgrew its cell
+	 */
+	boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Getter for the number of characters in use, the offset of the next cell to be appended
+	 *
+	 * @return the number of characters in use
+	 */
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Appends a character
+	 *
+	 * @param c the character
+	 * @return the offset it was written to
+	 */
+	int appendChar(char c) {
+		ensureCapacity(1);
+		chars[length] = c;
+		return length++;
+	}
+
+	/**
+	 * Appends a character repeated n times
+	 *
+	 * @param c the character
+	 * @param n the number of times to repeat it
+	 */
+	void appendChars(char c, int n) {
+		ensureCapacity(n);
+		Arrays.fill(chars, length, length + n, c);
+		length += n;
+	}
+
+	/**
+	 * Appends a string
+	 *
+	 * @param s the string
+	 */
+	void appendString(String s) {
+		ensureCapacity(s.length());
+		s.getChars(0, s.length(), chars, length);
+		length += s.length();
+	}
+
+	/**
+	 * Appends an integer right aligned in at least minWidth characters, as String.format("%nd") would
+	 *
+	 * @param value    the integer
+	 * @param minWidth the minimum width of the cell
+	 * @return the width of the cell
+	 */
+	int appendInt(int value, int minWidth) {
+		final int width = Math.max(minWidth, digits(value));
+		ensureCapacity(width);
+		writeInt(length, width, value);
+		length += width;
+		return width;
+	}
+
+	/**
+	 * Replaces the character in a cell
+	 *
+	 * @param offset the offset of the cell
+	 * @param c      the new character
+	 */
+	void patchChar(int offset, char c) {
+		chars[offset] = c;
+	}
+
+	/**
+	 * Replaces the integer in a cell.
+	 * If the integer does not have the same width, the buffer is invalidated
+	 *
+	 * @param offset   the offset of the cell
+	 * @param width    the width of the cell
+	 * @param minWidth the minimum width of the cell
+	 * @param value    the new integer
+	 */
+	void patchInt(int offset, int width, int minWidth, int value) {
+		if (Math.max(minWidth, digits(value)) != width)
+			valid = false;
+		else
+			writeInt(offset, width, value);
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+
+	/**
+	 * Writes an integer right aligned in a cell, padded with spaces
+	 *
+	 * @param offset the offset of the cell
+	 * @param width  the width of the cell, at least the number of characters of the integer
+	 * @param value  the integer
+	 */
+	private void writeInt(int offset, int width, int value) {
+		int i = offset + width;
+		long v = Math.abs((long) value);
+		do {
+			chars[--i] = (char) ('0' + v % 10);
+			v /= 10;
+		} while (v != 0);
+		if (value < 0)
+			chars[--i] = '-';
+		while (i > offset)
+			chars[--i] = ' ';
+	}
+
+	/**
+	 * Number of characters of an integer, including the sign
+	 *
+	 * @param value the integer
+	 * @return the number of characters
+	 */
+	private static int digits(int value) {
+		int n = value < 0 ? 2 : 1;
+		long v = Math.abs((long) value);
+		while (v >= 10) {
+			v /= 10;
+			n++;
+		}
+		return n;
+	}
+
+	/**
+	 * Grows the buffer if needed
+	 *
+	 * @param n the number of characters that are going to be appended
+	 */
+	private void ensureCapacity(int n) {
+		if (length + n > chars.length)
+			chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + n));
+	}
+}
@@ -1,7 +1,6 @@
 package logger;
 
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Arrays;
 
 /**
  * Utility functions to work with strings
@@ -19,26 +18,63 @@ public interface StringUtils {
         if (s == null || size <= s.length()) return s;
 
         StringBuilder sb = new StringBuilder(size);
-//		sb.append(" ".repeat((size - s.length()) / 2));
-        sb.append(nChars(' ', (size - s.length()) / 2));
-        sb.append(s);
-        while (sb.length() < size) {
-            sb.append(' ');
-        }
+        center(sb, s, size);
         return sb.toString();
     }
 
+    /**
+     * Appends a given string centered in the given space, with possibly one more character to the right.
+     * Nothing but the builder's own storage is allocated.
+     *
+     * @param sb   The builder to append to
+     * @param s    The string to center
+     * @param size The space it has to be centered on
+     * @return The given builder
+     */
+    static StringBuilder center(StringBuilder sb, String s, int size) {
+        final int padding = Math.max(size - s.length(), 0);
+        appendChars(sb, ' ', padding / 2);
+        sb.append(s);
+        return appendChars(sb, ' ', padding - padding / 2);
+    }
+
     /**
      * Repeates the given character n times.
+     * Runs of spaces are taken from a precomputed table and not allocated.
      *
      * @param c The character to be repeated
      * @param n The number of times to repeat it
      * @return The character repeated n times
      */
     static String nChars(char c, int n) {
-        return IntStream.range(0, n)
-                .mapToObj(i -> String.valueOf(c))
-                .collect(Collectors.joining());
+        if (c == ' ' && n <= Padding.MAX_RUN)
+            return Padding.spaces(Math.max(n, 0));
+        if (n <= 0)
+            return "";
+        final char[] chars = new char[n];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * Appends the given character n times to a builder, without allocating an intermediate string.
+     *
+     * @param sb The builder to append to
+     * @param c  The character to be repeated
+     * @param n  The number of times to repeat it
+     * @return The given builder
+     */
+    static StringBuilder appendChars(StringBuilder sb, char c, int n) {
+        if (c == ' ') {
+            for (; n > Padding.MAX_RUN; n -= Padding.MAX_RUN)
+                sb.append(Padding.SPACES, 0, Padding.MAX_RUN);
+            if (n > 0)
+                sb.append(Padding.SPACES, 0, n);
+        } else {
+            for (; n > 0; n--)
+                sb.append(c);
+        }
+        return sb;
     }
 
 
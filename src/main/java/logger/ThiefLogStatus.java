@@ -18,6 +18,22 @@ public class ThiefLogStatus implements Loggable {
 	 * The maximum distance he can walk at once
 	 */
 	private int maxDisplacement;
+	/**
+	 * The row this status was laid out in, null if it was not
+	 */
+	private RowBuffer row;
+	/**
+	 * Offset of the status cell in the row
+	 */
+	private int statOffset;
+	/**
+	 * Offset of the maximum displacement cell in the row
+	 */
+	private int maxDisplacementOffset;
+	/**
+	 * Width of the maximum displacement cell in the row
+	 */
+	private int maxDisplacementWidth;
 
 	/**
 	 * Constructor for the ThiefLogStatus
@@ -40,6 +56,24 @@ public class ThiefLogStatus implements Loggable {
 				;
 	}
 
+	/**
+	 * Appends the cells of this status to a row, in the same format as {@link #getMessage(int, boolean)}.
+	 * From then on the setters keep them up to date
+	 *
+	 * @param row         the row
+	 * @param nEmptyChars Number of spaces between each value
+	 */
+	void layout(RowBuffer row, int nEmptyChars) {
+		this.row = row;
+		row.appendChar(' ');
+		statOffset = row.appendChar(Character.toUpperCase(stat));
+		row.appendChars(' ', 2 + nEmptyChars);
+		row.appendChar(Character.toUpperCase(waitingOrRobbing));
+		row.appendChars(' ', nEmptyChars);
+		maxDisplacementOffset = row.length();
+		maxDisplacementWidth = row.appendInt(maxDisplacement, 2);
+	}
+
 	/**
 	 * Setter for the thief state
 	 *
@@ -47,6 +81,8 @@ public class ThiefLogStatus implements Loggable {
 	 */
 	public void setStat(char stat) {
 		this.stat = stat;
+		if (row != null)
+			row.patchChar(statOffset, Character.toUpperCase(stat));
 	}
 
 	/**
@@ -56,6 +92,8 @@ public class ThiefLogStatus implements Loggable {
 	 */
 	public void setMaxDisplacement(int agility) {
 		maxDisplacement = agility;
+		if (row != null)
+			row.patchInt(maxDisplacementOffset, maxDisplacementWidth, 2, agility);
 	}
 
 }
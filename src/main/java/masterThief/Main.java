@@ -1,11 +1,14 @@
 package masterThief;
 
+import SimulationDefaults.SimulationDefaults;
 import collectionSite.CollectionSite;
 import collectionSite.ICollectionSite;
 import concentrationSite.ConcentrationSite;
 import concentrationSite.IConcentrationSite;
 import Register.RMIUtils;
 
+import java.io.IOException;
+
 /**
  * Entry point for the master thief's client
  */
@@ -31,9 +34,18 @@ public class Main {
 				return;
 			}
 
-			/* RMI registry service */
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("MasterThief- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+
+			/* RMI registry service, both sites are looked up at once, waiting for them if they are not up yet */
 
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			rmiUtils.resolve(RMIUtils.name(CollectionSite.class), RMIUtils.name(ConcentrationSite.class));
 
 			/* get remote reference to CollectionSite*/
 
@@ -0,0 +1,87 @@
+package museum;
+
+import java.rmi.RemoteException;
+
+/**
+ * Client side proxy of the museum that caches the distance to the rooms.
+ * <p>
+ * The distances never change after the museum is created, so they are fetched with a single
+ * {@link IMuseum#getRoomDistance()} call the first time one is needed, and every later {@link #getRoomDistance(int)}
+ * is answered locally. The array of distances is shared by every caller and must not be modified.
+ * Every other call is forwarded to the museum.
+ */
+public class CachingMuseum implements IMuseum {
+	/**
+	 * The remote museum
+	 */
+	private final IMuseum museum;
+	/**
+	 * The distance to every room, null until first needed.
+	 * Two threads may both fetch it the first time, they get the same distances
+	 */
+	private volatile int[] roomDistance;
+
+	/**
+	 * Creates the caching proxy
+	 *
+	 * @param museum The remote museum
+	 */
+	public CachingMuseum(IMuseum museum) {
+		this.museum = museum;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRoomDistance(int roomID) throws RemoteException {
+		if (roomID == -1)
+			return -1;
+		return getRoomDistance()[roomID];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int[] getRoomDistance() throws RemoteException {
+		int[] distances = roomDistance;
+		if (distances == null) {
+			distances = museum.getRoomDistance();
+			roomDistance = distances;
+		}
+		return distances;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean rollCanvas(int thief, int roomID, int partyID, int assaultPartyID) throws RemoteException {
+		return museum.rollCanvas(thief, roomID, partyID, assaultPartyID);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int[] getRoomPaintings() throws RemoteException {
+		return museum.getRoomPaintings();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void waitUntilCompletion() throws RemoteException {
+		museum.waitUntilCompletion();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() throws RemoteException {
+		museum.shutdown();
+	}
+}
@@ -38,4 +38,13 @@ public interface IMuseum extends Remote, CloseableServer {
 	 * @throws RemoteException when the call to this remote method fails
 	 */
 	int[] getRoomPaintings() throws RemoteException;
+
+	/**
+	 * Gets the distance to every room.
+	 * The index in the array is the id of the room
+	 *
+	 * @return the distance to every room
+	 * @throws RemoteException when the call to this remote method fails
+	 */
+	int[] getRoomDistance() throws RemoteException;
 }
@@ -1,9 +1,15 @@
 package museum;
 
 import SimulationDefaults.SimulationDefaults;
+import instrumentation.Instrumentation;
+import logger.BatchingLogger;
 import logger.ConcurrentLogger;
 import logger.IConcurrentLogger;
 import Register.RMIUtils;
+import transport.TransportStats;
+import transport.TunedSockets;
+
+import java.io.IOException;
 
 /**
  * Entry point  for the museum server
@@ -44,6 +50,15 @@ public class Main {
 				return;
 			}
 
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Museum- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+			Instrumentation.setEnabled(params.isInstrumented());
+
 			/* create and install the security manager */
 
 			if (System.getSecurityManager() == null)
@@ -51,15 +66,23 @@ public class Main {
 			System.out.println("Security manager was installed!");
 
 			/* RMI registry service */
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
-			final IConcurrentLogger logger = (IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class);
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+			if (params.isTunedSockets())
+				rmiUtils.setSocketFactories(new TunedSockets(params.getSocketBufferSize(), params.getCompressionThreshold()));
+			rmiUtils.setBinaryTransport(params.isBinaryTransport());
+			final BatchingLogger logger = new BatchingLogger(
+					(IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class),
+					params.getLoggerBatchSize(),
+					params.getLoggerFlushInterval()
+			);
 
 			final Museum museum = new Museum(
-					SimulationDefaults.DEFAULT.getNumberOfRooms(),
-					SimulationDefaults.DEFAULT.getMaxPaintings(),
-					SimulationDefaults.DEFAULT.getMinPaintings(),
-					SimulationDefaults.DEFAULT.getMaxDistance(),
-					SimulationDefaults.DEFAULT.getMinDistance(),
+					params.getNumberOfRooms(),
+					params.getMaxPaintings(),
+					params.getMinPaintings(),
+					params.getMaxDistance(),
+					params.getMinDistance(),
+					logger,
 					logger
 			);
 
@@ -68,6 +91,10 @@ public class Main {
 			System.out.println("MU waiting...");
 			museum.waitUntilCompletion();
 			rmiUtils.unbind(museum);
+			if (Instrumentation.isEnabled())
+				System.out.print(Instrumentation.report());
+			if (params.isTunedSockets())
+				System.out.print(TransportStats.report());
 			System.out.println("MU COMPLETED");
 
 		} catch (Exception e) {
@@ -1,13 +1,20 @@
 package museum;
 
+import instrumentation.Instrumentation;
 import logger.IConcurrentLogger;
+import logger.ILogSink;
 
 import java.rmi.RemoteException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * The class representing the museum with all it's rooms
+ * The class representing the museum with all it's rooms.
+ * <p>
+ * The distances never change after the museum is created and the paintings of each room are an atomic counter,
+ * so the thieves rob and ask for distances without taking the lock, and parties in different rooms never contend.
+ * The lock is only used to wait for the shutdown.
  */
 public class Museum implements IMuseum {
 	/**
@@ -15,14 +22,18 @@ public class Museum implements IMuseum {
 	 */
 	private final IConcurrentLogger logger;
 	/**
-	 * The mutex's lock
+	 * Where the events logged by this monitor wait to be shipped to the logger
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ILogSink sink;
+	/**
+	 * The mutex's lock, for the shutdown
+	 */
+	private final ReentrantLock lock = Instrumentation.newLock(Museum.class);
 	/**
 	 * Number of canvas of each room.
 	 * The index in the array is the room identifier.
 	 */
-	private final int[] roomPaintings;
+	private final AtomicIntegerArray roomPaintings;
 	/**
 	 * Distance from the concentration site to each room
 	 */
@@ -37,17 +48,20 @@ public class Museum implements IMuseum {
 	 * @param maxDistance   The maximum distance a room can be from the concentration site
 	 * @param minDistance   The minimum distance a room can be from the concentration site
 	 * @param logger        The concurrent logger
+	 * @param sink          Where the logged events wait to be shipped, flushed before returning to a client
 	 * @throws RemoteException when the call to this remote method fails
 	 */
-	public Museum(int numberOfRooms, int maxPaintings, int minPaintings, int maxDistance, int minDistance, IConcurrentLogger logger) throws RemoteException {
+	public Museum(int numberOfRooms, int maxPaintings, int minPaintings, int maxDistance, int minDistance, IConcurrentLogger logger, ILogSink sink) throws RemoteException {
 		this.logger = logger;
-		this.roomPaintings = new int[numberOfRooms];
+		this.sink = sink;
+		final int[] roomPaintings = new int[numberOfRooms];
 		this.roomDistance = new int[numberOfRooms];
 
 		for (int i = 0; i < numberOfRooms; i++) {
-			this.roomPaintings[i] = (int) ((Math.random() * (maxPaintings - minPaintings)) + minPaintings);
+			roomPaintings[i] = (int) ((Math.random() * (maxPaintings - minPaintings)) + minPaintings);
 			this.roomDistance[i] = (int) ((Math.random() * (maxDistance - minDistance)) + minDistance);
 		}
+		this.roomPaintings = new AtomicIntegerArray(roomPaintings);
 		this.logger.setupRooms(roomDistance, roomPaintings);
 
 //		logger.makeThreadWait();
@@ -86,15 +100,10 @@ public class Museum implements IMuseum {
 	 */
 	@Override
 	public int getRoomDistance(int roomID) throws RemoteException {
-		try {
-			lock.lock();
-			if (roomID != -1)
-				return roomDistance[roomID];
-			else
-				return -1;
-		} finally {
-			lock.unlock();
-		}
+		if (roomID != -1)
+			return roomDistance[roomID];
+		else
+			return -1;
 	}
 
 	/**
@@ -103,10 +112,8 @@ public class Museum implements IMuseum {
 	@Override
 	public boolean rollCanvas(int thief, int roomID, int partyID, int assaultPartyID) throws RemoteException {
 		try {
-			lock.lock();
 			logger.atRoom(thief);
-			if (roomPaintings[roomID] > 0) {
-				roomPaintings[roomID]--;
+			if (takePainting(roomID)) {
 				logger.rob(thief, roomID, partyID, assaultPartyID);
 				return true;
 			} else {
@@ -115,25 +122,41 @@ public class Museum implements IMuseum {
 		} catch (RemoteException e) {
 			throw new RuntimeException(e);
 		} finally {
-			lock.unlock();
+			sink.flush();
 		}
 	}
 
+	/**
+	 * Takes a painting from a room, if there is any left
+	 *
+	 * @param roomID the room ID
+	 * @return true if a painting was taken
+	 */
+	private boolean takePainting(int roomID) {
+		int paintings;
+		do {
+			paintings = roomPaintings.get(roomID);
+			if (paintings == 0)
+				return false;
+		} while (!roomPaintings.compareAndSet(roomID, paintings, paintings - 1));
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public int[] getRoomPaintings() throws RemoteException {
-		return roomPaintings;
+		final int[] paintings = new int[roomPaintings.length()];
+		for (int i = 0; i < paintings.length; i++)
+			paintings[i] = roomPaintings.get(i);
+		return paintings;
 	}
 
 	/**
-	 * Getter for the distance to every room.
-	 * The index in the array is the id of the room
-	 *
-	 * @return The distance to every room
-	 * @throws RemoteException when the call to this remote method fails
+	 * {@inheritDoc}
 	 */
+	@Override
 	public int[] getRoomDistance() throws RemoteException {
 		return roomDistance;
 	}
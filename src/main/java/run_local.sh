@@ -11,10 +11,9 @@ collection_port=50002
 museum_ip="localhost"
 museum_port=50007
 
-ap1_ip="localhost"
-ap1_port=50004
-ap2_ip="localhost"
-ap2_port=50005
+ap_ip="localhost"
+# assault party i listens on ap_base_port + i
+ap_base_port=50010
 
 master_ip="localhost"
 thief_ip="localhost"
@@ -34,6 +33,9 @@ alias rmiregistry=/usr/lib/jvm/java-8-openjdk/jre/bin/rmiregistry
 #type java
 #exit 0
 
+# one assault party server per party, as many as numberOfAssaultParties in simulation.properties
+n_assault_parties=$(java SimulationDefaults.SimulationDefaults numberOfAssaultParties) || exit 1
+
 {
   if ! lsof -i :$registry_port >/dev/null
   then
@@ -42,25 +44,18 @@ alias rmiregistry=/usr/lib/jvm/java-8-openjdk/jre/bin/rmiregistry
       $registry_port &
     sleep 1
   fi
+  # the processes wait for the remote objects they need, so they are all started at once
   #                   server                      rmi
   java Register.Main $register_port $registry_ip $registry_port &
-  sleep 1
-
   java logger.Main $logger_port $registry_ip $registry_port &
-  sleep 1
 
-  java assaultParty.Main $ap1_port 0 $registry_ip $registry_port &
-  java assaultParty.Main $ap2_port 1 $registry_ip $registry_port &
+  for ((ap = 0; ap < n_assault_parties; ap++)); do
+    java assaultParty.Main $((ap_base_port + ap)) $ap $registry_ip $registry_port &
+  done
 
   java concentrationSite.Main $concentration_port $registry_ip $registry_port &
   java collectionSite.Main $collection_port $registry_ip $registry_port &
-  sleep 1
-
   java museum.Main $museum_port $registry_ip $registry_port &
-  sleep 1
-
   java thief.Main $registry_ip $registry_port &
-  sleep 3
-
   java masterThief.Main $registry_ip $registry_port &
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package standalone;
+
+import SimulationDefaults.SimulationDefaults;
+import assaultParty.AssaultParty;
+import assaultParty.IAssaultParty;
+import collectionSite.CollectionSite;
+import collectionSite.ICollectionSite;
+import concentrationSite.ConcentrationSite;
+import concentrationSite.IConcentrationSite;
+import logger.ConcurrentLogger;
+import logger.IConcurrentLogger;
+import logger.ILogSink;
+import logger.LoggerStatus;
+import masterThief.MasterThief;
+import museum.IMuseum;
+import museum.Museum;
+import thief.Thief;
+import threads.VirtualThreads;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * The whole simulation in a single process.
+ * <p>
+ * The logger, the sites, the assault parties and the museum are plain objects wired to each other through their interfaces,
+ * nothing is exported nor serialized. Thieves and the master call the monitors directly,
+ * which gives a baseline to measure the cost of RMI against.
+ */
+public class InProcessHeist {
+	/**
+	 * The simulation configuration
+	 */
+	private final SimulationDefaults params;
+
+	/**
+	 * Creates the simulation
+	 *
+	 * @param params The simulation configuration, the thieves must exactly fill every assault party
+	 */
+	public InProcessHeist(SimulationDefaults params) {
+		if (!params.isTopologyComplete())
+			throw new IllegalArgumentException("The thieves must exactly fill every assault party");
+		this.params = params;
+	}
+
+	/**
+	 * Runs the simulation until the master presents the results and the log is written
+	 *
+	 * @throws IOException          when the log file cannot be written
+	 * @throws InterruptedException when interrupted while waiting for the thieves
+	 */
+	public void run() throws IOException, InterruptedException {
+		run(new ConcurrentLogger(
+				params.isBreakLogger(),
+				params.getEntitySeparationSpace(),
+				params.isBinaryLogger() ? params.getBinaryLogFilePath() : params.getLogFilePath(),
+				LoggerStatus.initial(params.getNumberOfThieves(), params.getPartySizes(), params.getNumberOfRooms()),
+				params.getNumberOfThieves(),
+				params.getLoggerBufferSize(),
+				params.isBinaryLogger()
+		));
+	}
+
+	/**
+	 * Runs the simulation with a given logger, until the master presents the results and the logger completes
+	 *
+	 * @param logger the logger every entity reports to. It is shut down at the end
+	 * @throws RemoteException      when the logger fails
+	 * @throws InterruptedException when interrupted while waiting for the thieves
+	 */
+	public void run(IConcurrentLogger logger) throws RemoteException, InterruptedException {
+		/* the monitors log straight to the logger, there are no batches to ship */
+		final ILogSink sink = () -> {
+		};
+		final IMuseum museum = new Museum(
+				params.getNumberOfRooms(),
+				params.getMaxPaintings(),
+				params.getMinPaintings(),
+				params.getMaxDistance(),
+				params.getMinDistance(),
+				logger,
+				sink
+		);
+		final ICollectionSite collectionSite = new CollectionSite(logger, sink, params.getNumberOfRooms(), params.getPartySizes(), params.getNumberOfAssaultParties(), params.getNumberOfThieves(), params.isBatchCollection());
+		final IConcentrationSite concentrationSite = new ConcentrationSite(logger, sink, params.getAssaultPartySize(), params.getRoomAssignment(), () -> museum);
+		final IAssaultParty[] assaultParties = new IAssaultParty[params.getNumberOfAssaultParties()];
+		for (int i = 0; i < assaultParties.length; i++)
+			assaultParties[i] = new AssaultParty(i, params.getAssaultPartySize(), params.getMaxSeparation(), logger, sink);
+
+		final Thread[] thieves = new Thread[params.getNumberOfThieves()];
+		final int maxAgility = params.getMaxDisplacement();
+		final int minAgility = params.getMinDisplacement();
+		for (int i = 0; i < thieves.length; i++) {
+			thieves[i] = VirtualThreads.newThread(new Thief(
+					i,
+					params.getIdInAssaultParty(i),
+					(int) ((Math.random() * (maxAgility - minAgility)) + minAgility),
+					assaultParties[params.getAssaultPartyOf(i)],
+					collectionSite,
+					concentrationSite,
+					museum,
+					logger
+			), params.isVirtualThreads());
+			thieves[i].start();
+		}
+		final MasterThief master = new MasterThief(collectionSite, concentrationSite);
+		master.start();
+
+		for (Thread thief : thieves)
+			thief.join();
+		master.join();
+
+		collectionSite.shutdown();
+		concentrationSite.shutdown();
+		museum.shutdown();
+		for (IAssaultParty assaultParty : assaultParties)
+			assaultParty.shutdown();
+		logger.shutdown();
+		logger.waitUntilCompletion();
+	}
+}
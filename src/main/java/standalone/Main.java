@@ -0,0 +1,38 @@
+package standalone;
+
+import SimulationDefaults.SimulationDefaults;
+
+import java.io.IOException;
+
+/**
+ * Entry point for running the whole simulation in a single process, without RMI.
+ * No registry nor servers are needed, the configuration is loaded as in every other process
+ */
+public class Main {
+
+	/**
+	 * Runs the simulation and prints how long it took
+	 *
+	 * @param args not used
+	 */
+	public static void main(String[] args) {
+		final SimulationDefaults params;
+		try {
+			params = SimulationDefaults.load();
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("InProcessHeist- Could not load the simulation configuration: " + e.getMessage());
+			return;
+		}
+
+		try {
+			final long start = System.nanoTime();
+			new InProcessHeist(params).run();
+			System.out.printf("Simulation took %d ms%n", (System.nanoTime() - start) / 1_000_000);
+		} catch (IllegalArgumentException e) {
+			System.err.println("InProcessHeist- " + e.getMessage());
+		} catch (IOException | InterruptedException e) {
+			System.err.println("InProcessHeist- " + e);
+			e.printStackTrace();
+		}
+	}
+}
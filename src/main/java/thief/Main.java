@@ -9,10 +9,13 @@ import concentrationSite.ConcentrationSite;
 import concentrationSite.IConcentrationSite;
 import logger.ConcurrentLogger;
 import logger.IConcurrentLogger;
+import museum.CachingMuseum;
 import museum.IMuseum;
 import museum.Museum;
 import Register.RMIUtils;
+import threads.VirtualThreads;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 /**
@@ -42,9 +45,35 @@ public class Main {
 				return;
 			}
 
+			final SimulationDefaults params;
+			try {
+				params = SimulationDefaults.load();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Thief- Could not load the simulation configuration: " + e.getMessage());
+				return;
+			}
+			if (!params.isTopologyComplete()) {
+				System.err.println("Thief- The thieves must exactly fill every assault party");
+				return;
+			}
+			if (params.isVirtualThreads() && !VirtualThreads.isSupported())
+				System.err.println("Thief- Virtual threads are not supported by this JVM, using platform threads");
+
 			/* RMI registry service */
 
-			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb);
+			final RMIUtils rmiUtils = new RMIUtils(rmiRegHostName, rmiRegPortNumb, params.getConnectionTimeout());
+
+			/* every shared region is looked up at once, waiting for those that are not up yet */
+
+			final String[] names = new String[4 + params.getNumberOfAssaultParties()];
+			names[0] = RMIUtils.name(ConcurrentLogger.class);
+			names[1] = RMIUtils.name(CollectionSite.class);
+			names[2] = RMIUtils.name(ConcentrationSite.class);
+			names[3] = RMIUtils.name(Museum.class);
+			for (int i = 0; i < params.getNumberOfAssaultParties(); i++)
+				names[4 + i] = RMIUtils.name(AssaultParty.class, i);
+			rmiUtils.resolve(names);
+
 			final IConcurrentLogger logger = (IConcurrentLogger) rmiUtils.find(ConcurrentLogger.class);
 			/* get remote reference to CollectionSite */
 
@@ -53,48 +82,33 @@ public class Main {
 			/* get remote reference to ConcentrationSite*/
 			final IConcentrationSite concentrationSite = (IConcentrationSite) rmiUtils.find(ConcentrationSite.class);
 
-			/* get remote reference to Museum */
+			/* get remote reference to Museum, the room distances are fetched once and then read locally */
 
-			final IMuseum museum = (IMuseum) rmiUtils.find(Museum.class);
+			final IMuseum museum = new CachingMuseum((IMuseum) rmiUtils.find(Museum.class));
 
-			/* get remote reference to AssaultParty1 */
+			/* get remote reference to every AssaultParty */
 
-			final IAssaultParty assaultParty1 = (IAssaultParty) rmiUtils.find(AssaultParty.class, 0);
+			final IAssaultParty[] assaultParties = new IAssaultParty[params.getNumberOfAssaultParties()];
+			for (int i = 0; i < assaultParties.length; i++)
+				assaultParties[i] = (IAssaultParty) rmiUtils.find(AssaultParty.class, i);
 
-			/* get remote reference to AssaultParty2 */
 
-			final IAssaultParty assaultParty2 = (IAssaultParty) rmiUtils.find(AssaultParty.class, 1);
+			final Thread[] thieves = new Thread[params.getNumberOfThieves()];
 
-
-			final Thread[] thieves = new Thief[SimulationDefaults.DEFAULT.getNumberOfThieves()];
-
-			final int maxAgility = SimulationDefaults.DEFAULT.getMaxDisplacement();
-			final int minAgility = SimulationDefaults.DEFAULT.getMinDisplacement();
+			final int maxAgility = params.getMaxDisplacement();
+			final int minAgility = params.getMinDisplacement();
 
 			for (int i = 0; i < thieves.length; i++) {
-				if (i < 3) {
-					thieves[i] = new Thief(
-							i,
-							i % 3,
-							(int) ((Math.random() * (maxAgility - minAgility)) + minAgility),
-							assaultParty1,
-							collectionSite,
-							concentrationSite,
-							museum,
-							logger
-					);
-				} else {
-					thieves[i] = new Thief(
-							i,
-							i % 3,
-							(int) ((Math.random() * (maxAgility - minAgility)) + minAgility),
-							assaultParty2,
-							collectionSite,
-							concentrationSite,
-							museum,
-							logger
-					);
-				}
+				thieves[i] = VirtualThreads.newThread(new Thief(
+						i,
+						params.getIdInAssaultParty(i),
+						(int) ((Math.random() * (maxAgility - minAgility)) + minAgility),
+						assaultParties[params.getAssaultPartyOf(i)],
+						collectionSite,
+						concentrationSite,
+						museum,
+						logger
+				), params.isVirtualThreads());
 				System.out.printf("%d started%n", i);
 				thieves[i].start();
 			}
@@ -111,8 +125,8 @@ public class Main {
 			collectionSite.shutdown();
 			concentrationSite.shutdown();
 			museum.shutdown();
-			assaultParty1.shutdown();
-			assaultParty2.shutdown();
+			for (IAssaultParty assaultParty : assaultParties)
+				assaultParty.shutdown();
 		} catch (RemoteException e) {
 			System.err.println("Server exception: " + e);
 			e.printStackTrace();
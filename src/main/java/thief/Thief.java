@@ -11,7 +11,7 @@ import java.rmi.RemoteException;
 /**
  * Class representing the thieves
  */
-public class Thief extends Thread {
+public class Thief implements Runnable {
 
 	/**
 	 * Thief's unique identifier
@@ -171,14 +171,12 @@ public class Thief extends Thread {
 					break lifecycle;
 				case CRAWLING_INWARDS:
 
-					while (true) {
-						try {
-							if (!this.assaultParty.crawlIn(agility, idInAssaultParty, id)) break;
-						} catch (RemoteException e) {
-							System.err.println("Thief could could not execute crawlIn" + e.getMessage());
-							e.printStackTrace();
-							System.exit(0);
-						}
+					try {
+						this.assaultParty.crawlToRoom(agility, idInAssaultParty, id);
+					} catch (RemoteException e) {
+						System.err.println("Thief could could not execute crawlToRoom" + e.getMessage());
+						e.printStackTrace();
+						System.exit(0);
 					}
 					this.state = State.AT_ROOM;
 					break;
@@ -218,14 +216,12 @@ public class Thief extends Thread {
 					this.state = State.CRAWLING_OUTWARDS;
 					break;
 				case CRAWLING_OUTWARDS:
-					while (true) {
-						try {
-							if (!this.assaultParty.crawlOut(agility, idInAssaultParty)) break;
-						} catch (RemoteException e) {
-							System.err.println("Thief could could not execute crawlOut" + e.getMessage());
-							e.printStackTrace();
-							System.exit(0);
-						}
+					try {
+						this.assaultParty.crawlToSite(agility, idInAssaultParty);
+					} catch (RemoteException e) {
+						System.err.println("Thief could could not execute crawlToSite" + e.getMessage());
+						e.printStackTrace();
+						System.exit(0);
 					}
 					this.state = State.COLLECTION_SITE;
 					break;
@@ -0,0 +1,40 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The calls a monitor lets go while holding its lock, completed only once it has released it.
+ * <p>
+ * Completing a future runs whatever was chained on it in the completing thread, such as writing the reply of a parked
+ * call to its connection, so completing it behind the lock would make every other client of the monitor wait for it.
+ * This class is NOT thread safe, each monitor method fills and completes its own.
+ */
+public final class Completions {
+	/**
+	 * The completions, in the order the calls were let go
+	 */
+	private final List<Runnable> pending = new ArrayList<>();
+
+	/**
+	 * Lets a call go, its future is completed by {@link #complete()}
+	 *
+	 * @param future the call's future
+	 * @param value  what the call returns
+	 * @param <T>    the type of what the call returns
+	 */
+	public <T> void add(CompletableFuture<T> future, T value) {
+		pending.add(() -> future.complete(value));
+	}
+
+	/**
+	 * Completes the future of every call let go so far, in order.
+	 * Must be called after releasing the monitor's lock
+	 */
+	public void complete() {
+		for (Runnable completion : pending)
+			completion.run();
+		pending.clear();
+	}
+}
@@ -0,0 +1,67 @@
+package threads;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the threads of the entities, either platform threads or virtual threads.
+ * <p>
+ * A virtual thread that waits on a monitor's condition only parks, without holding an OS thread or a full stack,
+ * so a simulation can run tens of thousands of thieves in a process.
+ * Virtual threads need Java 21. The code is built for older versions, so they are created through reflection,
+ * and platform threads are created instead when they are not available.
+ */
+public final class VirtualThreads {
+	/**
+	 * Thread.ofVirtual(), null when virtual threads are not available
+	 */
+	private static final Method OF_VIRTUAL;
+	/**
+	 * Thread.Builder.unstarted(Runnable), null when virtual threads are not available
+	 */
+	private static final Method UNSTARTED;
+
+	static {
+		Method ofVirtual = null;
+		Method unstarted = null;
+		try {
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+			ofVirtual.invoke(null); // fails on the versions where they are a preview feature that was not enabled
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			ofVirtual = null;
+			unstarted = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		UNSTARTED = unstarted;
+	}
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Whether this JVM supports virtual threads
+	 *
+	 * @return true if it does
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Creates the thread that runs a task, not started
+	 *
+	 * @param task    the task
+	 * @param virtual whether to create a virtual thread, if they are supported
+	 * @return a virtual thread if requested and supported, otherwise a new platform thread
+	 */
+	public static Thread newThread(Runnable task, boolean virtual) {
+		if (virtual && isSupported()) {
+			try {
+				return (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), task);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Could not create a virtual thread", e);
+			}
+		}
+		return new Thread(task);
+	}
+}
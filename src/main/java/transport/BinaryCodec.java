@@ -0,0 +1,278 @@
+package transport;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The encoding of the calls of the binary transport.
+ * <p>
+ * The methods of a remote object are numbered in the order of their signatures, so the client and the server agree
+ * on the number of every method as long as they have the same interfaces.
+ * The values are written with fixed widths, big endian: int, long and boolean, and arrays of int and boolean
+ * preceded by their length, -1 for null. Those are the only types the shared regions use; an interface with any other
+ * type cannot be exported with the binary transport.
+ * <p>
+ * A blocking method may have a non-blocking counterpart, named after it with the Async suffix, with the same parameters
+ * and returning a {@link CompletableFuture} of its return type, declared in an interface that does not extend Remote.
+ * Both are served as the same method.
+ */
+final class BinaryCodec {
+	/**
+	 * The largest frame, past its length
+	 */
+	static final int MAX_FRAME = 1 << 20;
+
+	private BinaryCodec() {
+	}
+
+	/**
+	 * The remote interfaces of an object
+	 *
+	 * @param type the object's class
+	 * @return every interface extending Remote implemented by it or its superclasses
+	 */
+	static Class<?>[] remoteInterfaces(Class<?> type) {
+		final Set<Class<?>> interfaces = new LinkedHashSet<>();
+		for (Class<?> c = type; c != null; c = c.getSuperclass())
+			for (Class<?> i : c.getInterfaces())
+				if (Remote.class.isAssignableFrom(i))
+					interfaces.add(i);
+		return interfaces.toArray(new Class<?>[0]);
+	}
+
+	/**
+	 * The non-blocking counterpart of a method
+	 *
+	 * @param type   the class of the object serving it
+	 * @param method the method
+	 * @return the counterpart, null if the object does not have one
+	 */
+	static Method asyncCounterpart(Class<?> type, Method method) {
+		try {
+			final Method async = type.getMethod(method.getName() + "Async", method.getParameterTypes());
+			return async.getReturnType() == CompletableFuture.class ? async : null;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The signature of the blocking method a non-blocking counterpart is for
+	 *
+	 * @param async the non-blocking counterpart
+	 * @return the signature of the blocking method, null if the method is not a non-blocking counterpart
+	 */
+	static String blockingSignature(Method async) {
+		final String name = async.getName();
+		if (!name.endsWith("Async") || async.getReturnType() != CompletableFuture.class)
+			return null;
+		return name.substring(0, name.length() - "Async".length()) + Arrays.toString(async.getParameterTypes());
+	}
+
+	/**
+	 * Numbers the methods of a set of interfaces
+	 *
+	 * @param interfaces the interfaces
+	 * @return the methods, one for each signature, ordered by signature
+	 * @throws IllegalArgumentException when a method has a parameter or return type that cannot be encoded
+	 */
+	static Method[] methods(Class<?>[] interfaces) {
+		final TreeMap<String, Method> bySignature = new TreeMap<>();
+		for (Class<?> i : interfaces) {
+			for (Method method : i.getMethods()) {
+				for (Class<?> type : method.getParameterTypes())
+					check(method, type);
+				if (method.getReturnType() != void.class)
+					check(method, method.getReturnType());
+				bySignature.put(signature(method), method);
+			}
+		}
+		if (bySignature.size() > Short.MAX_VALUE)
+			throw new IllegalArgumentException("Too many methods in " + Arrays.toString(interfaces));
+		return bySignature.values().toArray(new Method[0]);
+	}
+
+	/**
+	 * The signature of a method, the same for the method of every interface that declares it
+	 *
+	 * @param method the method
+	 * @return its name and parameter types
+	 */
+	static String signature(Method method) {
+		return method.getName() + Arrays.toString(method.getParameterTypes());
+	}
+
+	/**
+	 * Fails if a type cannot be encoded
+	 *
+	 * @param method the method using it
+	 * @param type   the type
+	 * @throws IllegalArgumentException when the type cannot be encoded
+	 */
+	private static void check(Method method, Class<?> type) {
+		if (type != int.class && type != long.class && type != boolean.class && type != int[].class && type != boolean[].class)
+			throw new IllegalArgumentException("The binary transport cannot encode " + type.getName() + " of " + method);
+	}
+
+	/**
+	 * The number of bytes a value is written in
+	 *
+	 * @param type  the value's type
+	 * @param value the value
+	 * @return the number of bytes
+	 */
+	static int size(Class<?> type, Object value) {
+		if (type == int.class)
+			return 4;
+		if (type == long.class)
+			return 8;
+		if (type == boolean.class)
+			return 1;
+		if (type == int[].class)
+			return 4 + (value == null ? 0 : ((int[]) value).length * 4);
+		if (type == boolean[].class)
+			return 4 + (value == null ? 0 : ((boolean[]) value).length);
+		return 0;                                                               // void
+	}
+
+	/**
+	 * The number of bytes a list of values are written in
+	 *
+	 * @param types  the values' types
+	 * @param values the values, null when there are none
+	 * @return the number of bytes
+	 */
+	static int size(Class<?>[] types, Object[] values) {
+		int size = 0;
+		for (int i = 0; i < types.length; i++)
+			size += size(types[i], values[i]);
+		return size;
+	}
+
+	/**
+	 * Writes a value
+	 *
+	 * @param buffer the buffer to write to
+	 * @param type   the value's type
+	 * @param value  the value
+	 */
+	static void write(ByteBuffer buffer, Class<?> type, Object value) {
+		if (type == int.class)
+			buffer.putInt((Integer) value);
+		else if (type == long.class)
+			buffer.putLong((Long) value);
+		else if (type == boolean.class)
+			buffer.put((byte) ((Boolean) value ? 1 : 0));
+		else if (type == int[].class) {
+			final int[] array = (int[]) value;
+			buffer.putInt(array == null ? -1 : array.length);
+			if (array != null)
+				for (int v : array)
+					buffer.putInt(v);
+		} else if (type == boolean[].class) {
+			final boolean[] array = (boolean[]) value;
+			buffer.putInt(array == null ? -1 : array.length);
+			if (array != null)
+				for (boolean v : array)
+					buffer.put((byte) (v ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Reads a value
+	 *
+	 * @param buffer the buffer to read from
+	 * @param type   the value's type
+	 * @return the value, null for void
+	 * @throws IllegalArgumentException when an array is longer than the rest of the buffer
+	 */
+	static Object read(ByteBuffer buffer, Class<?> type) {
+		if (type == int.class)
+			return buffer.getInt();
+		if (type == long.class)
+			return buffer.getLong();
+		if (type == boolean.class)
+			return buffer.get() != 0;
+		if (type == int[].class) {
+			final int length = buffer.getInt();
+			if (length < 0)
+				return null;
+			if (length > buffer.remaining() / 4)
+				throw new IllegalArgumentException("Array longer than its frame: " + length);
+			final int[] array = new int[length];
+			for (int i = 0; i < length; i++)
+				array[i] = buffer.getInt();
+			return array;
+		}
+		if (type == boolean[].class) {
+			final int length = buffer.getInt();
+			if (length < 0)
+				return null;
+			if (length > buffer.remaining())
+				throw new IllegalArgumentException("Array longer than its frame: " + length);
+			final boolean[] array = new boolean[length];
+			for (int i = 0; i < length; i++)
+				array[i] = buffer.get() != 0;
+			return array;
+		}
+		return null;
+	}
+
+	/**
+	 * Reads a list of values
+	 *
+	 * @param buffer the buffer to read from
+	 * @param types  the values' types
+	 * @return the values
+	 */
+	static Object[] read(ByteBuffer buffer, Class<?>[] types) {
+		final Object[] values = new Object[types.length];
+		for (int i = 0; i < types.length; i++)
+			values[i] = read(buffer, types[i]);
+		return values;
+	}
+
+	/**
+	 * The bytes a text is written as
+	 *
+	 * @param text the text
+	 * @return its UTF-8 bytes
+	 */
+	static byte[] utf8(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the rest of a buffer as text
+	 *
+	 * @param buffer the buffer
+	 * @return the UTF-8 text
+	 */
+	static String readText(ByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The description of an exception thrown by a remote method
+	 *
+	 * @param cause the exception
+	 * @return its class and message, and those of its causes
+	 */
+	static String describe(Throwable cause) {
+		final List<String> causes = new ArrayList<>();
+		for (Throwable t = cause; t != null && causes.size() < 8; t = t.getCause())
+			causes.add(t.toString());
+		return String.join("; caused by ", causes);
+	}
+}
@@ -0,0 +1,165 @@
+package transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A client's connection to a {@link BinaryServer}.
+ * <p>
+ * Every thread of the client sends its requests on the same connection without waiting for the replies of the others,
+ * a reader thread matches each reply with its call by the call's identifier.
+ */
+final class BinaryConnection implements Runnable {
+	/**
+	 * The channel, in blocking mode
+	 */
+	private final SocketChannel channel;
+	/**
+	 * The calls waiting for their reply, by identifier
+	 */
+	private final Map<Long, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+	/**
+	 * The identifier of the next call
+	 */
+	private final AtomicLong nextId = new AtomicLong();
+	/**
+	 * Why the connection failed, null while it works
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Connects to a server and starts reading its replies
+	 *
+	 * @param host the server's host
+	 * @param port the server's port
+	 * @throws IOException when the connection cannot be made
+	 */
+	BinaryConnection(String host, int port) throws IOException {
+		channel = SocketChannel.open();
+		try {
+			channel.socket().setTcpNoDelay(true);
+			channel.connect(new InetSocketAddress(host, port));
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		final Thread reader = new Thread(this, "binary-client-" + host + ":" + port);
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Whether the connection failed
+	 *
+	 * @return true if no more calls can be made on it
+	 */
+	boolean isBroken() {
+		return failure != null;
+	}
+
+	/**
+	 * Sends a call
+	 *
+	 * @param number the number of the method
+	 * @param method the method
+	 * @param args   the arguments, null when there are none
+	 * @return the reply, past its identifier, once it arrives
+	 * @throws IOException when the connection failed or the request cannot be sent
+	 */
+	CompletableFuture<ByteBuffer> call(int number, Method method, Object[] args) throws IOException {
+		final Class<?>[] types = method.getParameterTypes();
+		final int length = BinaryServer.REQUEST_HEADER + BinaryCodec.size(types, args);
+		if (length > BinaryCodec.MAX_FRAME)
+			throw new IOException("Request too large: " + length);
+		final long id = nextId.getAndIncrement();
+		final ByteBuffer request = ByteBuffer.allocate(4 + length);
+		request.putInt(length);
+		request.putLong(id);
+		request.putShort((short) number);
+		for (int i = 0; i < types.length; i++)
+			BinaryCodec.write(request, types[i], args[i]);
+		request.flip();
+
+		final CompletableFuture<ByteBuffer> reply = new CompletableFuture<>();
+		pending.put(id, reply);
+		try {
+			synchronized (channel) {
+				if (failure != null)
+					throw failure;
+				while (request.hasRemaining())
+					channel.write(request);
+			}
+		} catch (IOException e) {
+			pending.remove(id);
+			fail(e);
+			throw e;
+		}
+		return reply;
+	}
+
+	/**
+	 * Reads the replies until the connection fails or is closed, completing their calls
+	 */
+	@Override
+	public void run() {
+		final ByteBuffer length = ByteBuffer.allocate(4);
+		try {
+			while (true) {
+				length.clear();
+				readFully(length);
+				final int size = length.getInt(0);
+				if (size < BinaryServer.REPLY_HEADER || size > BinaryCodec.MAX_FRAME)
+					throw new IOException("Invalid reply length " + size);
+				final ByteBuffer reply = ByteBuffer.allocate(size);
+				readFully(reply);
+				reply.flip();
+				final CompletableFuture<ByteBuffer> call = pending.remove(reply.getLong());
+				if (call != null)
+					call.complete(reply);
+			}
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Reads until a buffer is full
+	 *
+	 * @param buffer the buffer
+	 * @throws IOException when the channel fails or is closed
+	 */
+	private void readFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			if (channel.read(buffer) < 0)
+				throw new EOFException("Connection closed by the server");
+	}
+
+	/**
+	 * Marks the connection as failed, closes it and fails every call waiting for its reply
+	 *
+	 * @param cause why it failed
+	 */
+	private void fail(IOException cause) {
+		synchronized (channel) {
+			if (failure == null)
+				failure = cause;
+		}
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+		}
+		for (Long id : pending.keySet()) {
+			final CompletableFuture<ByteBuffer> call = pending.remove(id);
+			if (call != null)
+				call.completeExceptionally(failure);
+		}
+	}
+}
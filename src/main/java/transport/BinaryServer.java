@@ -0,0 +1,434 @@
+package transport;
+
+import threads.VirtualThreads;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.rmi.Remote;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the calls to a remote object over the binary transport.
+ * <p>
+ * A single thread accepts the connections and reads the requests of every client with a selector.
+ * A client may send a request before the previous ones are answered, so each request is run on its own thread,
+ * which may block on the monitor for as long as the call takes, and its reply is written as soon as it returns,
+ * in whatever order the calls finish. The threads are virtual when the JVM supports them, and pooled otherwise.
+ * A method with a non-blocking counterpart is served by calling the counterpart, which returns right away,
+ * and the reply is written by whoever completes its future.
+ * <p>
+ * A request is the frame's length, the call's identifier, the method's number and the arguments.
+ * A reply is the frame's length, the call's identifier, a status and either the return value or the description of the exception.
+ */
+final class BinaryServer implements Runnable {
+	/**
+	 * Status of a reply carrying a return value
+	 */
+	static final byte OK = 0;
+	/**
+	 * Status of a reply carrying an exception's description
+	 */
+	static final byte FAILED = 1;
+	/**
+	 * Bytes of a request before its arguments: the call's identifier and the method's number
+	 */
+	static final int REQUEST_HEADER = 8 + 2;
+	/**
+	 * Bytes of a reply before its value: the call's identifier and the status
+	 */
+	static final int REPLY_HEADER = 8 + 1;
+	/**
+	 * How long closing waits for the calls in progress to be answered, in ms
+	 */
+	private static final long CLOSE_GRACE = 1000;
+
+	/**
+	 * The object served
+	 */
+	private final Remote target;
+	/**
+	 * Its methods, by number
+	 */
+	private final Method[] methods;
+	/**
+	 * The non-blocking counterpart of each method, null for the methods without one
+	 */
+	private final Method[] asyncMethods;
+	/**
+	 * The channel accepting the connections
+	 */
+	private final ServerSocketChannel server;
+	/**
+	 * The selector of the accepting channel and every connection
+	 */
+	private final Selector selector;
+	/**
+	 * The thread running the selector
+	 */
+	private final Thread selectorThread;
+	/**
+	 * The pool running the calls, null when they run on virtual threads.
+	 * Its threads are daemons and end once idle, it is never shut down since the security manager does not allow it
+	 */
+	private final ExecutorService pool;
+	/**
+	 * The number of calls whose reply is not written yet, including those waiting for the future of a non-blocking counterpart
+	 */
+	private final AtomicInteger inProgress = new AtomicInteger();
+	/**
+	 * Whether the server was closed
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Starts serving an object
+	 *
+	 * @param target  the object
+	 * @param methods      its methods, by number
+	 * @param asyncMethods the non-blocking counterpart of each method, null for the methods without one
+	 * @param port         the port to listen on
+	 * @throws IOException when the port cannot be listened on
+	 */
+	BinaryServer(Remote target, Method[] methods, Method[] asyncMethods, int port) throws IOException {
+		this.target = target;
+		this.methods = methods;
+		this.asyncMethods = asyncMethods;
+		this.pool = VirtualThreads.isSupported() ? null : Executors.newCachedThreadPool(task -> {
+			final Thread thread = new Thread(task, "binary-call");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.server = ServerSocketChannel.open();
+		this.selector = Selector.open();
+		try {
+			server.socket().setReuseAddress(true);
+			server.socket().bind(new InetSocketAddress(port));
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			server.close();
+			selector.close();
+			throw e;
+		}
+		this.selectorThread = new Thread(this, "binary-server-" + port);
+		selectorThread.start();
+	}
+
+	/**
+	 * The port the server listens on
+	 *
+	 * @return the port
+	 */
+	int getPort() {
+		return server.socket().getLocalPort();
+	}
+
+	/**
+	 * Accepts the connections and reads the requests until the server is closed
+	 */
+	@Override
+	public void run() {
+		try {
+			while (!closed) {
+				selector.select();
+				final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					final SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid())
+						continue;
+					if (key.isAcceptable())
+						accept();
+					else {
+						final Connection connection = (Connection) key.attachment();
+						if (key.isReadable())
+							connection.read();
+						if (key.isValid() && key.isWritable())
+							connection.writePending();
+					}
+				}
+			}
+		} catch (IOException e) {
+			if (!closed)
+				System.err.println("Binary server error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Accepts a connection
+	 *
+	 * @throws IOException when the accepting channel fails
+	 */
+	private void accept() throws IOException {
+		final SocketChannel channel = server.accept();
+		if (channel == null)
+			return;
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		final Connection connection = new Connection(channel);
+		connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+	}
+
+	/**
+	 * Stops accepting connections, waits a little for the calls in progress to be answered, then closes every connection
+	 */
+	void close() {
+		closed = true;
+		selector.wakeup();
+		try {
+			selectorThread.join();
+			server.close();
+			final long deadline = System.currentTimeMillis() + CLOSE_GRACE;
+			boolean written = false;
+			while (!written && System.currentTimeMillis() < deadline) {
+				written = inProgress.get() == 0;
+				for (SelectionKey key : selector.keys())
+					if (key.attachment() != null)
+						written &= ((Connection) key.attachment()).writePending();
+				if (!written)
+					Thread.sleep(1);
+			}
+			for (SelectionKey key : selector.keys())
+				key.channel().close();
+			selector.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException ignored) {
+		}
+	}
+
+	/**
+	 * Runs a call on its own thread
+	 *
+	 * @param call the call
+	 */
+	private void dispatch(Runnable call) {
+		inProgress.incrementAndGet();
+		if (pool == null)
+			VirtualThreads.newThread(call, true).start();
+		else
+			pool.execute(call);
+	}
+
+	/**
+	 * A client's connection
+	 */
+	private final class Connection {
+		/**
+		 * The client's channel
+		 */
+		private final SocketChannel channel;
+		/**
+		 * The bytes read and not yet handled
+		 */
+		private ByteBuffer in = ByteBuffer.allocate(4096);
+		/**
+		 * The replies not fully written yet, in order
+		 */
+		private final Deque<ByteBuffer> out = new ArrayDeque<>();
+		/**
+		 * The channel's key in the selector
+		 */
+		private SelectionKey key;
+
+		/**
+		 * @param channel the client's channel
+		 */
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Reads what the client sent, and dispatches every complete request
+		 */
+		void read() {
+			try {
+				if (channel.read(in) < 0) {
+					close();
+					return;
+				}
+				in.flip();
+				while (in.remaining() >= 4) {
+					final int length = in.getInt(in.position());
+					if (length < REQUEST_HEADER || length > BinaryCodec.MAX_FRAME)
+						throw new IOException("Invalid request length " + length);
+					if (in.remaining() < 4 + length) {
+						if (in.capacity() < 4 + length) {
+							final ByteBuffer larger = ByteBuffer.allocate(4 + length);
+							larger.put(in);
+							larger.flip();
+							in = larger;
+						}
+						break;
+					}
+					final byte[] frame = new byte[length];
+					in.position(in.position() + 4);
+					in.get(frame);
+					dispatch(() -> call(ByteBuffer.wrap(frame)));
+				}
+				in.compact();
+			} catch (IOException e) {
+				close();
+			}
+		}
+
+		/**
+		 * Runs a call and writes its reply, or has it written when the future of its non-blocking counterpart completes.
+		 * The call is in progress until its reply is written, so closing the server waits for the replies of both
+		 *
+		 * @param request the request, past its length
+		 */
+		private void call(ByteBuffer request) {
+			boolean answered = true;                                                // false once the future writes the reply
+			try {
+				final long id = request.getLong();
+				final int number = request.getShort();
+				try {
+					if (number < 0 || number >= methods.length)
+						throw new IllegalArgumentException("No method number " + number);
+					final Method method = methods[number];
+					final Object[] args = BinaryCodec.read(request, method.getParameterTypes());
+					if (asyncMethods[number] == null) {
+						write(result(id, method, method.invoke(target, args)));
+						return;
+					}
+					final CompletableFuture<?> future = (CompletableFuture<?>) asyncMethods[number].invoke(target, args);
+					answered = false;
+					future.whenComplete((result, error) -> {
+						try {
+							if (error == null)
+								write(result(id, method, result));
+							else
+								write(failure(id, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+						} finally {
+							inProgress.decrementAndGet();
+						}
+					});
+				} catch (InvocationTargetException e) {
+					write(failure(id, e.getCause()));
+				} catch (ReflectiveOperationException | RuntimeException e) {
+					write(failure(id, e));
+				}
+			} finally {
+				if (answered)
+					inProgress.decrementAndGet();
+			}
+		}
+
+		/**
+		 * Creates the reply of a call that returned
+		 *
+		 * @param id     the call's identifier
+		 * @param method the method called
+		 * @param result what it returned
+		 * @return the reply, ready to be written
+		 */
+		private ByteBuffer result(long id, Method method, Object result) {
+			final ByteBuffer reply = reply(id, OK, BinaryCodec.size(method.getReturnType(), result));
+			BinaryCodec.write(reply, method.getReturnType(), result);
+			reply.flip();
+			return reply;
+		}
+
+		/**
+		 * Creates a reply, with its header written
+		 *
+		 * @param id     the call's identifier
+		 * @param status the call's status
+		 * @param size   the size of the reply's value
+		 * @return the reply, positioned at its value
+		 */
+		private ByteBuffer reply(long id, byte status, int size) {
+			final ByteBuffer reply = ByteBuffer.allocate(4 + REPLY_HEADER + size);
+			reply.putInt(REPLY_HEADER + size);
+			reply.putLong(id);
+			reply.put(status);
+			return reply;
+		}
+
+		/**
+		 * Creates the reply of a call that threw
+		 *
+		 * @param id    the call's identifier
+		 * @param cause what it threw
+		 * @return the reply, ready to be written
+		 */
+		private ByteBuffer failure(long id, Throwable cause) {
+			byte[] description = BinaryCodec.utf8(BinaryCodec.describe(cause));
+			if (description.length > BinaryCodec.MAX_FRAME - REPLY_HEADER)
+				description = BinaryCodec.utf8(cause.getClass().getName());
+			final ByteBuffer reply = reply(id, FAILED, description.length);
+			reply.put(description);
+			reply.flip();
+			return reply;
+		}
+
+		/**
+		 * Writes a reply, right away if nothing is waiting to be written, otherwise once the selector finds the channel writable
+		 *
+		 * @param reply the reply
+		 */
+		private synchronized void write(ByteBuffer reply) {
+			try {
+				if (out.isEmpty()) {
+					channel.write(reply);
+					if (!reply.hasRemaining())
+						return;
+				}
+				out.add(reply);
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				selector.wakeup();
+			} catch (IOException | RuntimeException e) {
+				close();
+			}
+		}
+
+		/**
+		 * Writes the replies waiting to be written, as much as the channel takes
+		 *
+		 * @return false if some are still waiting
+		 */
+		synchronized boolean writePending() {
+			try {
+				while (!out.isEmpty()) {
+					final ByteBuffer reply = out.peek();
+					channel.write(reply);
+					if (reply.hasRemaining())
+						return false;
+					out.poll();
+				}
+				if (key.isValid())
+					key.interestOps(SelectionKey.OP_READ);
+			} catch (IOException | RuntimeException e) {
+				close();
+			}
+			return true;
+		}
+
+		/**
+		 * Closes the connection, dropping the replies not written yet
+		 */
+		private synchronized void close() {
+			out.clear();
+			key.cancel();
+			try {
+				channel.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package transport;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.rmi.ConnectException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.ServerException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Client side of an object exported with the binary transport, the handler of the proxy the clients call.
+ * <p>
+ * The proxy is bound in the registry in place of an RMI stub and copied to the clients when they look it up,
+ * so they call it through the same interfaces. It is a remote reference, like the handler of an RMI stub,
+ * which is also what lets the registry accept it.
+ * The connection is made on the first call, and made again on the next call if it fails.
+ * Every thread of a client calling the same proxy shares its connection.
+ * When the proxy is a view from {@link BinaryTransport#async(Remote, Class)}, the non-blocking counterparts of the methods
+ * return the future of the reply without waiting for it.
+ */
+final class BinaryStub implements InvocationHandler, Remote, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The server's host
+	 */
+	private final String host;
+	/**
+	 * The server's port
+	 */
+	private final int port;
+	/**
+	 * The number of each method of the proxy, computed on the first call.
+	 * A non-blocking counterpart has the number of its blocking method
+	 */
+	private transient volatile Map<Method, Integer> numbers;
+	/**
+	 * The remote methods, by number, computed with the numbers
+	 */
+	private transient volatile Method[] methods;
+	/**
+	 * The connection to the server, null until the first call
+	 */
+	private transient BinaryConnection connection;
+
+	/**
+	 * @param host the server's host
+	 * @param port the server's port
+	 */
+	BinaryStub(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * A handler for the same server, with its own connection
+	 *
+	 * @return the new handler
+	 */
+	BinaryStub copy() {
+		return new BinaryStub(host, port);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class)
+			return invokeObjectMethod(proxy, method, args);
+
+		final Integer number = numbers(proxy).get(method);
+		if (number == null)
+			throw new RemoteException("Method not served by the binary transport: " + method);
+		final Method remote = methods[number];
+		final CompletableFuture<ByteBuffer> call;
+		try {
+			call = connection().call(number, remote, args);
+		} catch (IOException e) {
+			throw new ConnectException("Binary call to " + host + ":" + port + " failed", e);
+		}
+
+		if (method != remote && method.getReturnType() == CompletableFuture.class) {
+			final CompletableFuture<Object> result = new CompletableFuture<>();
+			call.whenComplete((reply, error) -> {
+				try {
+					if (error != null)
+						throw new ConnectException("Binary call to " + host + ":" + port + " failed", (Exception) error);
+					result.complete(result(remote, reply));
+				} catch (RemoteException e) {
+					result.completeExceptionally(e);
+				}
+			});
+			return result;
+		}
+		return result(remote, await(call));
+	}
+
+	/**
+	 * Decodes the reply of a call
+	 *
+	 * @param method the remote method called
+	 * @param reply  the reply, past its identifier
+	 * @return what the method returned
+	 * @throws ServerException when the method threw
+	 */
+	private Object result(Method method, ByteBuffer reply) throws ServerException {
+		if (reply.get() == BinaryServer.FAILED)
+			throw new ServerException("Binary call to " + host + ":" + port + " threw " + BinaryCodec.readText(reply));
+		return BinaryCodec.read(reply, method.getReturnType());
+	}
+
+	/**
+	 * Waits for the reply of a call. Like an RMI call, the wait is not interrupted, the interrupt is kept for later
+	 *
+	 * @param call the call
+	 * @return the reply, past its identifier
+	 * @throws RemoteException when the connection failed before the reply arrived
+	 */
+	private ByteBuffer await(CompletableFuture<ByteBuffer> call) throws RemoteException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return call.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					throw new ConnectException("Binary call to " + host + ":" + port + " failed", (Exception) e.getCause());
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The connection to the server, made again if it failed
+	 *
+	 * @return the connection
+	 * @throws IOException when the connection cannot be made
+	 */
+	private synchronized BinaryConnection connection() throws IOException {
+		if (connection == null || connection.isBroken())
+			connection = new BinaryConnection(host, port);
+		return connection;
+	}
+
+	/**
+	 * The number of each method of a proxy, as numbered by the server
+	 *
+	 * @param proxy the proxy
+	 * @return the numbers by method
+	 */
+	private Map<Method, Integer> numbers(Object proxy) {
+		Map<Method, Integer> numbers = this.numbers;
+		if (numbers == null) {
+			final Method[] methods = BinaryCodec.methods(BinaryCodec.remoteInterfaces(proxy.getClass()));
+			final Map<String, Integer> bySignature = new HashMap<>();
+			for (int i = 0; i < methods.length; i++)
+				bySignature.put(BinaryCodec.signature(methods[i]), i);
+			numbers = new HashMap<>();
+			for (Class<?> i : proxy.getClass().getInterfaces()) {
+				for (Method method : i.getMethods()) {
+					final String blocking = BinaryCodec.blockingSignature(method);
+					final Integer number = bySignature.get(blocking != null ? blocking : BinaryCodec.signature(method));
+					if (number != null)
+						numbers.put(method, number);
+				}
+			}
+			this.methods = methods;
+			this.numbers = numbers;
+		}
+		return numbers;
+	}
+
+	/**
+	 * Answers the methods of Object locally. Two proxies are equal when they are for the same server
+	 *
+	 * @param proxy  the proxy
+	 * @param method the method of Object
+	 * @param args   its arguments
+	 * @return what the method returns
+	 */
+	private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+			case "equals":
+				final Object other = args[0];
+				if (other == null || !Proxy.isProxyClass(other.getClass()) || !(Proxy.getInvocationHandler(other) instanceof BinaryStub))
+					return false;
+				final BinaryStub stub = (BinaryStub) Proxy.getInvocationHandler(other);
+				return host.equals(stub.host) && port == stub.port;
+			case "hashCode":
+				return host.hashCode() * 31 + port;
+			case "toString":
+				return "BinaryStub[" + host + ":" + port + "]";
+			default:
+				throw new UnsupportedOperationException(method.toString());
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package transport;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.server.ExportException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exports remote objects with a binary protocol over NIO channels, instead of RMI.
+ * <p>
+ * The shared regions only take and return a few ints and booleans, which RMI pays Java serialization,
+ * a connection per concurrent call and its dispatch for. With the binary transport each call is a frame of fixed width fields,
+ * the clients send their calls on a single connection without waiting for the replies of the others,
+ * and the server runs each call on its own thread.
+ * <p>
+ * The registry is still used to find the objects: the proxy returned by {@link #export(Remote, int)} is bound in place of
+ * the RMI stub, and the clients call it through the same interfaces.
+ * <p>
+ * The methods that have a non-blocking counterpart, such as {@code amINeededAsync}, are served with it, so a call waiting
+ * on the monitor does not hold a thread of the server. A client can also call the counterparts, through {@link #async(Remote, Class)},
+ * to send a call and go on without waiting for its reply.
+ */
+public final class BinaryTransport {
+	/**
+	 * The server of each exported object
+	 */
+	private static final Map<Remote, BinaryServer> SERVERS = new IdentityHashMap<>();
+
+	private BinaryTransport() {
+	}
+
+	/**
+	 * Exports an object, serving its calls on a port
+	 *
+	 * @param obj  the object
+	 * @param port the port to listen on
+	 * @return the proxy the clients call, to bind in the registry
+	 * @throws RemoteException when the port cannot be listened on
+	 * @throws IllegalArgumentException when a method of the object takes or returns a type the transport cannot encode
+	 */
+	public static Remote export(Remote obj, int port) throws RemoteException {
+		final Class<?>[] interfaces = BinaryCodec.remoteInterfaces(obj.getClass());
+		final Method[] methods = BinaryCodec.methods(interfaces);
+		final Method[] asyncMethods = new Method[methods.length];
+		for (int i = 0; i < methods.length; i++)
+			asyncMethods[i] = BinaryCodec.asyncCounterpart(obj.getClass(), methods[i]);
+
+		final BinaryServer server;
+		try {
+			server = new BinaryServer(obj, methods, asyncMethods, port);
+		} catch (IOException e) {
+			throw new ExportException("Binary transport could not listen on port " + port, e);
+		}
+		synchronized (SERVERS) {
+			SERVERS.put(obj, server);
+		}
+		return (Remote) Proxy.newProxyInstance(obj.getClass().getClassLoader(), interfaces, new BinaryStub(hostName(), server.getPort()));
+	}
+
+	/**
+	 * A view of an object exported with the binary transport that also implements the interface of the non-blocking
+	 * counterparts of its methods, so calls can be sent without waiting for the replies of the previous ones.
+	 * The proxy bound in the registry cannot implement it, since the registry only accepts remote interfaces.
+	 * The view has its own connection to the server
+	 *
+	 * @param stub  the object, as found in the registry
+	 * @param async the interface of the non-blocking counterparts, e.g. ICollectionSiteAsync
+	 * @param <T>   the interface's type
+	 * @return the view, implementing the object's remote interfaces and the interface of the counterparts
+	 * @throws IllegalArgumentException when the object was not exported with the binary transport,
+	 *                                  or a method of the interface is not the counterpart of a method of the object
+	 */
+	public static <T> T async(Remote stub, Class<T> async) {
+		if (!Proxy.isProxyClass(stub.getClass()) || !(Proxy.getInvocationHandler(stub) instanceof BinaryStub))
+			throw new IllegalArgumentException("Not exported with the binary transport: " + stub);
+		final Class<?>[] remote = BinaryCodec.remoteInterfaces(stub.getClass());
+		final Set<String> signatures = new HashSet<>();
+		for (Method method : BinaryCodec.methods(remote))
+			signatures.add(BinaryCodec.signature(method));
+		for (Method method : async.getMethods())
+			if (!signatures.contains(BinaryCodec.blockingSignature(method)))
+				throw new IllegalArgumentException(method + " is not the non-blocking counterpart of a method of " + stub);
+
+		final Class<?>[] interfaces = Arrays.copyOf(remote, remote.length + 1);
+		interfaces[remote.length] = async;
+		final BinaryStub handler = ((BinaryStub) Proxy.getInvocationHandler(stub)).copy();
+		return async.cast(Proxy.newProxyInstance(async.getClassLoader(), interfaces, handler));
+	}
+
+	/**
+	 * Stops serving an object, if it was exported with the binary transport
+	 *
+	 * @param obj the object
+	 * @return false if it was not exported with the binary transport
+	 */
+	public static boolean unexport(Remote obj) {
+		final BinaryServer server;
+		synchronized (SERVERS) {
+			server = SERVERS.remove(obj);
+		}
+		if (server == null)
+			return false;
+		server.close();
+		return true;
+	}
+
+	/**
+	 * The host the clients connect to, as for RMI: java.rmi.server.hostname if set, otherwise this machine's address
+	 *
+	 * @return the host
+	 * @throws RemoteException when the address of this machine cannot be found
+	 */
+	private static String hostName() throws RemoteException {
+		final String host = System.getProperty("java.rmi.server.hostname");
+		if (host != null)
+			return host;
+		try {
+			return InetAddress.getLocalHost().getHostAddress();
+		} catch (UnknownHostException e) {
+			throw new ExportException("Could not find the address of this host", e);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream that writes what it is given in frames, deflating the frames that are large enough.
+ * <p>
+ * The bytes are buffered until the stream is flushed, which RMI does at the end of every call and return,
+ * or until the buffer is full, then written as one frame.
+ * A frame starts with its length, and when it is deflated with the negated length followed by the length it inflates to.
+ * A frame is only deflated when it is at least as large as the threshold and deflating makes it smaller,
+ * so the small calls do not pay for compression. It is read by {@link DecompressingInputStream}.
+ */
+class CompressingOutputStream extends FilterOutputStream {
+	/**
+	 * The largest frame, before deflating
+	 */
+	static final int MAX_FRAME = 16 * 1024;
+
+	/**
+	 * The smallest frame that is deflated
+	 */
+	private final int threshold;
+	/**
+	 * The deflater, reset for every frame
+	 */
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	/**
+	 * The bytes of the frame being filled
+	 */
+	private final byte[] frame = new byte[MAX_FRAME];
+	/**
+	 * The deflated frame
+	 */
+	private final byte[] deflated = new byte[MAX_FRAME];
+	/**
+	 * The number of bytes in the frame being filled
+	 */
+	private int count;
+
+	/**
+	 * @param out       the stream written
+	 * @param threshold the smallest frame that is deflated
+	 */
+	CompressingOutputStream(OutputStream out, int threshold) {
+		super(out);
+		this.threshold = threshold;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(int b) throws IOException {
+		if (count == frame.length)
+			writeFrame();
+		frame[count++] = (byte) b;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (count == frame.length)
+				writeFrame();
+			final int n = Math.min(len, frame.length - count);
+			System.arraycopy(b, off, frame, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Writes the frame being filled, then flushes the stream written
+	 *
+	 * @throws IOException when the stream written fails
+	 */
+	@Override
+	public void flush() throws IOException {
+		writeFrame();
+		out.flush();
+	}
+
+	/**
+	 * Writes the frame being filled and closes the stream written
+	 *
+	 * @throws IOException when the stream written fails
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			deflater.end();
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes the frame being filled, if it is not empty, deflated if that is worth it
+	 *
+	 * @throws IOException when the stream written fails
+	 */
+	private void writeFrame() throws IOException {
+		if (count == 0)
+			return;
+		if (count >= threshold) {
+			deflater.reset();
+			deflater.setInput(frame, 0, count);
+			deflater.finish();
+			final int n = deflater.deflate(deflated, 0, count - 1);     // only worth it if smaller
+			if (deflater.finished()) {
+				writeInt(-n);
+				writeInt(count);
+				out.write(deflated, 0, n);
+				count = 0;
+				return;
+			}
+		}
+		writeInt(count);
+		out.write(frame, 0, count);
+		count = 0;
+	}
+
+	/**
+	 * Writes an integer, most significant byte first
+	 *
+	 * @param v the integer
+	 * @throws IOException when the stream written fails
+	 */
+	private void writeInt(int v) throws IOException {
+		out.write(v >>> 24);
+		out.write(v >>> 16);
+		out.write(v >>> 8);
+		out.write(v);
+	}
+}
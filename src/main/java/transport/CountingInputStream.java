@@ -0,0 +1,68 @@
+package transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Input stream that adds the number of bytes read to a counter
+ */
+class CountingInputStream extends FilterInputStream {
+	/**
+	 * The counter
+	 */
+	private final AtomicLong count;
+
+	/**
+	 * @param in    the stream read
+	 * @param count the counter of the bytes read
+	 */
+	CountingInputStream(InputStream in, AtomicLong count) {
+		super(in);
+		this.count = count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read() throws IOException {
+		final int b = in.read();
+		if (b >= 0)
+			count.incrementAndGet();
+		return b;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		final int n = in.read(b, off, len);
+		if (n > 0)
+			count.addAndGet(n);
+		return n;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		final long skipped = in.skip(n);
+		if (skipped > 0)
+			count.addAndGet(skipped);
+		return skipped;
+	}
+
+	/**
+	 * Marks are not supported, a reset would count the bytes twice
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
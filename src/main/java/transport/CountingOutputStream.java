@@ -0,0 +1,43 @@
+package transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Output stream that adds the number of bytes written to a counter
+ */
+class CountingOutputStream extends FilterOutputStream {
+	/**
+	 * The counter
+	 */
+	private final AtomicLong count;
+
+	/**
+	 * @param out   the stream written
+	 * @param count the counter of the bytes written
+	 */
+	CountingOutputStream(OutputStream out, AtomicLong count) {
+		super(out);
+		this.count = count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		count.incrementAndGet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		count.addAndGet(len);
+	}
+}
@@ -0,0 +1,187 @@
+package transport;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream that reads the frames written by a {@link CompressingOutputStream}, inflating the deflated ones
+ */
+class DecompressingInputStream extends FilterInputStream {
+	/**
+	 * The inflater, reset for every frame
+	 */
+	private final Inflater inflater = new Inflater();
+	/**
+	 * The bytes of the frame being read
+	 */
+	private final byte[] frame = new byte[CompressingOutputStream.MAX_FRAME];
+	/**
+	 * The deflated frame
+	 */
+	private final byte[] deflated = new byte[CompressingOutputStream.MAX_FRAME];
+	/**
+	 * The position of the next byte of the frame to read
+	 */
+	private int position;
+	/**
+	 * The number of bytes of the frame
+	 */
+	private int limit;
+
+	/**
+	 * @param in the stream read
+	 */
+	DecompressingInputStream(InputStream in) {
+		super(in);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read() throws IOException {
+		while (position == limit)
+			if (!readFrame())
+				return -1;
+		return frame[position++] & 0xff;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0)
+			return 0;
+		while (position == limit)
+			if (!readFrame())
+				return -1;
+		final int n = Math.min(len, limit - position);
+		System.arraycopy(frame, position, b, off, n);
+		position += n;
+		return n;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0)
+			return 0;
+		while (position == limit)
+			if (!readFrame())
+				return 0;
+		final int skipped = (int) Math.min(n, limit - position);
+		position += skipped;
+		return skipped;
+	}
+
+	/**
+	 * The bytes left in the frame being read, that can be read without blocking
+	 *
+	 * @return the number of bytes left in the frame
+	 */
+	@Override
+	public int available() {
+		return limit - position;
+	}
+
+	/**
+	 * Marks are not supported
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * Closes the stream read
+	 *
+	 * @throws IOException when the stream read fails
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			in.close();
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Reads the next frame, inflating it if needed
+	 *
+	 * @return false if the stream ended before the frame
+	 * @throws IOException when the stream read fails, ends inside the frame or the frame is corrupt
+	 */
+	private boolean readFrame() throws IOException {
+		final int first = in.read();
+		if (first < 0)
+			return false;
+		final int header = first << 24 | readInt(3);
+		if (header >= 0) {
+			if (header > frame.length)
+				throw new IOException("Frame too large: " + header);
+			readFully(frame, header);
+			limit = header;
+		} else {
+			final int length = -header;
+			final int inflated = readInt(4);
+			if (length <= 0 || length > deflated.length || inflated < 0 || inflated > frame.length)
+				throw new IOException("Frame too large: " + length + " deflated to " + inflated);
+			readFully(deflated, length);
+			inflater.reset();
+			inflater.setInput(deflated, 0, length);
+			try {
+				if (inflater.inflate(frame, 0, inflated) != inflated || !inflater.finished())
+					throw new IOException("Corrupt frame");
+			} catch (DataFormatException e) {
+				throw new IOException("Corrupt frame", e);
+			}
+			limit = inflated;
+		}
+		position = 0;
+		return true;
+	}
+
+	/**
+	 * Reads the bytes of an integer, most significant byte first
+	 *
+	 * @param bytes the number of bytes to read
+	 * @return the bytes read, as the low order bytes of an integer
+	 * @throws IOException when the stream read fails or ends
+	 */
+	private int readInt(int bytes) throws IOException {
+		int v = 0;
+		for (int i = 0; i < bytes; i++) {
+			final int b = in.read();
+			if (b < 0)
+				throw new EOFException();
+			v = v << 8 | b;
+		}
+		return v;
+	}
+
+	/**
+	 * Reads a number of bytes
+	 *
+	 * @param b   the buffer to read into, from its start
+	 * @param len the number of bytes to read
+	 * @throws IOException when the stream read fails or ends
+	 */
+	private void readFully(byte[] b, int len) throws IOException {
+		for (int off = 0; off < len; ) {
+			final int n = in.read(b, off, len - off);
+			if (n < 0)
+				throw new EOFException();
+			off += n;
+		}
+	}
+}
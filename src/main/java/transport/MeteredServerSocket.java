@@ -0,0 +1,51 @@
+package transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * Server socket that accepts {@link MeteredSocket}s, configured by the factory that created it
+ */
+class MeteredServerSocket extends ServerSocket {
+	/**
+	 * The factory that created it
+	 */
+	private final TunedSocketFactory factory;
+	/**
+	 * The stats of the remote object the socket accepts connections for
+	 */
+	private final TransportStats stats;
+
+	/**
+	 * Creates a server socket listening on a port
+	 *
+	 * @param port    the port, 0 for any free port
+	 * @param factory the factory that creates it
+	 * @param stats   the stats of the remote object the socket accepts connections for
+	 * @throws IOException when the port cannot be listened on
+	 */
+	MeteredServerSocket(int port, TunedSocketFactory factory, TransportStats stats) throws IOException {
+		this.factory = factory;
+		this.stats = stats;
+		if (factory.getBufferSize() > 0)
+			setReceiveBufferSize(factory.getBufferSize());         // before binding, so it applies to the window the accepted sockets start with
+		bind(new InetSocketAddress(port));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Socket accept() throws IOException {
+		if (isClosed())
+			throw new SocketException("Socket is closed");
+		final MeteredSocket socket = new MeteredSocket(stats, factory.getCompressionThreshold());
+		implAccept(socket);
+		factory.configure(socket);
+		stats.connections.incrementAndGet();
+		return socket;
+	}
+}
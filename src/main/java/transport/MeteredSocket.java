@@ -0,0 +1,109 @@
+package transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Socket whose streams count the bytes moved, and compress them when the factory that created it does
+ */
+class MeteredSocket extends Socket {
+	/**
+	 * Size of the buffers between the compressing streams and the socket, so a frame's header is not written on its own
+	 */
+	private static final int BUFFER = 8 * 1024;
+
+	/**
+	 * The stats of the remote object the socket is connected for
+	 */
+	private final TransportStats stats;
+	/**
+	 * The smallest frame that is deflated, 0 to not compress
+	 */
+	private final int compressionThreshold;
+	/**
+	 * The input stream, created the first time it is asked for
+	 */
+	private InputStream in;
+	/**
+	 * The output stream, created the first time it is asked for
+	 */
+	private OutputStream out;
+
+	/**
+	 * Creates an unconnected socket
+	 *
+	 * @param stats                the stats of the remote object the socket is connected for
+	 * @param compressionThreshold the smallest frame that is deflated, 0 to not compress
+	 */
+	MeteredSocket(TransportStats stats, int compressionThreshold) {
+		this.stats = stats;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized InputStream getInputStream() throws IOException {
+		if (in == null) {
+			final InputStream wire = new CountingInputStream(super.getInputStream(), stats.wireIn);
+			in = new CountingInputStream(compressionThreshold > 0
+					? new DecompressingInputStream(new BufferedInputStream(wire, BUFFER))
+					: wire, stats.payloadIn);
+		}
+		return in;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized OutputStream getOutputStream() throws IOException {
+		if (out == null) {
+			final OutputStream wire = new CountingOutputStream(super.getOutputStream(), stats.wireOut);
+			out = new CountingOutputStream(compressionThreshold > 0
+					? new CompressingOutputStream(new BufferedOutputStream(wire, BUFFER), compressionThreshold)
+					: wire, stats.payloadOut);
+		}
+		return out;
+	}
+
+	/**
+	 * Closes the socket and releases the compressing streams
+	 *
+	 * @throws IOException when closing the socket fails
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		final InputStream in = this.in;
+		final OutputStream out = this.out;
+		this.in = null;
+		this.out = null;
+		try {
+			super.close();
+		} finally {
+			// the socket is closed, so closing the streams only releases the inflater and deflater
+			if (in != null)
+				closeQuietly(in);
+			if (out != null)
+				closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Closes a stream, ignoring the errors of writing to the closed socket
+	 *
+	 * @param stream the stream
+	 */
+	private static void closeQuietly(Closeable stream) {
+		try {
+			stream.close();
+		} catch (IOException ignored) {
+		}
+	}
+}
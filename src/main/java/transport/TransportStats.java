@@ -0,0 +1,99 @@
+package transport;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The connections opened and bytes moved for a remote object, by the sockets of a {@link TunedSocketFactory}.
+ * <p>
+ * Each process records the side it sees: a server records the connections it accepted for the objects it exports,
+ * a client the connections it opened to the objects it calls.
+ * The payload is what RMI wrote and read, the wire what went through the socket, less than the payload when compressed.
+ */
+public final class TransportStats {
+	/**
+	 * The stats of every remote object and side, in creation order
+	 */
+	private static final Map<String, TransportStats> STATS = new LinkedHashMap<>();
+
+	/**
+	 * The name of the remote object
+	 */
+	private final String server;
+	/**
+	 * Whether these are the stats of the object's own process, or of one of its clients
+	 */
+	private final boolean serverSide;
+	/**
+	 * The number of connections opened
+	 */
+	final AtomicLong connections = new AtomicLong();
+	/**
+	 * Bytes read by RMI
+	 */
+	final AtomicLong payloadIn = new AtomicLong();
+	/**
+	 * Bytes written by RMI
+	 */
+	final AtomicLong payloadOut = new AtomicLong();
+	/**
+	 * Bytes read from the sockets
+	 */
+	final AtomicLong wireIn = new AtomicLong();
+	/**
+	 * Bytes written to the sockets
+	 */
+	final AtomicLong wireOut = new AtomicLong();
+
+	/**
+	 * @param server     the name of the remote object
+	 * @param serverSide whether these are the stats of the object's own process
+	 */
+	private TransportStats(String server, boolean serverSide) {
+		this.server = server;
+		this.serverSide = serverSide;
+	}
+
+	/**
+	 * The stats of a remote object, created the first time they are needed
+	 *
+	 * @param server     the name of the remote object
+	 * @param serverSide whether the sockets are the object's own, rather than a client's
+	 * @return the stats
+	 */
+	static TransportStats of(String server, boolean serverSide) {
+		synchronized (STATS) {
+			final String key = (serverSide ? "server " : "client ") + server;
+			TransportStats stats = STATS.get(key);
+			if (stats == null) {
+				stats = new TransportStats(server, serverSide);
+				STATS.put(key, stats);
+			}
+			return stats;
+		}
+	}
+
+	/**
+	 * Formats the stats of every remote object of this process as a table
+	 *
+	 * @return the table, with a header line, empty of rows when no socket was created by a {@link TunedSocketFactory}
+	 */
+	public static String report() {
+		final List<TransportStats> stats;
+		synchronized (STATS) {
+			stats = new ArrayList<>(STATS.values());
+		}
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-20s %-6s %11s | %12s %12s | %12s %12s%n",
+				"Server", "Side", "Connections", "Payload in", "Payload out", "Wire in", "Wire out"));
+		for (TransportStats s : stats) {
+			sb.append(String.format("%-20s %-6s %11d | %12d %12d | %12d %12d%n",
+					s.server, s.serverSide ? "server" : "client", s.connections.get(),
+					s.payloadIn.get(), s.payloadOut.get(), s.wireIn.get(), s.wireOut.get()));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,131 @@
+package transport;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+
+/**
+ * Socket factory of a remote object, for both its server and its clients.
+ * <p>
+ * The sockets have TCP_NODELAY set, since every call is a small request waiting for a small reply and must not wait for
+ * the acknowledgement of the previous segment, and optionally larger send and receive buffers.
+ * Frames of at least a threshold size can be deflated, which pays off for the larger payloads, such as the logger's batches.
+ * Both ends of a connection must agree on that, so the factory is sent to the clients along with the object's stub.
+ * <p>
+ * Every socket counts its connections and bytes in the {@link TransportStats} of the object, in the process it was created in.
+ * Two factories are equal when they are for the same object with the same settings, so RMI shares the connections made with them.
+ */
+public class TunedSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The name of the remote object
+	 */
+	private final String server;
+	/**
+	 * The size of the send and receive buffers, 0 for the system's default
+	 */
+	private final int bufferSize;
+	/**
+	 * The smallest frame that is deflated, 0 to not compress
+	 */
+	private final int compressionThreshold;
+
+	/**
+	 * Creates a factory
+	 *
+	 * @param server               the name of the remote object
+	 * @param bufferSize           the size of the send and receive buffers, 0 for the system's default
+	 * @param compressionThreshold the smallest frame, in bytes, that is deflated, 0 to not compress
+	 */
+	public TunedSocketFactory(String server, int bufferSize, int compressionThreshold) {
+		if (bufferSize < 0 || compressionThreshold < 0)
+			throw new IllegalArgumentException("Buffer size and compression threshold must not be negative");
+		this.server = server;
+		this.bufferSize = bufferSize;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Socket createSocket(String host, int port) throws IOException {
+		final TransportStats stats = TransportStats.of(server, false);
+		final MeteredSocket socket = new MeteredSocket(stats, compressionThreshold);
+		try {
+			configure(socket);
+			socket.connect(new InetSocketAddress(host, port));
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+		stats.connections.incrementAndGet();
+		return socket;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ServerSocket createServerSocket(int port) throws IOException {
+		return new MeteredServerSocket(port, this, TransportStats.of(server, true));
+	}
+
+	/**
+	 * Sets the options of a socket
+	 *
+	 * @param socket the socket
+	 * @throws IOException when an option cannot be set
+	 */
+	void configure(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		if (bufferSize > 0) {
+			socket.setSendBufferSize(bufferSize);
+			socket.setReceiveBufferSize(bufferSize);
+		}
+	}
+
+	/**
+	 * Getter for the size of the send and receive buffers
+	 *
+	 * @return the size of the buffers, 0 for the system's default
+	 */
+	int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Getter for the smallest frame that is deflated
+	 *
+	 * @return the smallest frame that is deflated, 0 if not compressing
+	 */
+	int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		final TunedSocketFactory that = (TunedSocketFactory) o;
+		return bufferSize == that.bufferSize && compressionThreshold == that.compressionThreshold && server.equals(that.server);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return (server.hashCode() * 31 + bufferSize) * 31 + compressionThreshold;
+	}
+}
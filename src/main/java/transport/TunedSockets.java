@@ -0,0 +1,45 @@
+package transport;
+
+import Register.SocketFactories;
+
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+
+/**
+ * Exports every remote object with its own {@link TunedSocketFactory}, all with the same settings
+ */
+public class TunedSockets implements SocketFactories {
+	/**
+	 * The size of the send and receive buffers, 0 for the system's default
+	 */
+	private final int bufferSize;
+	/**
+	 * The smallest frame that is deflated, 0 to not compress
+	 */
+	private final int compressionThreshold;
+
+	/**
+	 * @param bufferSize           the size of the send and receive buffers, 0 for the system's default
+	 * @param compressionThreshold the smallest frame, in bytes, that is deflated, 0 to not compress
+	 */
+	public TunedSockets(int bufferSize, int compressionThreshold) {
+		this.bufferSize = bufferSize;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RMIClientSocketFactory clientFactory(String server) {
+		return new TunedSocketFactory(server, bufferSize, compressionThreshold);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RMIServerSocketFactory serverFactory(String server) {
+		return new TunedSocketFactory(server, bufferSize, compressionThreshold);
+	}
+}